@@ -0,0 +1,217 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import de.tum.cit.fop.maze.entities.EntityPathfinder;
+import de.tum.cit.fop.maze.entities.HierarchicalPathfinder;
+import de.tum.cit.fop.maze.essentials.AbsolutePoint;
+import de.tum.cit.fop.maze.essentials.BoundingRectangle;
+import de.tum.cit.fop.maze.Globals;
+import de.tum.cit.fop.maze.level.NavigationGrid;
+import de.tum.cit.fop.maze.level.WallHitboxes;
+import de.tum.cit.fop.maze.level.worldgen.MazeGenerator;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>Pathfinding benchmark</h2>
+ * <p>Compares {@link EntityPathfinder#aStar(NavigationGrid, BoundingRectangle, AbsolutePoint, AbsolutePoint)}
+ * with the previous search, a best-first search ordered by the distance to the end only, with boxed points in
+ * hash maps and a {@link LinkedList} path. Both run on the same {@link NavigationGrid}, so only the search
+ * itself is compared.</p>
+ * <p>Every invocation solves the same {@value #QUERIES} queries between random walkable points within the
+ * pathfinding range. The {@link Expansions} counters report the expanded nodes, divide them by the searches to
+ * get the nodes per query.</p>
+ * <p>{@link #hierarchicalPath()} solves {@value #QUERIES} chases up to {@code ENTITY_HIERARCHICAL_PATHFINDING_RANGE}
+ * with the {@link HierarchicalPathfinder}, its cost should stay close to the short fine searches.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntityPathfinderBenchmark {
+    private static final int QUERIES = 64;
+    /// Bounding rectangle of the entities, see {@code Entity#boundingRectangle}
+    private static final BoundingRectangle RECTANGLE = new BoundingRectangle(1.6f, 1.04f);
+
+    @Param({"35", "101"})
+    public int size;
+
+    private final EntityPathfinder pathfinder = new EntityPathfinder();
+    private final HierarchicalPathfinder hierarchicalPathfinder = new HierarchicalPathfinder(pathfinder);
+    private NavigationGrid grid;
+    private boolean[][] wallMap;
+    private final AbsolutePoint[] starts = new AbsolutePoint[QUERIES];
+    private final AbsolutePoint[] ends = new AbsolutePoint[QUERIES];
+    private final AbsolutePoint[] chaseStarts = new AbsolutePoint[QUERIES];
+    private final AbsolutePoint[] chaseEnds = new AbsolutePoint[QUERIES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Box2D.init();
+        MazeGenerator generator = new MazeGenerator(size, size, new Random(42));
+        generator.generate();
+        MazeGrid maze = generator.getGrid();
+        wallMap = WallHitboxes.wallMapOf(maze);
+        World world = new World(new Vector2(0, 0), true);
+        WallHitboxes hitboxes = new WallHitboxes(world, wallMap);
+        hitboxes.generateHitboxes();
+        world.dispose();
+        grid = new NavigationGrid(maze.width * 3, maze.height * 3);
+        grid.addHitboxes(hitboxes.getHitboxes());
+
+        Random random = new Random(7);
+        float range = Globals.ENTITY_PATHFINDING_RANGE * 0.9f;
+        for (int k = 0; k < QUERIES; ) {
+            AbsolutePoint start = randomWalkablePoint(random, grid.width, grid.height);
+            AbsolutePoint end = randomWalkablePoint(random, grid.width, grid.height);
+            if (start.distance(end) > range || start.distance(end) < range / 4
+                || pathfinder.aStar(grid, RECTANGLE, start, end) == null) {
+                continue;
+            }
+            starts[k] = start;
+            ends[k++] = end;
+        }
+        float chaseRange = Globals.ENTITY_HIERARCHICAL_PATHFINDING_RANGE * 0.9f;
+        for (int k = 0; k < QUERIES; ) {
+            AbsolutePoint start = randomWalkablePoint(random, grid.width, grid.height);
+            AbsolutePoint end = randomWalkablePoint(random, grid.width, grid.height);
+            if (start.distance(end) > chaseRange || start.distance(end) < chaseRange / 4
+                || hierarchicalPathfinder.findPath(wallMap, grid, RECTANGLE, start, end) == null) {
+                continue;
+            }
+            chaseStarts[k] = start;
+            chaseEnds[k++] = end;
+        }
+    }
+
+    private AbsolutePoint randomWalkablePoint(Random random, int width, int height) {
+        while (true) {
+            float x = (random.nextInt(width) + 0.5f) * NavigationGrid.SAMPLE_METERS;
+            float y = (random.nextInt(height) + 0.5f) * NavigationGrid.SAMPLE_METERS;
+            if (grid.isWalkable(RECTANGLE, x, y)) {
+                return new AbsolutePoint(x, y);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Expansions {
+        public long expandedNodes;
+        public long searches;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            expandedNodes = 0;
+            searches = 0;
+        }
+    }
+
+    @Benchmark
+    public int aStar(Expansions expansions) {
+        int length = 0;
+        for (int k = 0; k < QUERIES; k++) {
+            EntityPathfinder.SearchResult result = pathfinder.findPath(grid, RECTANGLE, starts[k], ends[k]);
+            length += result.path().size();
+            expansions.expandedNodes += result.expandedNodes();
+        }
+        expansions.searches += QUERIES;
+        return length;
+    }
+
+    @Benchmark
+    public int previousSearch(Expansions expansions) {
+        int length = 0;
+        for (int k = 0; k < QUERIES; k++) {
+            List<AbsolutePoint> path = PreviousSearch.search(grid, RECTANGLE, starts[k], ends[k], expansions);
+            length += path == null ? 0 : path.size();
+        }
+        expansions.searches += QUERIES;
+        return length;
+    }
+
+    @Benchmark
+    public int hierarchicalPath() {
+        int length = 0;
+        for (int k = 0; k < QUERIES; k++) {
+            length += hierarchicalPathfinder.findPath(wallMap, grid, RECTANGLE, chaseStarts[k], chaseEnds[k]).size();
+        }
+        return length;
+    }
+
+    /**
+     * The search {@link EntityPathfinder} used before, with the Box2D query replaced by the navigation grid
+     */
+    private static final class PreviousSearch {
+        private static final float UNIT = NavigationGrid.SAMPLE_METERS;
+        private static final RelativePoint[] DIRECTIONS = {
+            new RelativePoint(0, 1), new RelativePoint(1, 0), new RelativePoint(0, -1), new RelativePoint(-1, 0),
+            new RelativePoint(1, 1), new RelativePoint(1, -1), new RelativePoint(-1, 1), new RelativePoint(-1, -1)
+        };
+
+        private static List<AbsolutePoint> search(NavigationGrid grid, BoundingRectangle rectangle,
+                                                  AbsolutePoint start, AbsolutePoint end, Expansions expansions) {
+            float distanceLimit = UNIT * NavigationGrid.RESOLUTION * Globals.ENTITY_PATHFINDING_RANGE;
+            if (start.distance(end) > distanceLimit) {
+                return null;
+            }
+            PriorityQueue<RelativePoint> open = new PriorityQueue<>(
+                Comparator.comparingDouble(p -> p.toAbsolutePoint(start).distance(end))
+            );
+            HashMap<RelativePoint, RelativePoint> cameFrom = new HashMap<>();
+            HashMap<RelativePoint, Float> cost = new HashMap<>();
+            open.add(new RelativePoint(0, 0));
+            cost.put(new RelativePoint(0, 0), 0f);
+            while (!open.isEmpty()) {
+                RelativePoint current = open.poll();
+                expansions.expandedNodes++;
+                AbsolutePoint currentPoint = current.toAbsolutePoint(start);
+                if (currentPoint.distance(end) <= UNIT * 1.5f) {
+                    LinkedList<AbsolutePoint> path = new LinkedList<>();
+                    path.addFirst(end);
+                    while (cameFrom.containsKey(current)) {
+                        current = cameFrom.get(current);
+                        path.addFirst(current.toAbsolutePoint(start));
+                    }
+                    path.remove(0);
+                    return path;
+                }
+                for (RelativePoint point : DIRECTIONS) {
+                    RelativePoint neighbor = new RelativePoint(current.x + point.x, current.y + point.y);
+                    AbsolutePoint neighborPoint = neighbor.toAbsolutePoint(start);
+                    if (neighborPoint.distance(start) > distanceLimit
+                        || !grid.isWalkable(rectangle, neighborPoint.x(), neighborPoint.y())) {
+                        continue;
+                    }
+                    float newCost = cost.get(current) + currentPoint.distance(neighborPoint);
+                    if (!cost.containsKey(neighbor) || newCost < cost.get(neighbor)) {
+                        cost.put(neighbor, newCost);
+                        cameFrom.put(neighbor, current);
+                        open.add(neighbor);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private record RelativePoint(float x, float y) {
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof RelativePoint other && x == other.x && y == other.y;
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hash(x, y);
+            }
+
+            AbsolutePoint toAbsolutePoint(AbsolutePoint origin) {
+                return new AbsolutePoint(origin.x() + x * UNIT, origin.y() + y * UNIT);
+            }
+        }
+    }
+}
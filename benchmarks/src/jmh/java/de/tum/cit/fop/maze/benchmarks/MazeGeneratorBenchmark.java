@@ -0,0 +1,30 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.level.worldgen.MazeGenerator;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>Maze generation benchmark</h2>
+ * <p>Measures the whole {@link MazeGenerator#generate()} pipeline, i.e. carving, rooms, the fixes, traps and the
+ * exit, from the default level size up to {@code 501x501}. Every invocation generates a different seed.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MazeGeneratorBenchmark {
+    @Param({"35", "101", "201", "501"})
+    public int size;
+
+    private long seed;
+
+    @Benchmark
+    public MazeGrid generate() {
+        MazeGenerator generator = new MazeGenerator(size, size, new Random(seed++));
+        generator.generate();
+        return generator.getGrid();
+    }
+}
@@ -0,0 +1,180 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.RayCastCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import de.tum.cit.fop.maze.Globals;
+import de.tum.cit.fop.maze.essentials.BodyBits;
+import de.tum.cit.fop.maze.level.LightCulling;
+import de.tum.cit.fop.maze.level.WallHitboxes;
+import de.tum.cit.fop.maze.level.worldgen.MazeGenerator;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>Torch light benchmark</h2>
+ * <p>Compares the light work of a frame on a level with many torches, before and after the
+ * {@link de.tum.cit.fop.maze.level.LightManager}:</p>
+ * <ul>
+ *     <li>{@link #everyFrame()} casts the rays of every torch, as every torch updated its dynamic light in every
+ *     frame</li>
+ *     <li>{@link #baked()} culls the torches and picks their rays with the {@link LightCulling} of the light
+ *     manager and only casts the rays of dirty lights, one occluder changes every second</li>
+ * </ul>
+ * <p>A {@code PointLight} needs an OpenGL context, so the benchmark casts the Box2D rays of a light itself, against
+ * the wall hitboxes of a generated maze in a headless {@link World}. The rays are the CPU cost of a light update,
+ * the mesh upload is not measured. Every invocation is one frame, the camera and the player move from torch to
+ * torch.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TorchLightBenchmark {
+    private static final int MAZE_SIZE = 101;
+    /// Half of the camera view in meters, the camera shows half of the window
+    private static final float HALF_VIEW_WIDTH = Globals.DEFAULT_SCREEN_WIDTH_WINDOWED / Globals.PPM / 4;
+    private static final float HALF_VIEW_HEIGHT = Globals.DEFAULT_SCREEN_HEIGHT_WINDOWED / Globals.PPM / 4;
+    private static final int FRAMES_PER_OCCLUDER_CHANGE = 60;
+
+    @Param({"50", "100"})
+    public int torches;
+
+    private World world;
+    private float[] torchX;
+    private float[] torchY;
+    private boolean[] dirty;
+    private boolean[] hard;
+    /// Rays every torch was baked with
+    private int[] rays;
+    private final LightCulling<Integer> culling = new LightCulling<>();
+    private final OrthographicCamera camera = new OrthographicCamera(2 * HALF_VIEW_WIDTH, 2 * HALF_VIEW_HEIGHT);
+    private final ArrayList<Integer> query = new ArrayList<>();
+    private final Vector2 start = new Vector2();
+    private final Vector2 end = new Vector2();
+    private final Random random = new Random(42);
+    private float closest;
+    private int frame;
+
+    private final RayCastCallback callback = (fixture, point, normal, fraction) -> {
+        if ((fixture.getFilterData().categoryBits & BodyBits.LIGHT_MASK) == 0) {
+            return -1;
+        }
+        closest = fraction;
+        return fraction;
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Box2D.init();
+        MazeGenerator generator = new MazeGenerator(MAZE_SIZE, MAZE_SIZE, new Random(42));
+        generator.generate();
+        MazeGrid grid = generator.getGrid();
+        boolean[][] wallMap = WallHitboxes.wallMapOf(grid);
+        world = new World(new Vector2(0, 0), true);
+        new WallHitboxes(world, wallMap).generateHitboxes();
+
+        torchX = new float[torches];
+        torchY = new float[torches];
+        dirty = new boolean[torches];
+        hard = new boolean[torches];
+        rays = new int[torches];
+        for (int k = 0; k < torches; ) {
+            int row = random.nextInt(wallMap.length);
+            int column = random.nextInt(wallMap[row].length);
+            if (wallMap[row][column]) continue;
+            torchX[k] = (column + 0.5f) * Globals.CELL_SIZE_METERS;
+            torchY[k] = (row + 0.5f) * Globals.CELL_SIZE_METERS;
+            dirty[k] = true;
+            rays[k] = Globals.RAY_AMOUNT;
+            culling.insert(k, torchX[k], torchY[k]);
+            k++;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+    /**
+     * Casts the rays of a light, like the update of a {@code PointLight}
+     */
+    private float castRays(int torch, int rayCount) {
+        float sum = 0;
+        for (int ray = 0; ray < rayCount; ray++) {
+            float angle = MathUtils.PI2 * ray / rayCount;
+            start.set(torchX[torch], torchY[torch]);
+            end.set(
+                torchX[torch] + MathUtils.cos(angle) * Globals.TORCH_LIGHT_RADIUS,
+                torchY[torch] + MathUtils.sin(angle) * Globals.TORCH_LIGHT_RADIUS
+            );
+            closest = 1;
+            world.rayCast(callback, start, end);
+            sum += closest;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float everyFrame() {
+        float sum = 0;
+        for (int torch = 0; torch < torches; torch++) {
+            sum += castRays(torch, Globals.RAY_AMOUNT);
+        }
+        return sum;
+    }
+
+    /**
+     * The light work of {@code LightManager.update}, with the decisions of its {@link LightCulling}
+     */
+    @Benchmark
+    public float baked() {
+        frame++;
+        if (frame % FRAMES_PER_OCCLUDER_CHANGE == 0) {
+            int changed = random.nextInt(torches);
+            query.clear();
+            for (int torch : culling.queryReaching(torchX[changed], torchY[changed], query)) {
+                dirty[torch] = true;
+            }
+        }
+        int center = frame % torches;
+        camera.position.set(torchX[center], torchY[center], 0);
+        culling.setView(camera);
+        query.clear();
+        culling.queryView(query);
+        float sum = 0;
+        int rebuilds = 0;
+        for (int torch : query) {
+            if (!culling.reachesView(torchX[torch], torchY[torch], Globals.TORCH_LIGHT_RADIUS)) {
+                continue;
+            }
+            /// The player stands at the center of the view
+            float playerDistance = Vector2.dst(torchX[center], torchY[center], torchX[torch], torchY[torch]);
+            boolean isHard = LightCulling.isHard(playerDistance, hard[torch]);
+            if (isHard != hard[torch]) {
+                hard[torch] = isHard;
+                dirty[torch] = true;
+            }
+            int rayCount = LightCulling.rayCount(
+                culling.coverage(torchX[torch], torchY[torch], Globals.TORCH_LIGHT_RADIUS), isHard
+            );
+            if (rayCount != rays[torch] && rebuilds < Globals.LIGHT_MAX_REBUILDS_PER_FRAME) {
+                rebuilds++;
+                rays[torch] = rayCount;
+                dirty[torch] = true;
+            }
+            if (dirty[torch]) {
+                dirty[torch] = false;
+                sum += castRays(torch, rays[torch]);
+            }
+        }
+        return sum;
+    }
+}
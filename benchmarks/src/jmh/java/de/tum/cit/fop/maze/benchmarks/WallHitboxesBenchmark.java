@@ -0,0 +1,90 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import de.tum.cit.fop.maze.level.WallHitboxes;
+import de.tum.cit.fop.maze.level.worldgen.MazeGenerator;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>Wall hitbox benchmark</h2>
+ * <p>Measures the pure-logic parts of the TileMap construction on a generated maze: building the wall map with
+ * {@link WallHitboxes#wallMapOf(MazeGrid)}, the share of flipping it with
+ * {@link WallHitboxes#reverseCollisionMapRows(boolean[][])} and merging it into hitboxes.</p>
+ * <p>The hitboxes are created in a headless Box2D {@link World}, which is recreated for every invocation so that
+ * the bodies of earlier invocations do not accumulate.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WallHitboxesBenchmark {
+    @Param({"35", "101", "201"})
+    public int size;
+
+    private MazeGrid grid;
+    /// Wall map in map order, as used by the hitbox generation
+    private boolean[][] wallMap;
+    /// Scratch copy flipped by {@link #reverseCollisionMapRows()}
+    private boolean[][] reversed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Box2D.init();
+        MazeGenerator generator = new MazeGenerator(size, size, new Random(42));
+        generator.generate();
+        grid = generator.getGrid();
+        wallMap = WallHitboxes.wallMapOf(grid);
+        reversed = new boolean[wallMap.length][];
+        for (int i = 0; i < wallMap.length; i++) {
+            reversed[i] = wallMap[i].clone();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class HeadlessWorld {
+        World world;
+
+        @Setup(Level.Invocation)
+        public void create() {
+            world = new World(new Vector2(0, 0), true);
+        }
+
+        @TearDown(Level.Invocation)
+        public void dispose() {
+            world.dispose();
+        }
+    }
+
+    /**
+     * Builds a new wall map the same way the TileMap does, three by three tiles for every wall cell
+     */
+    @Benchmark
+    public boolean[][] wallMapOf() {
+        return WallHitboxes.wallMapOf(grid);
+    }
+
+    @Benchmark
+    public boolean[][] reverseCollisionMapRows() {
+        WallHitboxes.reverseCollisionMapRows(reversed);
+        return reversed;
+    }
+
+    @Benchmark
+    public WallHitboxes generateVerticalHitboxes(HeadlessWorld headless) {
+        WallHitboxes hitboxes = new WallHitboxes(headless.world, wallMap);
+        hitboxes.generateVerticalHitboxes();
+        return hitboxes;
+    }
+
+    @Benchmark
+    public WallHitboxes generateHorizontalHitboxes(HeadlessWorld headless) {
+        WallHitboxes hitboxes = new WallHitboxes(headless.world, wallMap);
+        hitboxes.generateHorizontalHitboxes();
+        return hitboxes;
+    }
+}
@@ -0,0 +1,39 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.level.worldgen.CellType;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
+import de.tum.cit.fop.maze.level.worldgen.WilsonsAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>Wall carving scaling benchmark</h2>
+ * <p>Measures {@link WilsonsAlgorithm#carve(MazeGrid, Random)} on square grids from the default level size
+ * up to {@code 1001x1001}. The growth of the score between the sizes should stay close to the growth
+ * of the cell count.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WilsonsAlgorithmBenchmark {
+    @Param({"35", "101", "201", "501", "1001"})
+    public int size;
+
+    private final WilsonsAlgorithm wilsonsAlgorithm = new WilsonsAlgorithm();
+    private MazeGrid grid;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = new MazeGrid(size, size, CellType.WALL);
+    }
+
+    @Benchmark
+    public MazeGrid carve() {
+        grid.fill(CellType.WALL);
+        wilsonsAlgorithm.carve(grid, new Random(seed++));
+        return grid;
+    }
+}
@@ -0,0 +1,106 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import de.tum.cit.fop.maze.level.worldgen.rooms.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>Generation stage benchmark</h2>
+ * <p>Measures the single stages of {@link MazeGenerator#generate()} that run after the rooms are placed:
+ * {@link MazeGenerator#fixReachability()}, {@link MazeGenerator#fixDoubleWalls()},
+ * {@link MazeGenerator#fixCorners()} and {@link MazeGenerator#generateTraps()}.</p>
+ * <p>The stages modify the grid in place, so every invocation restores a snapshot of the grid taken right before
+ * the stage. The benchmark lives in the generator package to reach the package-private stages.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GenerationStagesBenchmark {
+    @Param({"35", "101", "201"})
+    public int size;
+
+    private MazeGenerator generator;
+    private MazeGrid beforeReachability;
+    private MazeGrid beforeDoubleWalls;
+    private MazeGrid beforeCorners;
+    private MazeGrid beforeTraps;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new MazeGenerator(size, size, new Random(42));
+        generator.generateMazeWalls();
+        generator.placeRooms(List.of(
+            new Entrance(),
+            new Shop(),
+            new ItemsRoom(),
+            new ItemsRoom(),
+            new KeyObelisk()
+        ));
+        beforeReachability = generator.getGrid().copy();
+        generator.fixReachability();
+        beforeDoubleWalls = generator.getGrid().copy();
+        generator.fixDoubleWalls();
+        beforeCorners = generator.getGrid().copy();
+        generator.fixCorners();
+        beforeTraps = generator.getGrid().surround(CellType.WALL);
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeReachability {
+        @Setup(Level.Invocation)
+        public void restore(GenerationStagesBenchmark benchmark) {
+            benchmark.generator.setGrid(benchmark.beforeReachability.copy());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeDoubleWalls {
+        @Setup(Level.Invocation)
+        public void restore(GenerationStagesBenchmark benchmark) {
+            benchmark.generator.setGrid(benchmark.beforeDoubleWalls.copy());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeCorners {
+        @Setup(Level.Invocation)
+        public void restore(GenerationStagesBenchmark benchmark) {
+            benchmark.generator.setGrid(benchmark.beforeCorners.copy());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeTraps {
+        @Setup(Level.Invocation)
+        public void restore(GenerationStagesBenchmark benchmark) {
+            benchmark.generator.setGrid(benchmark.beforeTraps.copy());
+        }
+    }
+
+    @Benchmark
+    public MazeGrid fixReachability(BeforeReachability state) {
+        generator.fixReachability();
+        return generator.getGrid();
+    }
+
+    @Benchmark
+    public MazeGrid fixDoubleWalls(BeforeDoubleWalls state) {
+        generator.fixDoubleWalls();
+        return generator.getGrid();
+    }
+
+    @Benchmark
+    public MazeGrid fixCorners(BeforeCorners state) {
+        generator.fixCorners();
+        return generator.getGrid();
+    }
+
+    @Benchmark
+    public MazeGrid generateTraps(BeforeTraps state) {
+        generator.generateTraps();
+        return generator.getGrid();
+    }
+}
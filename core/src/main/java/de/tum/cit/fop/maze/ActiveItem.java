@@ -16,6 +16,7 @@ import de.tum.cit.fop.maze.entities.tile.Projectile;
 import de.tum.cit.fop.maze.essentials.*;
 import de.tum.cit.fop.maze.gson.GSONPostRestorable;
 import de.tum.cit.fop.maze.level.LevelScreen;
+import de.tum.cit.fop.maze.level.LightManager;
 import games.rednblack.miniaudio.MASound;
 
 import java.util.ArrayList;
@@ -154,6 +155,7 @@ public class ActiveItem implements GSONPostRestorable {
                 if (record.isLeft) region.flip(true, false);
                 if (projectileDestroyedAnimation.isAnimationFinished(record.destroyTime)) {
                     deletions.add(record);
+                    LevelScreen.getInstance().lightManager.unregister(record.lightHandle);
                     record.light.remove();
                     record.projectile.toDestroy = true;
                     record.projectile = null;
@@ -174,8 +176,9 @@ public class ActiveItem implements GSONPostRestorable {
                     filter
                 );
                 record.light.setSoft(true);
-                record.light.setActive(true);
                 record.light.attachToBody(player.getBody());
+                record.lightHandle = LevelScreen.getInstance().lightManager.registerDynamic(record.light);
+                LevelScreen.getInstance().lightManager.setLit(record.lightHandle, true);
             }
             if (record.projectile != null && !record.lightAttachedToBody) {
                 record.light.attachToBody(record.projectile.getBody());
@@ -245,6 +248,7 @@ public class ActiveItem implements GSONPostRestorable {
         public boolean lightAttachedToBody = false;
         public boolean hasDamaged = false;
         public transient Light light;
+        public transient LightManager.Handle lightHandle;
     }
 
     public record ActiveItemProperties(
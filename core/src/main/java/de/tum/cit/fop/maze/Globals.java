@@ -21,7 +21,28 @@ public final class Globals {
     public static final int CELL_SIZE = 16;
 
     public static final float ENTITY_PATHFINDING_RANGE = 6 * 3;
+    /// Range of the chase on the maze cell graph, only the start of the path is searched within
+    /// {@link #ENTITY_PATHFINDING_RANGE}
+    public static final float ENTITY_HIERARCHICAL_PATHFINDING_RANGE = 3 * ENTITY_PATHFINDING_RANGE;
     public static final float ENEMY_PATHFINDING_INTERVAL = 0.1f;
+    /// Estimated worker time in seconds of the path searches submitted per frame, see
+    /// {@link de.tum.cit.fop.maze.level.PathRequestScheduler}
+    public static final float ENEMY_PATHFINDING_FRAME_BUDGET = 0.002f;
+    /// Run the AI jobs on virtual threads when the runtime supports them (Java 21+), see
+    /// {@link de.tum.cit.fop.maze.essentials.TaskExecutors}
+    public static final boolean AI_VIRTUAL_THREADS = true;
+    /// Enemies off screen and further than this from the player fall asleep unless they chase the player
+    public static final float ENEMY_AI_SLEEP_DISTANCE = 3 * ENTITY_PATHFINDING_RANGE;
+    /// Sleeping enemies within this distance of the player are woken up, below
+    /// {@link #ENEMY_AI_SLEEP_DISTANCE} so that enemies on the border do not toggle every frame
+    public static final float ENEMY_AI_WAKE_DISTANCE = 2.5f * ENTITY_PATHFINDING_RANGE;
+    /// Frames between two vision checks of an enemy near the player but off screen
+    public static final int ENEMY_AI_NEAR_TICK_INTERVAL = 4;
+    /// Vision checks of enemies off screen per frame, enemies on screen are checked every frame
+    public static final int ENEMY_AI_VISION_CHECK_BUDGET = 8;
+    /// Chasing enemies follow a shared {@link de.tum.cit.fop.maze.level.FlowField} toward the player instead of
+    /// searching a path each
+    public static final boolean ENEMY_CHASE_FLOW_FIELD = true;
 
     public static final float TRAP_SPAWN_CHANCE = 0.06f;
 
@@ -44,9 +65,24 @@ public final class Globals {
     public static final float TORCH_LIGHT_RADIUS = 14f;
     public static final float TRAP_LIGHT_RADIUS = 12f;
     public static final int RAY_AMOUNT = 100;
+    /// Fewest rays of a static light that only covers a small part of the screen, see
+    /// {@link de.tum.cit.fop.maze.level.LightManager}
+    public static final int LIGHT_MIN_RAYS = 24;
+    /// Static lights closer to the player cast hard shadows with all their rays, lights further away soft ones
+    public static final float LIGHT_HARD_SHADOW_DISTANCE = 8f;
+    /// Static lights recreated with another number of rays per frame
+    public static final int LIGHT_MAX_REBUILDS_PER_FRAME = 4;
     public static final float HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS = 1.5f;
     public static final float ENEMY_SPAWN_CHANCE = 0.1f;
     public static final float LOOTCONTAINER_SPAWN_CHANCE = 0.2f;
+    /// Number of maze rows built per frame when a streamed map is loading
+    public static final int STREAMING_BAND_ROWS = 8;
+    /// Tiles per side of the chunks of the {@link de.tum.cit.fop.maze.level.ChunkedMapRenderer}
+    public static final int MAP_CHUNK_TILES = 16;
+    /// Local directory of the {@link de.tum.cit.fop.maze.level.TileMapCache}
+    public static final String LEVEL_CACHE_DIRECTORY = "cache/levels";
+    /// Size cap of the level cache, least recently used levels are evicted above it
+    public static final long LEVEL_CACHE_MAX_BYTES = 32L * 1024 * 1024;
     /// Safety gap for hitboxes, so that the character won't get stuck in a single pixel.
     /// <i>A bit of dark sorcery (i.e. magic numbers), but hey, it's documented!</i>
     public static final float HITBOX_SAFETY_GAP = 0.15f;
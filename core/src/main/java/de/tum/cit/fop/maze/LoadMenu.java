@@ -4,6 +4,7 @@ import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import de.tum.cit.fop.maze.essentials.Assets;
 import de.tum.cit.fop.maze.essentials.SettingsConfiguration;
+import de.tum.cit.fop.maze.essentials.TimerWheel;
 import de.tum.cit.fop.maze.level.GameOverScreen;
 import de.tum.cit.fop.maze.level.SaveManager;
 import de.tum.cit.fop.maze.menu.Menu;
@@ -136,6 +137,13 @@ public class LoadMenu extends Game {
 
     }
 
+    @Override
+    public void render() {
+        /// Delayed tasks run before the screen, also while the level is paused
+        TimerWheel.getInstance().advance(Gdx.graphics.getDeltaTime());
+        super.render();
+    }
+
     @Override
     public void dispose() {
         super.dispose();
@@ -27,7 +27,8 @@ import java.util.*;
  * </p>
  */
 public class Enemy extends Entity implements Attackable {
-    private transient final List<AbsolutePoint> path;
+    /// Replaced as a whole, never modified, so it is read and written without locks
+    private transient volatile EnemyPath path = EnemyPath.EMPTY;
     private transient Animation<TextureRegion> idleAnimation;
     private transient Animation<TextureRegion> movementAnimation;
     private transient Animation<TextureRegion> movementTPAnimation;
@@ -45,7 +46,10 @@ public class Enemy extends Entity implements Attackable {
     private boolean facingRight = true;
     private boolean addedScore = false;
     private transient boolean canHit = true;
-    private transient AbsolutePoint currentPathPoint;
+    /// Set by the {@link de.tum.cit.fop.maze.level.EnemyManager} every frame
+    private transient boolean playerInAttackRange = false;
+    /// Far away from the player, the body is inactive and the enemy is not rendered
+    private transient boolean asleep = false;
     private transient boolean isDamaged = false;
     private boolean deadAnimationReset = false;
     private float damageFlashTimer = 0f;
@@ -64,7 +68,6 @@ public class Enemy extends Entity implements Attackable {
     private Enemy() {
         super();
         this.bodyType = BodyDef.BodyType.DynamicBody;
-        this.path = Collections.synchronizedList(new LinkedList<>());
     }
 
     /**
@@ -74,7 +77,7 @@ public class Enemy extends Entity implements Attackable {
     @Override
     public void render(float deltaTime) {
         elapsedTime += deltaTime;
-        if (path != null && !isAttacking && !isDead()) this.followPath();
+        if (!isAttacking && !isDead()) this.followPath();
         if (isDead() && !deadAnimationReset) {
             deadAnimationReset = true;
             elapsedTime = 0f;
@@ -166,8 +169,7 @@ public class Enemy extends Entity implements Attackable {
             }
         }
 
-        if (LevelScreen.getInstance().player.getPosition().distance(getPosition()) <= Globals.ENEMY_ATTACK_DISTANCE &&
-            !isDead()) {
+        if (playerInAttackRange && !isDead()) {
             attack();
         }
 
@@ -325,6 +327,32 @@ public class Enemy extends Entity implements Attackable {
         return !this.body.getLinearVelocity().isZero();
     }
 
+    /**
+     * @param playerInAttackRange {@code true} if the player is within {@code ENEMY_ATTACK_DISTANCE} of the enemy
+     */
+    public void setPlayerInAttackRange(boolean playerInAttackRange) {
+        this.playerInAttackRange = playerInAttackRange;
+    }
+
+    /**
+     * Puts the enemy to sleep or wakes it up. A sleeping enemy keeps its position, its body does not take part in
+     * the simulation.
+     *
+     * @param asleep {@code true} to put the enemy to sleep
+     */
+    public void setAsleep(boolean asleep) {
+        if (this.asleep == asleep) return;
+        this.asleep = asleep;
+        if (asleep) {
+            this.body.setLinearVelocity(0, 0);
+        }
+        this.body.setActive(!asleep);
+    }
+
+    public boolean isAsleep() {
+        return asleep;
+    }
+
     public boolean isMovingToPlayer() {
         return isMovingToPlayer;
     }
@@ -335,106 +363,55 @@ public class Enemy extends Entity implements Attackable {
     }
 
     /**
-     * Updates the current path for the enemy with the provided list of absolute points.
-     * The method synchronizes on the existing path to ensure thread safety, clears
-     * the current path, and replaces it with the provided path. Additionally, it sets
-     * the first point of the path as the current path point, or null if the path is empty.
+     * Replaces the path of the enemy, the enemy walks to the first waypoint next
      *
-     * @param path The new path represented as a list of AbsolutePoint objects.
-     *             If the list is empty, the current path point will be set to null.
+     * @param path the new path
      */
-    public void updatePath(List<AbsolutePoint> path) {
-        synchronized (this.path) {
-            this.path.clear();
-            this.path.addAll(path);
-            currentPathPoint = path.isEmpty() ? null : path.get(0);
-        }
+    public void setPath(EnemyPath path) {
+        this.path = path;
     }
 
-    public void clearPath() {
-        synchronized (this.path) {
-            this.path.clear();
-            currentPathPoint = null;
-        }
+    /**
+     * @return the waypoints left of the path, never {@code null}
+     */
+    public EnemyPath getPath() {
+        return path;
     }
 
-    public boolean isPathEmpty() {
-        synchronized (this.path) {
-            return this.path.isEmpty();
-        }
+    public void clearPath() {
+        this.path = EnemyPath.EMPTY;
     }
 
-    public int getPathSize() {
-        synchronized (this.path) {
-            return this.path.size();
-        }
+    public boolean isPathEmpty() {
+        return path.isEmpty();
     }
 
     /**
-     * Retrieves the AbsolutePoint at the specified index from the path.
-     * The method is thread-safe, ensuring consistent access to the path.
-     *
-     * @param index The index of the AbsolutePoint to retrieve. Must be within the bounds of the path.
-     * @return The AbsolutePoint at the specified index, or {@code null} if the index is out of bounds.
+     * <p>Controls the movement of the entity along its path. The entity moves towards the next waypoint with its
+     * configured speed, once it is reached the waypoint is dropped from the path. After the last waypoint the
+     * entity stops.</p>
+     * <p>The path is read once and replaced as a whole, a path published in the meantime is not overwritten.</p>
      */
-    public AbsolutePoint getPathElement(int index) {
-        synchronized (this.path) {
-            if (index < 0 || index >= this.path.size()) {
-                return null;
-            }
-            return this.path.get(index);
+    public void followPath() {
+        EnemyPath current = path;
+        if (current.isEmpty()) {
+            return;
         }
-    }
-
-    /**
-     * <p>Controls the movement of the entity along a predefined path. The method checks if the entity
-     * has reached its current target point within the path and updates the target point accordingly.
-     * If no points remain in the path, the entity's movement will stop. Otherwise, the entity continues
-     * to move towards the next point using its configured speed.</p>
-     *
-     * <p>The method is thread-safe, ensuring synchronized access to the path to avoid conflicts with
-     * concurrent updates or modifications to the path.</p>
-     *
-     * <p>Mechanism:
-     * <ol>
-     *     <li>If the current path point is null and the path is non-empty,
-     *     the next point from the path is assigned.</li>
-     *     <li>If the entity's position is within a close distance to the current target point,
-     *     the method checks for the next point in the path or sets the current target point to null if the
-     *     path is empty.</li>
-     *     <li>When a target point is set, the entity's linear velocity is
-     *     calculated and updated to move towards the target point.
-     *     If no target point exists, the entity's velocity is set to zero.</li>
-     * </ol>
-     * </p>
-     */
-    public synchronized void followPath() {
-        synchronized (path) {
-            if (currentPathPoint == null) {
-                if (path.isEmpty()) {
-                    return;
-                }
-                currentPathPoint = path.remove(0);
+        AbsolutePoint position = getPosition();
+        if (Vector2.dst(position.x(), position.y(), current.x(0), current.y(0)) < 0.1f) {
+            EnemyPath next = current.advance();
+            if (path == current) {
+                path = next;
             }
-            if (this.getPosition().distance(currentPathPoint) < 0.1f) {
-                if (path.isEmpty()) {
-                    currentPathPoint = null;
-                } else {
-                    currentPathPoint = path.remove(0);
-                }
-            }
-            if (currentPathPoint != null) {
-                AbsolutePoint direction = new AbsolutePoint(
-                    currentPathPoint.x() - getPosition().x(),
-                    currentPathPoint.y() - getPosition().y()
-                );
-                this.body.setLinearVelocity(
-                    direction.toVector2().nor().scl(config.attributes.speed)
-                );
-            } else {
+            current = next;
+            if (current.isEmpty()) {
                 this.body.setLinearVelocity(0, 0);
+                return;
             }
         }
+        this.body.setLinearVelocity(
+            new Vector2(current.x(0) - position.x(), current.y(0) - position.y()).nor().scl(config.attributes.speed)
+        );
     }
 
     /**
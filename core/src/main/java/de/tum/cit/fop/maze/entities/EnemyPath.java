@@ -0,0 +1,137 @@
+package de.tum.cit.fop.maze.entities;
+
+import de.tum.cit.fop.maze.essentials.AbsolutePoint;
+import de.tum.cit.fop.maze.essentials.BoundingRectangle;
+import de.tum.cit.fop.maze.level.NavigationGrid;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <h2>Enemy path</h2>
+ * <p>Immutable path of an enemy, the waypoints are stored as {@code x, y} pairs in a single array together with a
+ * cursor to the next waypoint. Reaching a waypoint creates a new path sharing the array, so a path can be published
+ * through a volatile reference without any lock between the AI workers and the render thread.</p>
+ * <p>The paths of the searches have a point on every sample of the navigation grid, {@link #smooth(NavigationGrid,
+ * BoundingRectangle, AbsolutePoint, List)} pulls them tight to the corners they bend around.</p>
+ */
+public final class EnemyPath {
+    public static final EnemyPath EMPTY = new EnemyPath(new float[0], 0);
+
+    private final float[] points;
+    private final int cursor;
+
+    private EnemyPath(float[] points, int cursor) {
+        this.points = points;
+        this.cursor = cursor;
+    }
+
+    /**
+     * Creates a path through every point of the list
+     *
+     * @param path the points, {@code null} for no path
+     * @return the path, {@code null} if the list is {@code null}
+     */
+    public static @Nullable EnemyPath of(@Nullable List<AbsolutePoint> path) {
+        if (path == null) {
+            return null;
+        }
+        float[] points = new float[path.size() * 2];
+        for (int i = 0; i < path.size(); i++) {
+            points[2 * i] = path.get(i).x();
+            points[2 * i + 1] = path.get(i).y();
+        }
+        return new EnemyPath(points, 0);
+    }
+
+    /**
+     * <p>Creates a path with the waypoints of the list the entity cannot skip. Starting at the entity, the
+     * waypoint before the first one that cannot be reached in a straight line is kept and the search continues
+     * from there, so only the corners of the path and its end remain.</p>
+     * <p>A straight line is walkable if the footprint of the entity fits at every sample it crosses, see
+     * {@link NavigationGrid#isSegmentWalkable(NavigationGrid.Clearance, float, float, float, float)}.</p>
+     *
+     * @param grid      the grid the path was searched on
+     * @param rectangle the bounding rectangle of the entity
+     * @param start     the position of the entity
+     * @param path      the points of the search, {@code null} for no path
+     * @return the path, {@code null} if the list is {@code null}
+     */
+    public static @Nullable EnemyPath smooth(NavigationGrid grid, BoundingRectangle rectangle, AbsolutePoint start,
+                                             @Nullable List<AbsolutePoint> path) {
+        if (path == null || path.size() <= 1) {
+            return of(path);
+        }
+        NavigationGrid.Clearance clearance = grid.clearance(rectangle);
+        float[] points = new float[path.size() * 2];
+        int size = 0;
+        float anchorX = start.x();
+        float anchorY = start.y();
+        for (int i = 0; i < path.size() - 1; i++) {
+            AbsolutePoint next = path.get(i + 1);
+            if (!grid.isSegmentWalkable(clearance, anchorX, anchorY, next.x(), next.y())) {
+                anchorX = path.get(i).x();
+                anchorY = path.get(i).y();
+                points[size++] = anchorX;
+                points[size++] = anchorY;
+            }
+        }
+        AbsolutePoint end = path.get(path.size() - 1);
+        points[size++] = end.x();
+        points[size++] = end.y();
+        return new EnemyPath(Arrays.copyOf(points, size), 0);
+    }
+
+    /**
+     * @return the path without its next waypoint
+     */
+    public EnemyPath advance() {
+        return isEmpty() ? this : new EnemyPath(points, cursor + 1);
+    }
+
+    /**
+     * @return {@code true} if no waypoint is left
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return the number of waypoints left
+     */
+    public int size() {
+        return points.length / 2 - cursor;
+    }
+
+    /**
+     * @param index the index of the waypoint, {@code 0} is the next waypoint
+     * @return the x coordinate of the waypoint in meters
+     */
+    public float x(int index) {
+        return points[2 * checkIndex(index)];
+    }
+
+    /**
+     * @param index the index of the waypoint, {@code 0} is the next waypoint
+     * @return the y coordinate of the waypoint in meters
+     */
+    public float y(int index) {
+        return points[2 * checkIndex(index) + 1];
+    }
+
+    /**
+     * @param index the index of the waypoint, {@code 0} is the next waypoint
+     * @return the waypoint
+     */
+    public AbsolutePoint get(int index) {
+        return new AbsolutePoint(x(index), y(index));
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Waypoint " + index + " of a path with " + size() + " waypoints");
+        }
+        return cursor + index;
+    }
+}
@@ -1 +1 @@
-package de.tum.cit.fop.maze.entities;import com.badlogic.gdx.physics.box2d.Body;import de.tum.cit.fop.maze.essentials.AbsolutePoint;import de.tum.cit.fop.maze.essentials.BodyBits;import de.tum.cit.fop.maze.essentials.BoundingRectangle;import de.tum.cit.fop.maze.Globals;import de.tum.cit.fop.maze.level.LevelScreen;import java.util.*;/** * This class is used to find the path for the enemy to follow. It uses the A* algorithm to find the path. * It creates a matrix of obstacles based on the world with increased precision, so that the movement of the enemy is * smooth and precise. */public class EntityPathfinder {    ///  All possible directions    private final RelativePoint[] directions = {        new RelativePoint(0, 1),        new RelativePoint(1, 0),        new RelativePoint(0, -1),        new RelativePoint(-1, 0),        new RelativePoint(1, 1),        new RelativePoint(1, -1),        new RelativePoint(-1, 1),        new RelativePoint(-1, -1)    };    private final int precision = 2;    private final float unitMeters;    public EntityPathfinder() {        this.unitMeters = Globals.CELL_SIZE_METERS / precision;    }    /**     * Heuristic function to estimate the cost of getting from point a to point b.     *     * @param a The starting point.     * @param b The ending point.     * @return The estimated cost.     */    private float heuristic(AbsolutePoint a, AbsolutePoint b) {        return a.distance(b);    }    /**     * Thread-safe method to query Box2D     * It check whether the entity can move to the given point.     *     * @param body     The body of the entity.     * @param rectangle The bounding rectangle of the entity.     * @param point    The point to move to.     * @return {@code true} if the entity can move to the point, {@code false} otherwise.     */    private boolean canMoveToPoint(Body body, BoundingRectangle rectangle, AbsolutePoint point) {        boolean[] result = {true};        float x0 = point.x() - rectangle.width() / 2;        float y0 = point.y() - rectangle.height() / 2;        float x1 = point.x() + rectangle.width() / 2;        float y1 = point.y() + rectangle.height() / 2;        LevelScreen.getInstance().worldLock.lock();        body.getWorld().QueryAABB(fixture -> {                if (fixture.getFilterData().categoryBits == BodyBits.WALL ||                    fixture.getFilterData().categoryBits == BodyBits.WALL_TRANSPARENT) {                    result[0] = false;                    return false;                }                return true;            }, x0, y0, x1, y1        );        LevelScreen.getInstance().worldLock.unlock();        return result[0];    }    /**     * Finds the path from start to end using the A* algorithm. (With Priority Queue)     * The assumed movement is in all 8 directions. (meaning diagonal movement is allowed)     * Diagonal movement is allowed, but accounted for, meaning the cost of diagonal movement is sqrt(2).     *     * @param entity The entity from which to look.     * @param end    The ending point.     * @return The list of points representing the path.     */    public List<AbsolutePoint> aStar(Entity entity, AbsolutePoint end) {        AbsolutePoint start = entity.getPosition();        float cellDistanceMax = Globals.ENTITY_PATHFINDING_RANGE;        float distanceLimit = unitMeters * precision * cellDistanceMax;        if (heuristic(start, end) > distanceLimit) {            return null;        }        if (start.distance(end) <= unitMeters * 1.1f) {            return List.of(end);        }        PriorityQueue<RelativePoint> open = new PriorityQueue<>(            Comparator.comparingDouble(                p -> heuristic(p.toAbsolutePoint(start, unitMeters), end)            )        );        HashMap<RelativePoint, RelativePoint> cameFrom = new HashMap<>();        HashMap<RelativePoint, Float> cost = new HashMap<>();        open.add(new RelativePoint(0, 0));        cost.put(new RelativePoint(0, 0), 0f);        while (!open.isEmpty()) {            RelativePoint current = open.poll();            AbsolutePoint currentPoint = current.toAbsolutePoint(start, unitMeters);            if (currentPoint.distance(end) <= unitMeters * 1.5f) {                LinkedList<AbsolutePoint> path = new LinkedList<>();                path.addFirst(end);                while (cameFrom.containsKey(current)) {                    current = cameFrom.get(current);                    path.addFirst(current.toAbsolutePoint(start, unitMeters));                }                path.remove(0);                return path;            }            for (RelativePoint point : directions) {                RelativePoint neighbor = new RelativePoint(current.x + point.x, current.y + point.y);                AbsolutePoint neighborPoint = neighbor.toAbsolutePoint(start, unitMeters);                if (neighborPoint.distance(start) > distanceLimit) {                    continue;                }                if (!canMoveToPoint(entity.getBody(), entity.boundingRectangle, neighborPoint)) {                    continue;                }                float newCost = cost.get(current) + heuristic(currentPoint, neighborPoint);                if (!cost.containsKey(neighbor) || newCost < cost.get(neighbor)) {                    cost.put(neighbor, newCost);                    cameFrom.put(neighbor, current);                    open.add(neighbor);                }            }        }        return null;    }    /**     * Generates a random single-point path that the given entity can move to, based on its     * current position and movement constraints.     *     * @param entity The entity for which to generate the path. Its current position and movement     *               constraints are used to determine valid target points.     * @param random A Random instance to determine the randomly chosen point from the available     *               valid points.     * @return A list containing exactly one randomly chosen valid destination point. If no valid     *         points are available, returns an empty list.     */    public List<AbsolutePoint> getRandomSinglePointPath(Entity entity, Random random) {        AbsolutePoint start = entity.getPosition();        List<AbsolutePoint> candidates = new ArrayList<>(directions.length);        for (RelativePoint point : directions) {            AbsolutePoint end = point.toAbsolutePoint(start, unitMeters);            if (canMoveToPoint(entity.body, entity.boundingRectangle, end)) candidates.add(end);        }        if (candidates.isEmpty()) return List.of();        return List.of(candidates.get(random.nextInt(candidates.size())));    }    /**     * Represents a point relative to the starting point.     * @param x The x offset.     * @param y The y offset.     */    private record RelativePoint(float x, float y) {        @Override        public boolean equals(Object obj) {            if (obj == null) {                return false;            }            if (obj == this) {                return true;            }            if (obj instanceof RelativePoint other) {                return x == other.x && y == other.y;            }            return false;        }        @Override        public int hashCode() {            return Objects.hash(x, y);        }        public AbsolutePoint toAbsolutePoint(AbsolutePoint origin, float unitMeters) {            return new AbsolutePoint(origin.x() + this.x * unitMeters, origin.y() + this.y * unitMeters);        }    }}
\ No newline at end of file
+package de.tum.cit.fop.maze.entities;import de.tum.cit.fop.maze.essentials.AbsolutePoint;import de.tum.cit.fop.maze.essentials.BoundingRectangle;import de.tum.cit.fop.maze.Globals;import de.tum.cit.fop.maze.level.LevelScreen;import de.tum.cit.fop.maze.level.NavigationGrid;import org.jetbrains.annotations.Nullable;import java.util.*;import java.util.concurrent.ConcurrentLinkedQueue;/** * This class is used to find the path for the enemy to follow. It uses the A* algorithm to find the path. * Obstacles are looked up in the {@link NavigationGrid} of the map, sampled with increased precision, so that the * movement of the enemy is smooth and precise. */public class EntityPathfinder {    ///  All possible directions    private final RelativePoint[] directions = {        new RelativePoint(0, 1),        new RelativePoint(1, 0),        new RelativePoint(0, -1),        new RelativePoint(-1, 0),        new RelativePoint(1, 1),        new RelativePoint(1, -1),        new RelativePoint(-1, 1),        new RelativePoint(-1, -1)    };    /// Sample offsets of the directions, orthogonal first    private static final int[] DIRECTION_X = {0, 1, 0, -1, 1, 1, -1, -1};    private static final int[] DIRECTION_Y = {1, 0, -1, 0, 1, -1, 1, -1};    private static final float SQRT_2 = (float) Math.sqrt(2);    /// Search arrays not used by a running search, shared by all threads, so that a virtual thread per search    /// does not allocate its own    private static final ConcurrentLinkedQueue<SearchState> SEARCH_STATES = new ConcurrentLinkedQueue<>();    private final int precision = NavigationGrid.RESOLUTION;    private final float unitMeters;    public EntityPathfinder() {        this.unitMeters = NavigationGrid.SAMPLE_METERS;    }    /**     * Octile distance, the exact cost of the shortest 8-directional move between two points without obstacles.     *     * @param dx The distance along the x-axis.     * @param dy The distance along the y-axis.     * @return The estimated cost.     */    private static float heuristic(float dx, float dy) {        dx = Math.abs(dx);        dy = Math.abs(dy);        return Math.max(dx, dy) + (SQRT_2 - 1) * Math.min(dx, dy);    }    /**     * Thread-safe method to check whether the entity can move to the given point.     * The lookup reads the {@link NavigationGrid} of the map without locking the Box2D world.     *     * @param rectangle The bounding rectangle of the entity.     * @param point    The point to move to.     * @return {@code true} if the entity can move to the point, {@code false} otherwise.     */    private boolean canMoveToPoint(BoundingRectangle rectangle, AbsolutePoint point) {        return LevelScreen.getInstance().map.getNavigationGrid().isWalkable(rectangle, point.x(), point.y());    }    /**     * Finds the path from the entity to the end using the A* algorithm on the navigation grid of the map.     *     * @param entity The entity from which to look.     * @param end    The ending point.     * @return The list of points representing the path.     * @see #aStar(NavigationGrid, BoundingRectangle, AbsolutePoint, AbsolutePoint)     */    public List<AbsolutePoint> aStar(Entity entity, AbsolutePoint end) {        return aStar(            LevelScreen.getInstance().map.getNavigationGrid(), entity.boundingRectangle, entity.getPosition(), end        );    }    /**     * Finds the path from start to end using the A* algorithm, see {@link #findPath(NavigationGrid,     * BoundingRectangle, AbsolutePoint, AbsolutePoint)}.     *     * @param grid      The navigation grid to search.     * @param rectangle The bounding rectangle of the entity.     * @param start     The starting point.     * @param end       The ending point.     * @return The list of points representing the path, ending with {@code end}, {@code null} if there is no path     *         within the range.     */    public List<AbsolutePoint> aStar(NavigationGrid grid, BoundingRectangle rectangle, AbsolutePoint start,                                     AbsolutePoint end) {        return findPath(grid, rectangle, start, end).path();    }    /**     * <p>Finds the path from start to end using the A* algorithm, nodes are ordered by {@code f = g + h} with the     * octile distance as {@code h}.     * The assumed movement is in all 8 directions. (meaning diagonal movement is allowed)     * Diagonal movement is allowed, but accounted for, meaning the cost of diagonal movement is sqrt(2).</p>     * <p>The nodes are the samples of the navigation grid within {@code ENTITY_PATHFINDING_RANGE} of the start.     * The search does not allocate apart from the returned path and result, it runs on arrays taken from a shared     * pool.</p>     *     * @param grid      The navigation grid to search.     * @param rectangle The bounding rectangle of the entity.     * @param start     The starting point.     * @param end       The ending point.     * @return The {@link SearchResult} with the path and the number of expanded nodes.     */    public SearchResult findPath(NavigationGrid grid, BoundingRectangle rectangle, AbsolutePoint start,                                 AbsolutePoint end) {        float cellDistanceMax = Globals.ENTITY_PATHFINDING_RANGE;        float distanceLimit = unitMeters * precision * cellDistanceMax;        if (start.distance(end) > distanceLimit) {            return new SearchResult(null, 0);        }        if (start.distance(end) <= unitMeters * 1.1f) {            return new SearchResult(List.of(end), 0);        }        int radius = (int) Math.ceil(distanceLimit / unitMeters);        SearchState state = SEARCH_STATES.poll();        if (state == null || state.radius != radius) {            state = new SearchState(radius);        }        try {            List<AbsolutePoint> path = state.search(grid, grid.clearance(rectangle), start, end);            return new SearchResult(path, state.expandedNodes);        } finally {            SEARCH_STATES.offer(state);        }    }    /**     * Result of an A* search.     *     * @param path          The list of points representing the path, ending with {@code end}, {@code null} if there     *                      is no path within the range.     * @param expandedNodes The number of nodes the search expanded.     */    public record SearchResult(@Nullable List<AbsolutePoint> path, int expandedNodes) {    }    /**     * Generates a random single-point path that the given entity can move to, based on its     * current position and movement constraints.     *     * @param entity The entity for which to generate the path. Its current position and movement     *               constraints are used to determine valid target points.     * @param random A Random instance to determine the randomly chosen point from the available     *               valid points.     * @return A list containing exactly one randomly chosen valid destination point. If no valid     *         points are available, returns an empty list.     */    public List<AbsolutePoint> getRandomSinglePointPath(Entity entity, Random random) {        AbsolutePoint start = entity.getPosition();        List<AbsolutePoint> candidates = new ArrayList<>(directions.length);        for (RelativePoint point : directions) {            AbsolutePoint end = point.toAbsolutePoint(start, unitMeters);            if (canMoveToPoint(entity.boundingRectangle, end)) candidates.add(end);        }        if (candidates.isEmpty()) return List.of();        return List.of(candidates.get(random.nextInt(candidates.size())));    }    /**     * Represents a point relative to the starting point.     * @param x The x offset.     * @param y The y offset.     */    private record RelativePoint(float x, float y) {        public AbsolutePoint toAbsolutePoint(AbsolutePoint origin, float unitMeters) {            return new AbsolutePoint(origin.x() + this.x * unitMeters, origin.y() + this.y * unitMeters);        }    }    /**     * <p>Arrays of a search over the square window of samples around the start, indexed by     * {@code (x - x0) + (y - y0) * side}.</p>     * <p>Costs and parents are only valid for nodes stamped with the current search, so that they never have to     * be cleared. The open set is a {@link NodeHeap} ordered by {@link #f}.</p>     */    private static final class SearchState {        private final int radius;        private final int side;        private final float[] g;        private final float[] f;        private final int[] parent;        private final int[] stamp;        private final NodeHeap open;        private final long[] closed;        private int search;        private int expandedNodes;        private SearchState(int radius) {            this.radius = radius;            this.side = 2 * radius + 1;            int nodes = side * side;            this.g = new float[nodes];            this.f = new float[nodes];            this.parent = new int[nodes];            this.stamp = new int[nodes];            this.open = new NodeHeap(nodes);            this.closed = new long[(nodes + 63) >>> 6];        }        private List<AbsolutePoint> search(NavigationGrid grid, NavigationGrid.Clearance clearance,                                           AbsolutePoint start, AbsolutePoint end) {            float unit = NavigationGrid.SAMPLE_METERS;            int startX = (int) Math.floor(start.x() / unit);            int startY = (int) Math.floor(start.y() / unit);            int x0 = startX - radius;            int y0 = startY - radius;            /// End in sample units relative to the window, sample centers are at k + 0.5            float endX = end.x() / unit - x0;            float endY = end.y() / unit - y0;            float goalDistance = 1.5f;            if (++search == 0) {                Arrays.fill(stamp, 0);                search = 1;            }            Arrays.fill(closed, 0);            open.reset(f);            expandedNodes = 0;            int startNode = radius + radius * side;            stamp[startNode] = search;            g[startNode] = 0;            parent[startNode] = -1;            f[startNode] = heuristic(radius + 0.5f - endX, radius + 0.5f - endY);            open.push(startNode);            while (!open.isEmpty()) {                int current = open.pop();                closed[current >>> 6] |= 1L << current;                expandedNodes++;                int x = current % side;                int y = current / side;                float dx = x + 0.5f - endX;                float dy = y + 0.5f - endY;                if (dx * dx + dy * dy <= goalDistance * goalDistance) {                    return buildPath(current, x0, y0, end);                }                for (int d = 0; d < DIRECTION_X.length; d++) {                    int nx = x + DIRECTION_X[d];                    int ny = y + DIRECTION_Y[d];                    int rx = nx - radius;                    int ry = ny - radius;                    if (rx * rx + ry * ry > radius * radius) {                        continue;                    }                    int neighbor = nx + ny * side;                    if ((closed[neighbor >>> 6] & (1L << neighbor)) != 0) {                        continue;                    }                    if (!grid.isWalkable(clearance, x0 + nx, y0 + ny)) {                        continue;                    }                    float newCost = g[current] + (d < 4 ? 1 : SQRT_2);                    if (stamp[neighbor] != search) {                        stamp[neighbor] = search;                        g[neighbor] = newCost;                        parent[neighbor] = current;                        f[neighbor] = newCost + heuristic(nx + 0.5f - endX, ny + 0.5f - endY);                        open.push(neighbor);                    } else if (newCost < g[neighbor]) {                        f[neighbor] -= g[neighbor] - newCost;                        g[neighbor] = newCost;                        parent[neighbor] = current;                        open.decreased(neighbor);                    }                }            }            return null;        }        /**         * Builds the path from the node after the start to the goal, the goal sample is replaced by {@code end}         */        private List<AbsolutePoint> buildPath(int goal, int x0, int y0, AbsolutePoint end) {            float unit = NavigationGrid.SAMPLE_METERS;            int length = 0;            for (int node = parent[goal]; node != -1 && parent[node] != -1; node = parent[node]) {                length++;            }            AbsolutePoint[] points = new AbsolutePoint[length + 1];            points[length] = end;            int k = length;            for (int node = parent[goal]; node != -1 && parent[node] != -1; node = parent[node]) {                points[--k] = new AbsolutePoint((x0 + node % side + 0.5f) * unit, (y0 + node / side + 0.5f) * unit);            }            return new ArrayList<>(Arrays.asList(points));        }    }}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package de.tum.cit.fop.maze.entities;
+
+import de.tum.cit.fop.maze.Globals;
+import de.tum.cit.fop.maze.essentials.AbsolutePoint;
+import de.tum.cit.fop.maze.essentials.BoundingRectangle;
+import de.tum.cit.fop.maze.level.NavigationGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static de.tum.cit.fop.maze.Globals.CELL_SIZE_METERS;
+
+/**
+ * <h2>Hierarchical pathfinder</h2>
+ * <p>Finds long paths in two levels. The abstract level is the graph of the maze cells, every 3x3 tile block the
+ * {@link de.tum.cit.fop.maze.level.TileMap} builds from a cell of the maze: corridors, rooms, room doors and door
+ * cells are nodes, connected to their walkable neighbours. A search on this graph is a few hundred nodes even
+ * across {@code ENTITY_HIERARCHICAL_PATHFINDING_RANGE}.</p>
+ * <p>Only the first cells of the abstract path are refined with the fine {@link EntityPathfinder} on the
+ * {@link NavigationGrid}, the rest of the path are cell centers. Enemies request a new path every
+ * {@code ENEMY_PATHFINDING_INTERVAL}, so they always walk a refined part, while the fine search cost stays
+ * independent of the length of the chase.</p>
+ * <p>The maze cells are read from the wall map of the map, {@code [row][column]} with row {@code 0} at the bottom,
+ * in which every wall cell is a 3x3 block of wall tiles.</p>
+ */
+public class HierarchicalPathfinder {
+    /// Abstract path cells ahead of the start that are refined at fine resolution
+    private static final int REFINED_CELLS = 3;
+    private static final float CELL_METERS = 3 * CELL_SIZE_METERS;
+    /// Cell offsets of the directions
+    private static final int[] DIRECTION_X = {0, 1, 0, -1};
+    private static final int[] DIRECTION_Y = {1, 0, -1, 0};
+    /// Search arrays not used by a running search, shared by all threads, reused while the maze size does not change
+    private static final ConcurrentLinkedQueue<CellSearch> CELL_SEARCHES = new ConcurrentLinkedQueue<>();
+
+    private final EntityPathfinder pathfinder;
+
+    /**
+     * @param pathfinder the pathfinder refining the abstract paths
+     */
+    public HierarchicalPathfinder(EntityPathfinder pathfinder) {
+        this.pathfinder = pathfinder;
+    }
+
+    /**
+     * Finds the path from start to end, the first {@value #REFINED_CELLS} cells are refined on the navigation grid
+     *
+     * @param wallMap   the wall map of the map
+     * @param grid      the navigation grid of the map
+     * @param rectangle the bounding rectangle of the entity
+     * @param start     the starting point
+     * @param end       the ending point
+     * @return the list of points representing the path, ending with {@code end}, {@code null} if there is no path
+     *         within {@code ENTITY_HIERARCHICAL_PATHFINDING_RANGE}
+     */
+    public List<AbsolutePoint> findPath(boolean[][] wallMap, NavigationGrid grid, BoundingRectangle rectangle,
+                                        AbsolutePoint start, AbsolutePoint end) {
+        float distanceLimit = Globals.ENTITY_HIERARCHICAL_PATHFINDING_RANGE * CELL_SIZE_METERS;
+        if (start.distance(end) > distanceLimit) {
+            return null;
+        }
+        int width = wallMap[0].length / 3;
+        int height = wallMap.length / 3;
+        CellSearch search = CELL_SEARCHES.poll();
+        if (search == null || search.width != width || search.height != height) {
+            search = new CellSearch(width, height);
+        }
+        int[] cells;
+        try {
+            cells = search.search(wallMap, start, end, distanceLimit);
+        } finally {
+            CELL_SEARCHES.offer(search);
+        }
+        if (cells == null) {
+            return null;
+        }
+        if (cells.length <= REFINED_CELLS + 1) {
+            return pathfinder.aStar(grid, rectangle, start, end);
+        }
+        /// Refine up to the furthest reachable cell of the first ones, closer ones if a tile entity blocks its center
+        for (int k = REFINED_CELLS; k > 0; k--) {
+            List<AbsolutePoint> refined = pathfinder.aStar(grid, rectangle, start, center(cells[k], width));
+            if (refined == null) {
+                continue;
+            }
+            List<AbsolutePoint> path = new ArrayList<>(refined.size() + cells.length - k);
+            path.addAll(refined);
+            for (int i = k + 1; i < cells.length - 1; i++) {
+                path.add(center(cells[i], width));
+            }
+            path.add(end);
+            return path;
+        }
+        return null;
+    }
+
+    private static AbsolutePoint center(int cell, int width) {
+        return new AbsolutePoint((cell % width + 0.5f) * CELL_METERS, (cell / width + 0.5f) * CELL_METERS);
+    }
+
+    /**
+     * <p>A* over the maze cells with unit costs and the Manhattan distance, on arrays taken from a shared pool.
+     * Cells are indexed by {@code x + y * width} from the bottom left cell.</p>
+     */
+    private static final class CellSearch {
+        private final int width;
+        private final int height;
+        private final float[] g;
+        private final float[] f;
+        private final int[] parent;
+        private final int[] stamp;
+        private final long[] closed;
+        private final NodeHeap open;
+        private int search;
+
+        private CellSearch(int width, int height) {
+            this.width = width;
+            this.height = height;
+            int nodes = width * height;
+            this.g = new float[nodes];
+            this.f = new float[nodes];
+            this.parent = new int[nodes];
+            this.stamp = new int[nodes];
+            this.closed = new long[(nodes + 63) >>> 6];
+            this.open = new NodeHeap(nodes);
+        }
+
+        private boolean isWalkable(boolean[][] wallMap, int x, int y) {
+            return x >= 0 && y >= 0 && x < width && y < height && !wallMap[3 * y + 1][3 * x + 1];
+        }
+
+        /**
+         * @return the cell of the point, or its nearest walkable neighbour if the point stands on the edge of a
+         *         wall cell, {@code -1} if there is none
+         */
+        private int walkableCell(boolean[][] wallMap, AbsolutePoint point) {
+            int x = (int) Math.floor(point.x() / CELL_METERS);
+            int y = (int) Math.floor(point.y() / CELL_METERS);
+            if (isWalkable(wallMap, x, y)) {
+                return x + y * width;
+            }
+            int best = -1;
+            float bestDistance = Float.MAX_VALUE;
+            for (int d = 0; d < DIRECTION_X.length; d++) {
+                int nx = x + DIRECTION_X[d];
+                int ny = y + DIRECTION_Y[d];
+                if (!isWalkable(wallMap, nx, ny)) {
+                    continue;
+                }
+                float distance = point.distance(center(nx + ny * width, width));
+                if (distance < bestDistance) {
+                    best = nx + ny * width;
+                    bestDistance = distance;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * @return the cells of the path including the start and the end cell, {@code null} if there is none
+         */
+        private int[] search(boolean[][] wallMap, AbsolutePoint start, AbsolutePoint end, float distanceLimit) {
+            int startCell = walkableCell(wallMap, start);
+            int endCell = walkableCell(wallMap, end);
+            if (startCell == -1 || endCell == -1) {
+                return null;
+            }
+            int endX = endCell % width;
+            int endY = endCell / width;
+            if (++search == 0) {
+                Arrays.fill(stamp, 0);
+                search = 1;
+            }
+            Arrays.fill(closed, 0);
+            open.reset(f);
+            stamp[startCell] = search;
+            g[startCell] = 0;
+            parent[startCell] = -1;
+            f[startCell] = Math.abs(startCell % width - endX) + Math.abs(startCell / width - endY);
+            open.push(startCell);
+            while (!open.isEmpty()) {
+                int current = open.pop();
+                if (current == endCell) {
+                    int length = 1;
+                    for (int cell = current; parent[cell] != -1; cell = parent[cell]) {
+                        length++;
+                    }
+                    int[] cells = new int[length];
+                    for (int cell = current; cell != -1; cell = parent[cell]) {
+                        cells[--length] = cell;
+                    }
+                    return cells;
+                }
+                closed[current >>> 6] |= 1L << current;
+                int x = current % width;
+                int y = current / width;
+                for (int d = 0; d < DIRECTION_X.length; d++) {
+                    int nx = x + DIRECTION_X[d];
+                    int ny = y + DIRECTION_Y[d];
+                    if (!isWalkable(wallMap, nx, ny)) {
+                        continue;
+                    }
+                    int neighbor = nx + ny * width;
+                    if ((closed[neighbor >>> 6] & (1L << neighbor)) != 0
+                        || center(neighbor, width).distance(start) > distanceLimit) {
+                        continue;
+                    }
+                    float newCost = g[current] + 1;
+                    if (stamp[neighbor] != search) {
+                        stamp[neighbor] = search;
+                        g[neighbor] = newCost;
+                        parent[neighbor] = current;
+                        f[neighbor] = newCost + Math.abs(nx - endX) + Math.abs(ny - endY);
+                        open.push(neighbor);
+                    } else if (newCost < g[neighbor]) {
+                        f[neighbor] -= g[neighbor] - newCost;
+                        g[neighbor] = newCost;
+                        parent[neighbor] = current;
+                        open.decreased(neighbor);
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
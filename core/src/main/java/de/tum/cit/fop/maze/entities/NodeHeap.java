@@ -0,0 +1,105 @@
+package de.tum.cit.fop.maze.entities;
+
+/**
+ * <p>Binary min-heap of int node indices for the path searches, ordered by a {@code float[]} of keys owned by the
+ * search. Every node is at most once in the heap, the key of an open node can be decreased in place.</p>
+ */
+final class NodeHeap {
+    private final int[] heap;
+    /// Index of every open node in {@link #heap}
+    private final int[] position;
+    private float[] keys;
+    private int size;
+
+    /**
+     * @param nodes number of nodes of the search
+     */
+    NodeHeap(int nodes) {
+        this.heap = new int[nodes];
+        this.position = new int[nodes];
+    }
+
+    /**
+     * Empties the heap for a new search
+     *
+     * @param keys the keys of the nodes, indexed by node
+     */
+    void reset(float[] keys) {
+        this.keys = keys;
+        this.size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param node a node that is not in the heap
+     */
+    void push(int node) {
+        heap[size] = node;
+        position[node] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * @return the node with the smallest key, removed from the heap
+     */
+    int pop() {
+        int result = heap[0];
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return result;
+    }
+
+    /**
+     * Restores the order after the key of an open node was decreased
+     *
+     * @param node the node in the heap
+     */
+    void decreased(int node) {
+        siftUp(position[node]);
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        float key = keys[node];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parentNode = heap[parentIndex];
+            if (keys[parentNode] <= key) {
+                break;
+            }
+            heap[index] = parentNode;
+            position[parentNode] = index;
+            index = parentIndex;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        float key = keys[node];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            if (key <= keys[heap[child]]) {
+                break;
+            }
+            heap[index] = heap[child];
+            position[heap[child]] = index;
+            index = child;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+}
@@ -17,6 +17,7 @@ import de.tum.cit.fop.maze.entities.tile.Collectable;
 import de.tum.cit.fop.maze.essentials.*;
 import de.tum.cit.fop.maze.hud.HUD;
 import de.tum.cit.fop.maze.level.LevelScreen;
+import de.tum.cit.fop.maze.level.LightManager;
 import games.rednblack.miniaudio.MASound;
 
 import java.util.ArrayList;
@@ -59,6 +60,7 @@ public class Player extends Entity {
     private transient boolean isDamaged = false;
     private transient float damageFlashTimer = 0f;
     private transient PointLight torchLight;
+    private transient LightManager.Handle torchLightHandle;
     private transient float shadowWaitElapsedTime;
     //private transient MASound attack
     private transient float deadElapsedTime = 0f;
@@ -369,7 +371,7 @@ public class Player extends Entity {
             canHit = !isHoldingTorch;
             elapsedTorchTime = 0f;
             torchLight.setDistance(0);
-            torchLight.setActive(isHoldingTorch);
+            LevelScreen.getInstance().lightManager.setLit(torchLightHandle, isHoldingTorch);
         }
         if (Gdx.input.isKeyJustPressed(Input.Keys.Q) && this.activeItem != null && stamina > maxStamina / 3) {
             this.activeItem.use();
@@ -482,7 +484,8 @@ public class Player extends Entity {
      */
     public void checkPlayerInShadow(float shadowWaitElapsedTime) {
         HUD hud = LevelScreen.getInstance().hud;
-        if (Utils.isEntityInLight(this)) {
+        AbsolutePoint position = getPosition();
+        if (LevelScreen.getInstance().lightManager.isLit(position.x(), position.y())) {
             if (hud.isDescriptionSet() && Objects.equals(hud.getItemDescription(), PLAYER_SCARED_TEXT)) {
                 hud.deleteDescription();
             }
@@ -599,9 +602,9 @@ public class Player extends Entity {
             LevelScreen.getInstance().rayHandler, Globals.RAY_AMOUNT, Globals.TORCH_LIGHT_COLOR, 0, x, y
         );
         torchLight.setContactFilter(BodyBits.LIGHT, (short) 0, BodyBits.LIGHT_MASK);
-        torchLight.setActive(false);
         /// Light is coming from the legs to avoid some visual bugs with ray-casting vast walking on LootContainer(s)
         torchLight.attachToBody(body, 0, -0.3f);
+        torchLightHandle = LevelScreen.getInstance().lightManager.registerDynamic(torchLight);
     }
 
 
@@ -17,6 +17,7 @@ import com.google.gson.JsonSyntaxException;
 import de.tum.cit.fop.maze.Globals;
 import de.tum.cit.fop.maze.essentials.*;
 import de.tum.cit.fop.maze.level.LevelScreen;
+import de.tum.cit.fop.maze.level.LightManager;
 import games.rednblack.miniaudio.MASound;
 
 import java.util.ArrayList;
@@ -46,6 +47,7 @@ public class Collectable extends TileEntity {
     private final transient CircleShape circleShape;
     private final transient FixtureDef circleFixtureDef = new FixtureDef();
     private transient Light light;
+    private transient LightManager.Handle lightHandle;
     private transient float lightAnimationElapsedTime = 10f;
     private transient MASound pickupSound;
     private boolean hasBeenDropped = true;
@@ -286,9 +288,9 @@ public class Collectable extends TileEntity {
             lightFilter.maskBits = BodyBits.LIGHT_MASK;
             this.light.setContactFilter(lightFilter);
             this.light.setColor(Globals.TORCH_LIGHT_COLOR);
-            // Active does require extra ops, but it makes the code way easier
-            this.light.setActive(true);
             this.light.setDistance(0f);
+            lightHandle = LevelScreen.getInstance().lightManager.registerDynamic(this.light);
+            LevelScreen.getInstance().lightManager.setLit(lightHandle, true);
         }
         /// Must be last
         if (hasBeenDropped) {
@@ -363,12 +365,22 @@ public class Collectable extends TileEntity {
                     fixture.setSensor(true);
                 }
                 joint = null;
+                /// Landed, from now on it can be found at its final position
+                LevelScreen.getInstance().tileEntityManager.retrack(this);
                 return;
             }
             joint.getBodyB().setTransform(dropPositions.get(0).x(), dropPositions.get(0).y(), 0);
         }
     }
 
+    /**
+     * @return {@code false} while the collectable is still to be dropped or flies along its drop path
+     */
+    @Override
+    public boolean isStatic() {
+        return hasBeenDropped && dropPositions.isEmpty();
+    }
+
     public Animation<TextureRegion> getIdleAnimation() {
         return idleAnimation;
     }
@@ -376,6 +388,10 @@ public class Collectable extends TileEntity {
     @Override
     public void dispose() {
         super.dispose();
+        if (lightHandle != null) {
+            LevelScreen.getInstance().lightManager.unregister(lightHandle);
+            lightHandle = null;
+        }
         if (this.light != null) this.light.remove();
     }
 
@@ -11,6 +11,7 @@ import de.tum.cit.fop.maze.essentials.Assets;
 import de.tum.cit.fop.maze.essentials.BodyBits;
 import de.tum.cit.fop.maze.essentials.Direction;
 import de.tum.cit.fop.maze.level.LevelScreen;
+import de.tum.cit.fop.maze.level.NavigationGrid;
 import games.rednblack.miniaudio.MASound;
 
 import static de.tum.cit.fop.maze.Globals.CELL_SIZE_METERS;
@@ -27,6 +28,8 @@ public class ExitDoor extends TileEntity {
     private transient float openElapsedTime = 0;
     private transient TextureRegion texture;
     private transient Body wallBody;
+    /// Footprint of {@link #wallBody} in the navigation grid
+    private transient NavigationGrid.Obstacle wallObstacle;
     private transient Fixture promptFixture;
     private transient MASound openingSound;
 
@@ -109,6 +112,11 @@ public class ExitDoor extends TileEntity {
                 /// Delete the prompt fixture
                 body.destroyFixture(promptFixture);
                 body.getWorld().destroyBody(wallBody);
+                LevelScreen.getInstance().lightManager.invalidate(getPosition().x(), getPosition().y());
+                if (wallObstacle != null) {
+                    LevelScreen.getInstance().tileEntityManager.getNavigationGrid().removeObstacle(wallObstacle);
+                    wallObstacle = null;
+                }
                 /// Open the door
                 isOpen = true;
                 this.openingSound.setPosition(getPosition().x(), getPosition().y(), 0);
@@ -233,14 +241,20 @@ public class ExitDoor extends TileEntity {
             textureHitboxDef.filter.maskBits = BodyBits.WALL_MASK;
 
             textureHitboxBodyDef.position.set(x - CELL_SIZE_METERS * 1.5f, y);
-            LevelScreen.getInstance().world.createBody(textureHitboxBodyDef).createFixture(textureHitboxDef);
+            Body leftHitbox = LevelScreen.getInstance().world.createBody(textureHitboxBodyDef);
+            leftHitbox.createFixture(textureHitboxDef);
             textureHitboxBodyDef.position.set(x + CELL_SIZE_METERS * 1.5f, y);
-            LevelScreen.getInstance().world.createBody(textureHitboxBodyDef).createFixture(textureHitboxDef);
+            Body rightHitbox = LevelScreen.getInstance().world.createBody(textureHitboxBodyDef);
+            rightHitbox.createFixture(textureHitboxDef);
             textureHitboxShape.dispose();
+            NavigationGrid navigationGrid = LevelScreen.getInstance().tileEntityManager.getNavigationGrid();
+            navigationGrid.addObstacle(leftHitbox);
+            navigationGrid.addObstacle(rightHitbox);
         }
         wallBody = LevelScreen.getInstance().world.createBody(hitboxBodyDef);
         wallBody.createFixture(hitboxDef);
         hitboxShape.dispose();
+        wallObstacle = LevelScreen.getInstance().tileEntityManager.getNavigationGrid().addObstacle(wallBody);
     }
 
 }
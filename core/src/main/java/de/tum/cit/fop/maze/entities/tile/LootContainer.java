@@ -11,6 +11,7 @@ import de.tum.cit.fop.maze.Globals;
 import de.tum.cit.fop.maze.entities.Attackable;
 import de.tum.cit.fop.maze.essentials.*;
 import de.tum.cit.fop.maze.level.LevelScreen;
+import de.tum.cit.fop.maze.level.NavigationGrid;
 import games.rednblack.miniaudio.MASound;
 
 import java.util.ArrayList;
@@ -39,6 +40,8 @@ public class LootContainer extends TileEntity implements Attackable {
     private transient MASound hitSound;
     private transient MASound destroySound;
     private transient boolean collisionDisabled = false;
+    /// Footprint of the container in the navigation grid, removed together with the collision
+    private transient NavigationGrid.Obstacle navigationObstacle;
     private transient Animation<TextureRegion> idleAnimation;
     private transient Animation<TextureRegion> destroyedAnimation;
 
@@ -167,7 +170,7 @@ public class LootContainer extends TileEntity implements Attackable {
         lightBlockingBody = body.getWorld().createBody(def);
         lightBlockingBody.createFixture(fixtureDef);
         lightBlockingBody.setUserData(this);
-
+        navigationObstacle = LevelScreen.getInstance().tileEntityManager.getNavigationGrid().addObstacle(body);
     }
 
     @Override
@@ -194,6 +197,12 @@ public class LootContainer extends TileEntity implements Attackable {
                     lightBlockingBody.destroyFixture(fixtureIterator.next());
                 }
                 collisionDisabled = true;
+                /// The container no longer casts a shadow
+                LevelScreen.getInstance().lightManager.invalidate(getPosition().x(), getPosition().y());
+                if (navigationObstacle != null) {
+                    LevelScreen.getInstance().tileEntityManager.getNavigationGrid().removeObstacle(navigationObstacle);
+                    navigationObstacle = null;
+                }
                 Gdx.app.postRunnable(() -> {
                     for (Collectable collectable : loot) {
                         collectable.setHasBeenDropped(false);
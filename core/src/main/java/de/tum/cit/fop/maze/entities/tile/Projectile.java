@@ -72,4 +72,9 @@ public class Projectile extends TileEntity {
     public boolean isFoundHit() {
         return foundHit;
     }
+
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
 }
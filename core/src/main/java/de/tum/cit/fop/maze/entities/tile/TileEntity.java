@@ -30,6 +30,8 @@ public abstract class TileEntity implements Disposable, GSONPostRestorable {
     protected transient BodyDef bodyDef;
     protected transient FixtureDef fixtureDef;
     private transient boolean initialized = false;
+    /// Frame of the tile entity manager the tile entity was last ticked in
+    private transient long tickedFrame = -1;
 
     /// Queues up tile entity for deletion
 
@@ -198,6 +200,20 @@ public abstract class TileEntity implements Disposable, GSONPostRestorable {
         render(delta);
     }
 
+    /**
+     * Marks the tile entity as ticked in a frame of the {@link de.tum.cit.fop.maze.level.TileEntityManager}
+     *
+     * @param frame the frame of the manager
+     * @return {@code false} if the tile entity was already ticked in the frame
+     */
+    public boolean markTicked(long frame) {
+        if (tickedFrame == frame) {
+            return false;
+        }
+        tickedFrame = frame;
+        return true;
+    }
+
     public Body getBody() {
         return body;
     }
@@ -205,4 +221,13 @@ public abstract class TileEntity implements Disposable, GSONPostRestorable {
     public boolean isSpawned() {
         return body != null;
     }
+
+    /**
+     * @return {@code true} if the tile entity does not move, so that it can be looked up by its position. A tile
+     *         entity that changes this after it was spawned must be tracked again, see
+     *         {@link de.tum.cit.fop.maze.level.TileEntityManager#retrack(TileEntity)}
+     */
+    public boolean isStatic() {
+        return true;
+    }
 }
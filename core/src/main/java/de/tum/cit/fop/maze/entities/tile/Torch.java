@@ -10,6 +10,7 @@ import com.badlogic.gdx.physics.box2d.FixtureDef;
 import de.tum.cit.fop.maze.Globals;
 import de.tum.cit.fop.maze.essentials.*;
 import de.tum.cit.fop.maze.level.LevelScreen;
+import de.tum.cit.fop.maze.level.LightManager;
 import games.rednblack.miniaudio.MASound;
 
 import static de.tum.cit.fop.maze.Globals.*;
@@ -26,7 +27,7 @@ public class Torch extends TileEntity {
 
     private boolean lit = false;
     private Direction direction;
-    private transient PointLight light;
+    private transient LightManager.Handle lightHandle;
     private transient float elapsedTime = 0f;
     private transient float elapsedLitTime = 0f;
     private transient Animation<TextureAtlas.AtlasRegion> torchAnimation;
@@ -97,7 +98,6 @@ public class Torch extends TileEntity {
         if (lit) {
             elapsedLitTime += delta;
         }
-        light.update();
         if (torchAnimation != null && standTexture != null) {
             TextureRegion frame = lit ? torchAnimation.getKeyFrame(elapsedTime, true) : standTexture;
             if (direction == Direction.RIGHT && !frame.isFlipX()) {
@@ -111,11 +111,16 @@ public class Torch extends TileEntity {
                 getSpriteDrawWidth(), getSpriteDrawHeight()
             );
         }
-        if (lit && light.getDistance() < TORCH_LIGHT_RADIUS) {
-            light.setDistance(Math.min(
+        if (lit && !lightHandle.getLight().isStaticLight()) {
+            float distance = Math.min(
                 TORCH_LIGHT_RADIUS,
                 Utils.easeOutCirc(elapsedLitTime * 0.77f) * TORCH_LIGHT_RADIUS
-            ));
+            );
+            LevelScreen.getInstance().lightManager.setDistance(lightHandle, distance);
+            /// Torches never move, once faded in the rays are only cast again when an occluder nearby changes
+            if (distance >= TORCH_LIGHT_RADIUS) {
+                lightHandle.getLight().setStaticLight(true);
+            }
         }
 
     }
@@ -123,11 +128,21 @@ public class Torch extends TileEntity {
     @Override
     public void spawn(float x, float y) {
         super.spawn(x, y);
-        light = new PointLight(
+        PointLight light = new PointLight(
             LevelScreen.getInstance().rayHandler, RAY_AMOUNT, TORCH_LIGHT_COLOR, 0, x, y);
         light.setContactFilter(BodyBits.LIGHT, (short) 0, BodyBits.LIGHT_MASK);
-        light.setActive(lit);
         light.setStaticLight(false);
+        lightHandle = LevelScreen.getInstance().lightManager.register(light, x, y);
+        LevelScreen.getInstance().lightManager.setLit(lightHandle, lit);
+    }
+
+    @Override
+    public void dispose() {
+        if (lightHandle != null) {
+            LevelScreen.getInstance().lightManager.unregister(lightHandle);
+            lightHandle = null;
+        }
+        super.dispose();
     }
 
     @Override
@@ -135,13 +150,13 @@ public class Torch extends TileEntity {
         if (!lit &&
             LevelScreen.getInstance().player.isHoldingTorch() &&
             /// -1/4f for centering source point of the torch center
-            Utils.isPlayerExposed(
+            LevelScreen.getInstance().lineOfSight.isPlayerExposed(
                 this.getPosition().addY(-1 / 4f * Globals.CELL_SIZE_METERS), TORCH_ACTIVATION_RADIUS * 2
             )
         ) {
             if (!lit) {
                 lit = true;
-                light.setActive(true);
+                LevelScreen.getInstance().lightManager.setLit(lightHandle, true);
                 float x = getPosition().x();
                 float y = getPosition().y();
                 litSound.stop();
@@ -10,6 +10,7 @@ import de.tum.cit.fop.maze.essentials.BodyBits;
 import de.tum.cit.fop.maze.Globals;
 import de.tum.cit.fop.maze.essentials.Utils;
 import de.tum.cit.fop.maze.level.LevelScreen;
+import de.tum.cit.fop.maze.level.LightManager;
 import org.jetbrains.annotations.Nullable;
 
 import static de.tum.cit.fop.maze.Globals.*;
@@ -23,7 +24,7 @@ public class Trap extends TileEntity {
     private transient float elapsedTime = 0f;
     private transient float lastActivationTime = 0f;
     private boolean isActivated = false;
-    private transient @Nullable PointLight light;
+    private transient @Nullable LightManager.Handle lightHandle;
 
     /**
      * Constructs a new trap
@@ -72,18 +73,24 @@ public class Trap extends TileEntity {
             if (trapAnimation.isAnimationFinished(elapsedTime)) {
                 isActivated = false;
                 lastActivationTime = elapsedTime;
-            } else if (light != null) {
-                light.setActive(true);
-                if (light.getDistance() < TRAP_LIGHT_RADIUS) {
-                    light.setDistance(TRAP_LIGHT_RADIUS * Utils.easeOutCirc(elapsedTime));
+            } else if (lightHandle != null) {
+                LightManager lightManager = LevelScreen.getInstance().lightManager;
+                lightManager.setLit(lightHandle, true);
+                if (lightHandle.getLight().getDistance() < TRAP_LIGHT_RADIUS) {
+                    lightManager.setDistance(lightHandle, TRAP_LIGHT_RADIUS * Utils.easeOutCirc(elapsedTime));
                 }
             }
         } else {
-            if (light != null && light.getDistance() > 0) {
-                light.setDistance(
-                    TRAP_LIGHT_RADIUS -
-                        TRAP_LIGHT_RADIUS * Utils.easeOutCirc((elapsedTime - lastActivationTime) * 3f)
-                );
+            if (lightHandle != null && lightHandle.isLit()) {
+                float fade = (elapsedTime - lastActivationTime) * 3f;
+                /// Faded out, the light is culled until the next activation
+                if (fade >= 1) {
+                    LevelScreen.getInstance().lightManager.setLit(lightHandle, false);
+                } else {
+                    LevelScreen.getInstance().lightManager.setDistance(
+                        lightHandle, TRAP_LIGHT_RADIUS - TRAP_LIGHT_RADIUS * Utils.easeOutCirc(fade)
+                    );
+                }
             }
             if (elapsedTime - lastActivationTime >= attributes.cooldown) {
                 isActivated = true;
@@ -113,14 +120,23 @@ public class Trap extends TileEntity {
     public void spawn(float x, float y) {
         super.spawn(x, y);
         if (attributes.emitsLight) {
-            light = new PointLight(
+            PointLight light = new PointLight(
                 LevelScreen.getInstance().rayHandler, RAY_AMOUNT, TRAP_LIGHT_COLOR,
                 0, x, y
             );
             light.setContactFilter(BodyBits.LIGHT, (short) 0, BodyBits.LIGHT_MASK);
-            light.setActive(false);
             light.setStaticLight(true);
+            lightHandle = LevelScreen.getInstance().lightManager.register(light, x, y);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (lightHandle != null) {
+            LevelScreen.getInstance().lightManager.unregister(lightHandle);
+            lightHandle = null;
         }
+        super.dispose();
     }
 
     public boolean isActivated() {
@@ -0,0 +1,91 @@
+package de.tum.cit.fop.maze.essentials;
+
+import de.tum.cit.fop.maze.Globals;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h2>Task executors</h2>
+ * <p>Creates the executors of the background jobs of the game, such as the path searches of the enemies.</p>
+ * <p>On a Java 21 runtime the AI jobs run on a virtual thread per task, so that no platform thread is parked while
+ * a job waits and starting a job costs no thread switch of the operating system. The sources target Java 17 and
+ * Android, where virtual threads do not exist, so they are looked up reflectively and the executor falls back to a
+ * fixed pool of daemon platform threads.</p>
+ */
+public final class TaskExecutors {
+    private TaskExecutors() {
+    }
+
+    /**
+     * Creates the executor of the AI jobs, virtual threads if {@code AI_VIRTUAL_THREADS} is enabled and the
+     * runtime supports them, a fixed thread pool otherwise
+     *
+     * @param name        prefix of the thread names
+     * @param parallelism number of threads of the fixed thread pool
+     * @return the executor, shut it down when it is no longer needed
+     */
+    public static ExecutorService newAiExecutor(String name, int parallelism) {
+        if (Globals.AI_VIRTUAL_THREADS) {
+            ExecutorService executor = newVirtualThreadExecutor(name);
+            if (executor != null) {
+                return executor;
+            }
+        }
+        return newFixedThreadPool(name, parallelism);
+    }
+
+    /**
+     * @return {@code true} if the runtime supports virtual threads
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates an executor starting a virtual thread for every task, equivalent to
+     * {@code Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory())}
+     *
+     * @param name prefix of the thread names
+     * @return the executor, {@code null} if the runtime does not support virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor(String name) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method executor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) executor.invoke(null, factory);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a fixed pool of daemon threads, so that the pool never keeps the game running after it is closed
+     *
+     * @param name        prefix of the thread names
+     * @param parallelism number of threads
+     * @return the executor
+     */
+    public static ExecutorService newFixedThreadPool(String name, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Thread pool needs at least one thread");
+        }
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package de.tum.cit.fop.maze.essentials;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <h2>Timer wheel</h2>
+ * <p>Runs delayed tasks on the render thread, advanced by the frame time instead of sleeping threads.</p>
+ * <p>The wheel has {@value #SLOTS} slots of {@value #TICK_SECONDS} seconds. A task is put into the slot its delay
+ * ends in, together with the number of full turns of the wheel left, so that scheduling and every tick only touch
+ * a single slot. Delays are rounded up to whole ticks.</p>
+ * <p>{@link #schedule(Runnable, float)} can be called from any thread, the task is picked up by the next
+ * {@link #advance(float)}. Tasks due in the same tick run in the order they were scheduled.</p>
+ */
+public final class TimerWheel {
+    private static final float TICK_SECONDS = 1 / 60f;
+    private static final int SLOTS = 64;
+    private static TimerWheel instance;
+
+    private final ArrayList<ArrayList<Timer>> slots = new ArrayList<>(SLOTS);
+    /// Tasks scheduled since the last advance, with their delays in ticks
+    private final ConcurrentLinkedQueue<Timer> scheduled = new ConcurrentLinkedQueue<>();
+    private final ArrayList<Runnable> due = new ArrayList<>();
+    private int cursor;
+    private float accumulator;
+
+    private TimerWheel() {
+        for (int k = 0; k < SLOTS; k++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * @return the timer wheel advanced by the game loop
+     */
+    public static synchronized TimerWheel getInstance() {
+        if (instance == null) {
+            instance = new TimerWheel();
+        }
+        return instance;
+    }
+
+    /**
+     * Schedules a task to run on the render thread after the delay
+     *
+     * @param task  the task
+     * @param delay the delay in seconds
+     */
+    public void schedule(Runnable task, float delay) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("Delay must not be negative");
+        }
+        scheduled.add(new Timer(task, Math.max(1, (int) Math.ceil(delay / TICK_SECONDS))));
+    }
+
+    /**
+     * Advances the wheel by the frame time and runs the tasks whose delay has passed, called once per frame
+     *
+     * @param delta the time since the last frame
+     */
+    public void advance(float delta) {
+        Timer timer;
+        while ((timer = scheduled.poll()) != null) {
+            timer.rounds = (timer.ticks - 1) / SLOTS;
+            slots.get((cursor + timer.ticks) % SLOTS).add(timer);
+        }
+        accumulator += delta;
+        while (accumulator >= TICK_SECONDS) {
+            accumulator -= TICK_SECONDS;
+            cursor = (cursor + 1) % SLOTS;
+            ArrayList<Timer> slot = slots.get(cursor);
+            /// Compact the pending timers in place, keeping the slot and the due tasks in scheduling order
+            int kept = 0;
+            for (int k = 0; k < slot.size(); k++) {
+                Timer current = slot.get(k);
+                if (current.rounds > 0) {
+                    current.rounds--;
+                    slot.set(kept++, current);
+                } else {
+                    due.add(current.task);
+                }
+            }
+            slot.subList(kept, slot.size()).clear();
+        }
+        /// Tasks run after the wheel is consistent, they may schedule new tasks
+        RuntimeException failure = null;
+        for (Runnable task : due) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                /// The other due tasks still run, the first failure is rethrown afterwards
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        due.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Scheduled task
+     */
+    private static final class Timer {
+        private final Runnable task;
+        private final int ticks;
+        private int rounds;
+
+        private Timer(Runnable task, int ticks) {
+            this.task = task;
+            this.ticks = ticks;
+        }
+    }
+}
@@ -163,19 +163,13 @@ public class Utils {
     }
 
     /**
-     * Schedule a function to run after a delay
+     * Schedule a function to run on the render thread after a delay
      * @param function The function to run
      * @param delay The delay in seconds
+     * @see TimerWheel
      */
     public static void scheduleFunction(Runnable function, float delay) {
-        new Thread(() -> {
-            try {
-                Thread.sleep((long) (delay * 1000));
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-            function.run();
-        }).start();
+        TimerWheel.getInstance().schedule(function, delay);
     }
 
 }
@@ -0,0 +1,257 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import static de.tum.cit.fop.maze.Globals.MAP_CHUNK_TILES;
+
+/**
+ * <h2>Chunked map renderer</h2>
+ * <p>Draws the tile layers of a {@link TileMap} from static vertex buffers instead of walking every visible cell in
+ * every frame like the {@code OrthogonalTiledMapRenderer}. The map is split into chunks of
+ * {@link de.tum.cit.fop.maze.Globals#MAP_CHUNK_TILES} tiles per side, the quads of all layers of a chunk are built
+ * once into one {@link Mesh} per texture and only the chunks overlapping the view of the camera are drawn.</p>
+ * <p>A chunk is rebuilt the next time it is visible after a tile of it was set, see
+ * {@link TileMap#pollChangedTiles(int[])}, so the rows of a streamed map appear as they are built.</p>
+ * <p>The tiles of the maze are not rotated, the rotation of the cells is ignored.</p>
+ */
+public final class ChunkedMapRenderer implements Disposable {
+    /// Floats per vertex: position, packed color and texture coordinates
+    private static final int VERTEX_SIZE = 2 + 1 + 2;
+    /// Quads per mesh, limited by the short indices
+    private static final int MAX_QUADS = Short.MAX_VALUE / 4;
+
+    private final TileMap map;
+    private final float unitScale;
+    private final ShaderProgram shader;
+    /// Number of chunk columns
+    private final int width;
+    /// Number of chunk rows
+    private final int height;
+    /// Size of a chunk in world units
+    private final float chunkWidth;
+    private final float chunkHeight;
+    private final Chunk[] chunks;
+    private final int[] changed = new int[4];
+    private final ObjectMap<Texture, FloatArray> quads = new ObjectMap<>();
+    private short[] indices = new short[0];
+
+    /**
+     * <h2>Chunk</h2>
+     * <p>The meshes of a chunk with the texture each of them is drawn with</p>
+     */
+    private static final class Chunk {
+        final Array<Mesh> meshes = new Array<>();
+        final Array<Texture> textures = new Array<>();
+        boolean dirty = true;
+
+        void clear() {
+            for (Mesh mesh : meshes) {
+                mesh.dispose();
+            }
+            meshes.clear();
+            textures.clear();
+        }
+    }
+
+    /**
+     * Creates a renderer for a map, every chunk is built the first time it is visible
+     *
+     * @param map       the map to draw
+     * @param unitScale world units per pixel of the tiles
+     */
+    public ChunkedMapRenderer(TileMap map, float unitScale) {
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getMap().getLayers().get(0);
+        this.map = map;
+        this.unitScale = unitScale;
+        this.width = (layer.getWidth() + MAP_CHUNK_TILES - 1) / MAP_CHUNK_TILES;
+        this.height = (layer.getHeight() + MAP_CHUNK_TILES - 1) / MAP_CHUNK_TILES;
+        this.chunkWidth = MAP_CHUNK_TILES * layer.getTileWidth() * unitScale;
+        this.chunkHeight = MAP_CHUNK_TILES * layer.getTileHeight() * unitScale;
+        this.chunks = new Chunk[width * height];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk();
+        }
+        this.shader = SpriteBatch.createDefaultShader();
+        /// Tiles set while the map was built before the renderer existed are covered by the dirty chunks
+        map.pollChangedTiles(changed);
+    }
+
+    /**
+     * Draws the chunks visible to the camera, rebuilding those with changed tiles
+     *
+     * @param camera the camera of the level
+     */
+    public void render(OrthographicCamera camera) {
+        if (map.pollChangedTiles(changed)) {
+            markDirty(changed[0] / MAP_CHUNK_TILES, changed[1] / MAP_CHUNK_TILES,
+                changed[2] / MAP_CHUNK_TILES, changed[3] / MAP_CHUNK_TILES);
+        }
+
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        int cx0 = Math.max(0, (int) Math.floor((camera.position.x - halfWidth) / chunkWidth));
+        int cy0 = Math.max(0, (int) Math.floor((camera.position.y - halfHeight) / chunkHeight));
+        int cx1 = Math.min(width - 1, (int) Math.floor((camera.position.x + halfWidth) / chunkWidth));
+        int cy1 = Math.min(height - 1, (int) Math.floor((camera.position.y + halfHeight) / chunkHeight));
+        if (cx0 > cx1 || cy0 > cy1) {
+            return;
+        }
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", camera.combined);
+        shader.setUniformi("u_texture", 0);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                Chunk chunk = chunks[cx + cy * width];
+                if (chunk.dirty) {
+                    build(chunk, cx, cy);
+                }
+                for (int i = 0; i < chunk.meshes.size; i++) {
+                    chunk.textures.get(i).bind(0);
+                    chunk.meshes.get(i).render(shader, GL20.GL_TRIANGLES);
+                }
+            }
+        }
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    private void markDirty(int cx0, int cy0, int cx1, int cy1) {
+        for (int cy = Math.max(0, cy0); cy <= Math.min(height - 1, cy1); cy++) {
+            for (int cx = Math.max(0, cx0); cx <= Math.min(width - 1, cx1); cx++) {
+                chunks[cx + cy * width].dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Replaces the meshes of a chunk with the quads of the tiles it covers in all visible tile layers
+     */
+    private void build(Chunk chunk, int cx, int cy) {
+        chunk.clear();
+        chunk.dirty = false;
+        for (FloatArray vertices : quads.values()) {
+            vertices.clear();
+        }
+        for (MapLayer mapLayer : map.getMap().getLayers()) {
+            if (mapLayer instanceof TiledMapTileLayer layer && layer.isVisible()) {
+                addLayer(layer, cx, cy);
+            }
+        }
+        for (ObjectMap.Entry<Texture, FloatArray> entry : quads) {
+            FloatArray vertices = entry.value;
+            if (vertices.isEmpty()) {
+                continue;
+            }
+            int quadCount = vertices.size / (4 * VERTEX_SIZE);
+            if (quadCount > MAX_QUADS) {
+                throw new IllegalStateException("Chunk of " + quadCount + " tiles exceeds the mesh limit of "
+                    + MAX_QUADS + ", decrease MAP_CHUNK_TILES");
+            }
+            Mesh mesh = new Mesh(true, quadCount * 4, quadCount * 6,
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                new VertexAttribute(VertexAttributes.Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE),
+                new VertexAttribute(VertexAttributes.Usage.TextureCoordinates, 2,
+                    ShaderProgram.TEXCOORD_ATTRIBUTE + "0"));
+            mesh.setVertices(vertices.items, 0, vertices.size);
+            mesh.setIndices(quadIndices(quadCount), 0, quadCount * 6);
+            chunk.meshes.add(mesh);
+            chunk.textures.add(entry.key);
+        }
+    }
+
+    /**
+     * Appends the quads of the tiles of a layer in a chunk to the vertices of their textures
+     */
+    private void addLayer(TiledMapTileLayer layer, int cx, int cy) {
+        float color = Color.toFloatBits(1f, 1f, 1f, layer.getOpacity());
+        float tileWidth = layer.getTileWidth() * unitScale;
+        float tileHeight = layer.getTileHeight() * unitScale;
+        float offsetX = layer.getRenderOffsetX() * unitScale;
+        float offsetY = -layer.getRenderOffsetY() * unitScale;
+        int x1 = Math.min(layer.getWidth(), (cx + 1) * MAP_CHUNK_TILES);
+        int y1 = Math.min(layer.getHeight(), (cy + 1) * MAP_CHUNK_TILES);
+        for (int y = cy * MAP_CHUNK_TILES; y < y1; y++) {
+            for (int x = cx * MAP_CHUNK_TILES; x < x1; x++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                TiledMapTile tile = cell == null ? null : cell.getTile();
+                if (tile == null) {
+                    continue;
+                }
+                TextureRegion region = tile.getTextureRegion();
+                float left = x * tileWidth + tile.getOffsetX() * unitScale + offsetX;
+                float bottom = y * tileHeight + tile.getOffsetY() * unitScale + offsetY;
+                float right = left + region.getRegionWidth() * unitScale;
+                float top = bottom + region.getRegionHeight() * unitScale;
+                float u1 = region.getU();
+                float v1 = region.getV2();
+                float u2 = region.getU2();
+                float v2 = region.getV();
+                if (cell.getFlipHorizontally()) {
+                    float u = u1;
+                    u1 = u2;
+                    u2 = u;
+                }
+                if (cell.getFlipVertically()) {
+                    float v = v1;
+                    v1 = v2;
+                    v2 = v;
+                }
+                FloatArray vertices = quads.get(region.getTexture());
+                if (vertices == null) {
+                    vertices = new FloatArray();
+                    quads.put(region.getTexture(), vertices);
+                }
+                vertices.addAll(left, bottom, color, u1, v1);
+                vertices.addAll(left, top, color, u1, v2);
+                vertices.addAll(right, top, color, u2, v2);
+                vertices.addAll(right, bottom, color, u2, v1);
+            }
+        }
+    }
+
+    /**
+     * @return the indices of two triangles per quad for at least {@code quadCount} quads
+     */
+    private short[] quadIndices(int quadCount) {
+        if (indices.length < quadCount * 6) {
+            indices = new short[quadCount * 6];
+            for (int quad = 0; quad < quadCount; quad++) {
+                short vertex = (short) (quad * 4);
+                indices[quad * 6] = vertex;
+                indices[quad * 6 + 1] = (short) (vertex + 1);
+                indices[quad * 6 + 2] = (short) (vertex + 2);
+                indices[quad * 6 + 3] = (short) (vertex + 2);
+                indices[quad * 6 + 4] = (short) (vertex + 3);
+                indices[quad * 6 + 5] = vertex;
+            }
+        }
+        return indices;
+    }
+
+    @Override
+    public void dispose() {
+        for (Chunk chunk : chunks) {
+            chunk.clear();
+        }
+        shader.dispose();
+    }
+}
@@ -1,16 +1,15 @@
 package de.tum.cit.fop.maze.level;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.utils.async.AsyncExecutor;
 import de.tum.cit.fop.maze.Globals;
 import de.tum.cit.fop.maze.entities.Enemy;
+import de.tum.cit.fop.maze.entities.EnemyPath;
 import de.tum.cit.fop.maze.essentials.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <h2>The manager for the enemies</h2>
@@ -26,20 +25,56 @@ import java.util.concurrent.atomic.AtomicInteger;
  *         no longer in their vision range</li>
  *         <li>Enemies will move randomly if the player is not in their vision range</li>
  * </p>
+ * <p>
+ * The AI runs at the level of detail of the {@link AiTier} of the enemy, so that enemies far away from the player
+ * cost (almost) nothing.
+ * </p>
  */
 public class EnemyManager {
+    /**
+     * AI level of detail of an enemy
+     */
+    public enum AiTier {
+        /// On screen: vision checks and path requests every frame
+        VISIBLE,
+        /// Off screen but awake: vision checks every {@code ENEMY_AI_NEAR_TICK_INTERVAL} frames within
+        /// {@code ENEMY_AI_VISION_CHECK_BUDGET}
+        NEAR,
+        /// Off screen and further than {@code ENEMY_AI_SLEEP_DISTANCE}: the body is inactive, no AI and no rendering
+        /// until the enemy comes within {@code ENEMY_AI_WAKE_DISTANCE} of the player
+        ASLEEP
+    }
+
     private transient final LevelScreen levelScreen;
-    ///  The Libgdx executor for asynchronous tasks
-    private transient final AsyncExecutor asyncExecutor;
-    ///  The number of launched tasks, used so that no new tasks are launched if there are already some running
-    ///  (mainly for low-end devices)
-    private final transient AtomicInteger launchedTasks = new AtomicInteger(0);
+    ///  Runs the path searches of the enemies within a frame budget, one search per enemy at a time
+    private transient final PathRequestScheduler pathScheduler;
+    ///  Distances to the player shared by the chasing enemies
+    private final transient FlowField flowField = new FlowField();
+    ///  Living enemies by their position
+    private final transient SpatialHash<Enemy> spatialHash = new SpatialHash<>(256);
+    ///  Enemies within the attack distance of the player in the current frame
+    private final transient ArrayList<Enemy> attackingEnemies = new ArrayList<>();
+    ///  Enemies within the vision distance of the player in the current frame
+    private final transient ArrayList<Enemy> nearbyEnemies = new ArrayList<>();
+    ///  The longest distance from which an enemy can see the player
+    private transient float maxVisionDistance = 0;
+    ///  Enemies found by the wake trigger around the player
+    private final transient ArrayList<Enemy> wakingEnemies = new ArrayList<>();
+    ///  Number of enemies of every {@link AiTier} in the last frame
+    private final transient int[] tierCounts = new int[AiTier.values().length];
+    ///  Number of vision checks in the last frame
+    private transient int visionChecks = 0;
+    private transient int frame = 0;
     private ArrayList<Enemy> enemies;
     private transient float accumulator = 0;
 
     public EnemyManager() {
         this.enemies = new ArrayList<>();
-        this.asyncExecutor = new AsyncExecutor(Runtime.getRuntime().availableProcessors());
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        this.pathScheduler = new PathRequestScheduler(
+            TaskExecutors.newAiExecutor("EnemyAI", parallelism),
+            parallelism
+        );
         this.levelScreen = LevelScreen.getInstance();
     }
 
@@ -64,7 +99,94 @@ public class EnemyManager {
             rayLength = enemy.getConfig().attributes().visionRange() * Globals.CELL_SIZE_METERS * 3 / 2f;
         }
 
-        return Utils.isPlayerExposed(enemyEyes, rayLength);
+        return levelScreen.lineOfSight.isPlayerExposed(enemyEyes, rayLength);
+    }
+
+    /**
+     * @param enemy The enemy
+     * @return The longest distance between the enemy and the player from which {@link #isPlayerSeen(Enemy)} can
+     *         be {@code true}
+     */
+    private static float visionDistance(Enemy enemy) {
+        return enemy.getConfig().attributes().visionRange() * Globals.CELL_SIZE_METERS * 3
+            + enemy.boundingRectangle.height() / 3;
+    }
+
+    /**
+     * @param position The position of the enemy
+     * @return {@code true} if the enemy at the position is on screen
+     */
+    private boolean isInView(AbsolutePoint position) {
+        return levelScreen.camera.frustum.sphereInFrustum(
+            position.x(), position.y(), 0, Globals.CELL_SIZE_METERS * 2
+        );
+    }
+
+    /**
+     * Classify the enemy and put it to sleep if it is far away from the player
+     *
+     * @param enemy          The living enemy
+     * @param position       The position of the enemy
+     * @param playerPosition The position of the player
+     * @return The {@link AiTier} of the enemy in this frame
+     */
+    private AiTier updateTier(Enemy enemy, AbsolutePoint position, AbsolutePoint playerPosition) {
+        if (isInView(position)) {
+            enemy.setAsleep(false);
+            return AiTier.VISIBLE;
+        }
+        if (enemy.isAsleep()) {
+            return AiTier.ASLEEP;
+        }
+        if (!enemy.isMovingToPlayer() && position.distance(playerPosition) > Globals.ENEMY_AI_SLEEP_DISTANCE) {
+            enemy.setAsleep(true);
+            /// A random walk in flight would be applied to a sleeping enemy
+            pathScheduler.invalidate(enemy);
+            return AiTier.ASLEEP;
+        }
+        return AiTier.NEAR;
+    }
+
+    /**
+     * Region trigger around the player, wakes up the sleeping enemies within {@code ENEMY_AI_WAKE_DISTANCE}.
+     * Box2D sensors do not report inactive bodies, so the region is looked up in the spatial hash.
+     *
+     * @param playerPosition The position of the player
+     */
+    private void wakeEnemiesNearPlayer(AbsolutePoint playerPosition) {
+        wakingEnemies.clear();
+        spatialHash.queryRange(
+            playerPosition.x(), playerPosition.y(), Globals.ENEMY_AI_WAKE_DISTANCE, wakingEnemies
+        );
+        for (Enemy enemy : wakingEnemies) {
+            enemy.setAsleep(false);
+        }
+    }
+
+    /**
+     * @param tier The AI tier
+     * @return The number of enemies that ran at the tier in the last frame
+     */
+    public int getTierCount(AiTier tier) {
+        return tierCounts[tier.ordinal()];
+    }
+
+    /**
+     * @return The number of vision checks (up to three raycasts each) in the last frame
+     */
+    public int getVisionChecks() {
+        return visionChecks;
+    }
+
+    /**
+     * Add a spawned enemy to the spatial hash
+     *
+     * @param enemy The enemy
+     */
+    private void track(Enemy enemy) {
+        AbsolutePoint position = enemy.getPosition();
+        spatialHash.update(enemy, position.x(), position.y());
+        maxVisionDistance = Math.max(maxVisionDistance, visionDistance(enemy));
     }
 
     /**
@@ -77,6 +199,7 @@ public class EnemyManager {
     public void createEnemy(Enemy enemy, float x, float y) {
         enemy.spawn(x, y);
         enemies.add(enemy);
+        track(enemy);
     }
 
     /**
@@ -94,6 +217,7 @@ public class EnemyManager {
 
         tickEnemies(delta);
         for (Enemy enemy : enemies) {
+            if (enemy.isAsleep()) continue;
             enemy.renderEntity(delta);
         }
 
@@ -105,52 +229,103 @@ public class EnemyManager {
      * @param enemy The enemy to remove
      */
     private void removeEnemy(Enemy enemy) {
+        pathScheduler.cancel(enemy);
+        spatialHash.remove(enemy);
         enemy.dispose();
         enemies.remove(enemy);
     }
 
     /**
-     * Recalculate the path of the enemies to the player
+     * Request new paths of the enemies that are due, submitted by the scheduler in the order of their distance
+     * to the player, enemies on screen first
+     *
+     * @param rollRandomWalks {@code true} if idle enemies may start a random walk this frame
      */
-    private void recalculatePaths() {
-        if (launchedTasks.get() > 0) return;
+    private void recalculatePaths(boolean rollRandomWalks) {
+        AbsolutePoint playerPosition = levelScreen.player.getPosition();
         for (Enemy enemy : enemies) {
-            if (enemy.isDead()) continue;
+            if (enemy.isDead()) {
+                pathScheduler.cancel(enemy);
+                continue;
+            }
+            if (enemy.isAsleep() || !pathScheduler.isDue(enemy)) continue;
+            AbsolutePoint position = enemy.getPosition();
+            float distance = position.distance(playerPosition);
+            boolean visible = isInView(position);
             /// Random movement
             if (!enemy.isMovingToPlayer() && enemy.isPathEmpty()) {
-                Random random = LevelScreen.getInstance().map.random;
+                if (!rollRandomWalks) continue;
+                Random random = levelScreen.map.random;
                 if (random.nextFloat() > Globals.ENEMY_RANDOM_WALK_PROBABILITY) continue;
-                asyncExecutor.submit(() -> {
-                    launchedTasks.incrementAndGet();
-                    enemy.updatePath(
-                        LevelScreen.getInstance().pathfinder.getRandomSinglePointPath(
-                            enemy,
-                            random
-                        ));
-                    launchedTasks.decrementAndGet();
-                    return true;
-                });
+                pathScheduler.request(enemy, distance, visible,
+                    walker -> EnemyPath.of(levelScreen.pathfinder.getRandomSinglePointPath(walker, random)),
+                    Enemy::setPath
+                );
                 /// Smart player chase
             } else if (enemy.isMovingToPlayer()) {
-                launchedTasks.incrementAndGet();
-                asyncExecutor.submit(() -> {
-                    List<AbsolutePoint> path = LevelScreen.getInstance().pathfinder.aStar(
-                        enemy,
-                        LevelScreen.getInstance().player.getPosition()
-                    );
-                    if (path == null) {
-                        launchedTasks.decrementAndGet();
-                        enemy.clearPath();
-                        enemy.setMovingToPlayer(false);
-                        return true;
-                    }
-                    enemy.updatePath(path);
-                    launchedTasks.decrementAndGet();
-                    return true;
-                });
+                pathScheduler.request(enemy, distance, visible, this::findChasePath, this::applyChasePath);
             }
         }
+        pathScheduler.dispatch();
+    }
+
+    /**
+     * Apply the result of a chase search, the enemy gives up the chase if the player is out of reach
+     *
+     * @param enemy The chasing enemy
+     * @param path  The path to the player, {@code null} if the player is out of reach
+     */
+    private void applyChasePath(Enemy enemy, EnemyPath path) {
+        if (path == null) {
+            enemy.clearPath();
+            enemy.setMovingToPlayer(false);
+            return;
+        }
+        enemy.setPath(path);
+    }
 
+    /**
+     * Find the path of a chasing enemy to the player, from the flow field if it covers the enemy,
+     * otherwise with the hierarchical pathfinder over the maze cells. The path is smoothed to its corners.
+     *
+     * @param enemy The chasing enemy
+     * @return The path to the player, {@code null} if the player is out of reach
+     */
+    private EnemyPath findChasePath(Enemy enemy) {
+        NavigationGrid grid = levelScreen.map.getNavigationGrid();
+        AbsolutePoint start = enemy.getPosition();
+        List<AbsolutePoint> path = null;
+        if (Globals.ENEMY_CHASE_FLOW_FIELD && flowField.isComputedFor(enemy.boundingRectangle)) {
+            path = flowField.findPath(enemy.boundingRectangle, start);
+        }
+        if (path == null) {
+            path = LevelScreen.getInstance().hierarchicalPathfinder.findPath(
+                levelScreen.map.wallMap,
+                grid,
+                enemy.boundingRectangle,
+                start,
+                levelScreen.player.getPosition()
+            );
+        }
+        return EnemyPath.smooth(grid, enemy.boundingRectangle, start, path);
+    }
+
+    /**
+     * Update the flow field toward the player if any enemy is chasing,
+     * the field is only recomputed when the player moved to another sample of the navigation grid
+     */
+    private void updateFlowField() {
+        if (!Globals.ENEMY_CHASE_FLOW_FIELD) return;
+        for (Enemy enemy : enemies) {
+            if (enemy.isMovingToPlayer() && !enemy.isDead()) {
+                flowField.update(
+                    levelScreen.map.getNavigationGrid(),
+                    enemy.boundingRectangle,
+                    levelScreen.player.getPosition()
+                );
+                return;
+            }
+        }
     }
 
     /**
@@ -160,41 +335,94 @@ public class EnemyManager {
      */
     public void tickEnemies(float delta) {
         boolean playerChased = false;
+        pathScheduler.tick(delta);
+        pathScheduler.applyResults();
         accumulator += delta;
-        if (accumulator >= Globals.ENEMY_PATHFINDING_INTERVAL) {
+        boolean intervalElapsed = accumulator >= Globals.ENEMY_PATHFINDING_INTERVAL;
+        if (intervalElapsed) {
             accumulator = 0;
-            recalculatePaths();
+            updateFlowField();
+        }
+        frame++;
+        Arrays.fill(tierCounts, 0);
+        AbsolutePoint playerPosition = levelScreen.player.getPosition();
+        if (frame % Globals.ENEMY_AI_NEAR_TICK_INTERVAL == 0) {
+            wakeEnemiesNearPlayer(playerPosition);
         }
         for (Enemy enemy : enemies) {
-            playerChased |= enemy.isMovingToPlayer() && !enemy.isDead() && enemy.getPathSize() > 0;
-            tickEnemy(enemy);
+            if (enemy.isDead()) {
+                spatialHash.remove(enemy);
+                enemy.setAsleep(false);
+                continue;
+            }
+            AbsolutePoint position = enemy.getPosition();
+            spatialHash.update(enemy, position.x(), position.y());
+            AiTier tier = updateTier(enemy, position, playerPosition);
+            tierCounts[tier.ordinal()]++;
+            playerChased |= enemy.isMovingToPlayer() && !enemy.isPathEmpty();
+            if (tier == AiTier.VISIBLE) {
+                tickEnemy(enemy);
+            }
         }
+        recalculatePaths(intervalElapsed);
+        tickEnemiesNearPlayer(playerPosition);
         levelScreen.player.setBeingChased(playerChased);
     }
 
     /**
-     * Tick a single enemy
+     * Tick the enemies around the player, found in the spatial hash: the ones within the attack distance attack,
+     * the ones within the vision distance look for the player. Enemies off screen only look every
+     * {@code ENEMY_AI_NEAR_TICK_INTERVAL} frames, staggered over the frames, within
+     * {@code ENEMY_AI_VISION_CHECK_BUDGET} checks per frame.
      *
-     * @param enemy The enemy to tick
+     * @param playerPosition The position of the player
      */
-    private void tickEnemy(Enemy enemy) {
-        if (!enemy.isMovingToPlayer() && isPlayerSeen(enemy)) {
-            enemy.setMovingToPlayer(true);
+    private void tickEnemiesNearPlayer(AbsolutePoint playerPosition) {
+        for (Enemy enemy : attackingEnemies) {
+            enemy.setPlayerInAttackRange(false);
+        }
+        attackingEnemies.clear();
+        spatialHash.queryRange(
+            playerPosition.x(), playerPosition.y(), Globals.ENEMY_ATTACK_DISTANCE, attackingEnemies
+        );
+        for (Enemy enemy : attackingEnemies) {
+            enemy.setPlayerInAttackRange(true);
         }
-        if (!enemy.isPathEmpty()) {
-            AbsolutePoint lastPoint = enemy.getPosition();
-            AbsolutePoint currentPoint;
-            for (int i = 0; i < enemy.getPathSize(); ++i) {
-                currentPoint = enemy.getPathElement(i);
-                if (currentPoint == null) {
 
-                    break;
+        visionChecks = 0;
+        int offScreenChecks = 0;
+        nearbyEnemies.clear();
+        spatialHash.queryRange(playerPosition.x(), playerPosition.y(), maxVisionDistance, nearbyEnemies);
+        for (Enemy enemy : nearbyEnemies) {
+            if (enemy.isMovingToPlayer() || enemy.isAsleep()) continue;
+            if (!isInView(enemy.getPosition())) {
+                if (Math.floorMod(frame + System.identityHashCode(enemy), Globals.ENEMY_AI_NEAR_TICK_INTERVAL) != 0
+                    || offScreenChecks >= Globals.ENEMY_AI_VISION_CHECK_BUDGET) {
+                    continue;
                 }
-                DebugRenderer.getInstance().drawLine(lastPoint, currentPoint, Color.RED);
-                lastPoint = currentPoint;
+                offScreenChecks++;
             }
+            visionChecks++;
+            if (isPlayerSeen(enemy)) {
+                enemy.setMovingToPlayer(true);
+                /// A random walk still in flight must not replace the chase
+                pathScheduler.invalidate(enemy);
+            }
+        }
+    }
 
-
+    /**
+     * Tick a single enemy on screen
+     *
+     * @param enemy The enemy to tick
+     */
+    private void tickEnemy(Enemy enemy) {
+        EnemyPath path = enemy.getPath();
+        AbsolutePoint lastPoint = enemy.getPosition();
+        for (int i = 0; i < path.size(); ++i) {
+            AbsolutePoint currentPoint = path.get(i);
+            DebugRenderer.getInstance().drawLine(lastPoint, currentPoint, Color.RED);
+            lastPoint = currentPoint;
         }
 
     }
@@ -206,10 +434,15 @@ public class EnemyManager {
                 enemy.getSavedPosition().x(),
                 enemy.getSavedPosition().y()
             );
+            if (!enemy.isDead()) {
+                track(enemy);
+            }
         }
     }
 
     public void dispose() {
+        pathScheduler.dispose();
+        spatialHash.clear();
         for (Enemy enemy : enemies) {
             enemy.dispose();
         }
@@ -0,0 +1,277 @@
+package de.tum.cit.fop.maze.level;
+
+import de.tum.cit.fop.maze.Globals;
+import de.tum.cit.fop.maze.essentials.AbsolutePoint;
+import de.tum.cit.fop.maze.essentials.BoundingRectangle;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h2>Flow field</h2>
+ * <p>Distance field toward a single target, the player, shared by all chasing enemies. Instead of one A* search per
+ * enemy, the distances of every sample of the {@link NavigationGrid} within {@code ENTITY_PATHFINDING_RANGE} of
+ * the target are computed once, every enemy then follows the decreasing distances to the target.</p>
+ * <p>The field is a breadth-first expansion over buckets of equal distance, orthogonal steps cost
+ * {@value #ORTHOGONAL_COST} and diagonal steps {@value #DIAGONAL_COST}, which approximates the octile distance.
+ * It is only recomputed when the target moves to another sample.</p>
+ * <p>{@link #update(NavigationGrid, BoundingRectangle, AbsolutePoint)} is called by the render thread, a published
+ * field is never modified, so {@link #findPath(BoundingRectangle, AbsolutePoint)} can be called from the AI threads
+ * without locking. Obstacles removed later only make the field pessimistic until the next update.</p>
+ * <p>The distances alternate between two buffers: the buffer of the replaced field is refilled by the next
+ * recomputation once no AI thread reads it anymore, so moving the target does not allocate. A reader still holding
+ * the buffer makes the update allocate a fresh one instead.</p>
+ */
+public final class FlowField {
+    private static final int ORTHOGONAL_COST = 2;
+    private static final int DIAGONAL_COST = 3;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    /// Sample offsets of the directions, orthogonal first
+    private static final int[] DIRECTION_X = {0, 1, 0, -1, 1, 1, -1, -1};
+    private static final int[] DIRECTION_Y = {1, 0, -1, 0, 1, -1, 1, -1};
+
+    private final int radius;
+    private final int side;
+    /// Nodes of every distance modulo {@code DIAGONAL_COST + 1}, only used by {@link #update}
+    private final int[][] buckets = new int[DIAGONAL_COST + 1][];
+    private final int[] bucketSizes = new int[DIAGONAL_COST + 1];
+    private volatile Field field;
+    /// Buffer of the replaced field, refilled by the next recomputation if it has no readers, only used by
+    /// {@link #update}
+    private @Nullable Distances spare;
+
+    /**
+     * Creates an empty field covering {@code ENTITY_PATHFINDING_RANGE} around the target
+     */
+    public FlowField() {
+        float distanceLimit = NavigationGrid.SAMPLE_METERS * NavigationGrid.RESOLUTION
+            * Globals.ENTITY_PATHFINDING_RANGE;
+        this.radius = (int) Math.ceil(distanceLimit / NavigationGrid.SAMPLE_METERS);
+        this.side = 2 * radius + 1;
+        for (int k = 0; k < buckets.length; k++) {
+            buckets[k] = new int[side * 4];
+        }
+    }
+
+    /**
+     * Recomputes the field if the target moved to another sample or the footprint changed
+     *
+     * @param grid      the navigation grid of the map
+     * @param rectangle the bounding rectangle of the entities following the field
+     * @param target    the position of the target
+     * @return {@code true} if the field was recomputed
+     */
+    public boolean update(NavigationGrid grid, BoundingRectangle rectangle, AbsolutePoint target) {
+        NavigationGrid.Clearance clearance = grid.clearance(rectangle);
+        int targetX = (int) Math.floor(target.x() / NavigationGrid.SAMPLE_METERS);
+        int targetY = (int) Math.floor(target.y() / NavigationGrid.SAMPLE_METERS);
+        Field current = field;
+        if (current != null && current.grid == grid && current.clearance == clearance
+            && current.x0 + radius == targetX && current.y0 + radius == targetY) {
+            /// Same sample, only the exact end of the paths moves
+            field = new Field(grid, clearance, current.x0, current.y0, target, current.distances);
+            return false;
+        }
+
+        int x0 = targetX - radius;
+        int y0 = targetY - radius;
+        Distances distances = spare != null && spare.readers.get() == 0 ? spare : new Distances(new int[side * side]);
+        spare = null;
+        int[] distance = distances.values;
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(bucketSizes, 0);
+        int source = radius + radius * side;
+        distance[source] = 0;
+        push(0, source);
+        int pending = 1;
+        for (int cost = 0; pending > 0; cost++) {
+            int bucket = cost % buckets.length;
+            /// Nodes pushed during the loop go to other buckets, every step costs at least 1
+            for (int k = 0; k < bucketSizes[bucket]; k++) {
+                int node = buckets[bucket][k];
+                pending--;
+                if (distance[node] != cost) {
+                    continue;
+                }
+                int x = node % side;
+                int y = node / side;
+                for (int d = 0; d < DIRECTION_X.length; d++) {
+                    int nx = x + DIRECTION_X[d];
+                    int ny = y + DIRECTION_Y[d];
+                    int rx = nx - radius;
+                    int ry = ny - radius;
+                    if (rx * rx + ry * ry > radius * radius) {
+                        continue;
+                    }
+                    int neighbor = nx + ny * side;
+                    int newCost = cost + (d < 4 ? ORTHOGONAL_COST : DIAGONAL_COST);
+                    if (newCost >= distance[neighbor] || !grid.isWalkable(clearance, x0 + nx, y0 + ny)) {
+                        continue;
+                    }
+                    distance[neighbor] = newCost;
+                    push(newCost % buckets.length, neighbor);
+                    pending++;
+                }
+            }
+            bucketSizes[bucket] = 0;
+        }
+        field = new Field(grid, clearance, x0, y0, target, distances);
+        /// Readers that picked up the replaced field before this point are counted, see acquire
+        spare = current == null ? null : current.distances;
+        return true;
+    }
+
+    private void push(int bucket, int node) {
+        if (bucketSizes[bucket] == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], buckets[bucket].length * 2);
+        }
+        buckets[bucket][bucketSizes[bucket]++] = node;
+    }
+
+    /**
+     * @param rectangle the bounding rectangle of the entity
+     * @return {@code true} if the field was computed for the footprint of the entity
+     */
+    public boolean isComputedFor(BoundingRectangle rectangle) {
+        Field current = field;
+        return current != null && current.grid.clearance(rectangle) == current.clearance;
+    }
+
+    /**
+     * Follows the field from the start to the target. Lock-free, can be called from any thread.
+     *
+     * @param rectangle the bounding rectangle of the entity, see {@link #isComputedFor(BoundingRectangle)}
+     * @param start     the position of the entity
+     * @return the list of points to the target, ending with the position of the target, {@code null} if the target
+     *         cannot be reached within the range
+     * @throws IllegalStateException if the field was not computed for the footprint of the entity
+     */
+    public @Nullable List<AbsolutePoint> findPath(BoundingRectangle rectangle, AbsolutePoint start) {
+        Field current = acquire();
+        if (current == null) {
+            throw new IllegalStateException("Flow field was not computed for this entity");
+        }
+        try {
+            if (current.grid.clearance(rectangle) != current.clearance) {
+                throw new IllegalStateException("Flow field was not computed for this entity");
+            }
+            return followField(current, start);
+        } finally {
+            current.distances.readers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Registers the calling thread as a reader of the distances of the current field, so that the render thread
+     * does not refill them. The field is read again after the count was incremented: if its buffer was replaced in
+     * between, the buffer may be refilled at any time and the next field is tried.
+     *
+     * @return the current field with its reader count incremented, {@code null} if no field was computed
+     */
+    private @Nullable Field acquire() {
+        while (true) {
+            Field current = field;
+            if (current == null) {
+                return null;
+            }
+            current.distances.readers.incrementAndGet();
+            Field latest = field;
+            if (latest != null && latest.distances == current.distances) {
+                /// The latest field, the buffer may have been refilled for it since current was read
+                return latest;
+            }
+            current.distances.readers.decrementAndGet();
+        }
+    }
+
+    private @Nullable List<AbsolutePoint> followField(Field current, AbsolutePoint start) {
+        float unit = NavigationGrid.SAMPLE_METERS;
+        if (start.distance(current.target) <= unit * 1.1f) {
+            return List.of(current.target);
+        }
+        int x = (int) Math.floor(start.x() / unit) - current.x0;
+        int y = (int) Math.floor(start.y() / unit) - current.y0;
+        if (x < 0 || y < 0 || x >= side || y >= side) {
+            return null;
+        }
+        int node = x + y * side;
+        List<AbsolutePoint> path = new ArrayList<>();
+        /// The start itself may be too close to a wall for the footprint, it then steps to the best neighbour
+        if (current.distances.values[node] == UNREACHABLE) {
+            node = descend(current.distances.values, node);
+            if (node == -1) {
+                return null;
+            }
+            path.add(center(current, node));
+        }
+        while (current.distances.values[node] > 0) {
+            node = descend(current.distances.values, node);
+            path.add(center(current, node));
+        }
+        if (!path.isEmpty()) {
+            /// The sample of the target is replaced by the target itself
+            path.remove(path.size() - 1);
+        }
+        path.add(current.target);
+        return path;
+    }
+
+    /**
+     * @return the neighbour with the smallest distance, {@code -1} if no neighbour is reachable
+     */
+    private int descend(int[] distance, int node) {
+        int x = node % side;
+        int y = node / side;
+        int best = -1;
+        int bestDistance = UNREACHABLE;
+        for (int d = 0; d < DIRECTION_X.length; d++) {
+            int nx = x + DIRECTION_X[d];
+            int ny = y + DIRECTION_Y[d];
+            if (nx < 0 || ny < 0 || nx >= side || ny >= side) {
+                continue;
+            }
+            int neighbor = nx + ny * side;
+            if (distance[neighbor] < bestDistance) {
+                best = neighbor;
+                bestDistance = distance[neighbor];
+            }
+        }
+        return best;
+    }
+
+    private AbsolutePoint center(Field current, int node) {
+        return new AbsolutePoint(
+            (current.x0 + node % side + 0.5f) * NavigationGrid.SAMPLE_METERS,
+            (current.y0 + node / side + 0.5f) * NavigationGrid.SAMPLE_METERS
+        );
+    }
+
+    /**
+     * Computed field
+     *
+     * @param grid      the navigation grid the field was computed on
+     * @param clearance the clearance layer of the footprint
+     * @param x0        grid column of the first column of the field
+     * @param y0        grid row of the first row of the field
+     * @param target    the exact position of the target
+     * @param distances distance of every sample to the target sample, {@code (x - x0) + (y - y0) * side}
+     */
+    private record Field(NavigationGrid grid, NavigationGrid.Clearance clearance, int x0, int y0,
+                         AbsolutePoint target, Distances distances) {
+    }
+
+    /**
+     * Reusable distance buffer
+     *
+     * @param values  distance of every sample of the field
+     * @param readers number of AI threads following a field with this buffer
+     */
+    private record Distances(int[] values, AtomicInteger readers) {
+        private Distances(int[] values) {
+            this(values, new AtomicInteger());
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package de.tum.cit.fop.maze.level;
 
 import de.tum.cit.fop.maze.level.worldgen.GeneratorCell;
-import de.tum.cit.fop.maze.level.worldgen.MazeGenerator;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
 
 /**
  * <p>Contains the different cases to process the generation of the maze, to distinguish different specifics</p>
@@ -20,31 +20,31 @@ public final class GenerationCases {
     /**
      * Checks if the current cell is located on the edge of the maze
      *
-     * @param i         row index
-     * @param j         column index
-     * @param generator the maze generator
+     * @param i    row index
+     * @param j    column index
+     * @param grid the maze grid
      * @return {@code true} if the current cell is on the edge of the maze
      */
-    public static boolean isEdge(int i, int j, MazeGenerator generator) {
-        return i <= 0 || i >= generator.height - 1 || j <= 0 || j >= generator.width - 1;
+    public static boolean isEdge(int i, int j, MazeGrid grid) {
+        return i <= 0 || i >= grid.height - 1 || j <= 0 || j >= grid.width - 1;
     }
 
     /**
      * Checks if the current cell is a top of a vertical wall
      *
-     * @param i         row index
-     * @param j         column index
-     * @param generator the maze generator
+     * @param i    row index
+     * @param j    column index
+     * @param grid the maze grid
      * @return {@code true} if the current cell is a top of a vertical wall
      */
-    public static boolean topVerticalCase(int i, int j, MazeGenerator generator) {
-        if (isEdge(i, j, generator)) {
+    public static boolean topVerticalCase(int i, int j, MazeGrid grid) {
+        if (isEdge(i, j, grid)) {
             return false;
         }
         return
-            generator.grid.get(i).get(j).getCellType().isWall() &&
-                generator.grid.get(i - 1).get(j).getCellType().isWalkable() &&
-                generator.grid.get(i + 1).get(j).getCellType().isWall();
+            grid.get(i, j).isWall() &&
+                grid.get(i - 1, j).isWalkable() &&
+                grid.get(i + 1, j).isWall();
 
     }
 
@@ -52,69 +52,69 @@ public final class GenerationCases {
     /**
      * Checks if the current cell is a single wall surrounded by walkable tiles
      *
-     * @param i         row index
-     * @param j         column index
-     * @param generator the maze generator
+     * @param i    row index
+     * @param j    column index
+     * @param grid the maze grid
      * @return {@code true} if the single wall case is satisfied
      */
-    public static boolean singleWallCase(int i, int j, MazeGenerator generator) {
-        if (isEdge(i, j, generator)) {
+    public static boolean singleWallCase(int i, int j, MazeGrid grid) {
+        if (isEdge(i, j, grid)) {
             return false;
         }
         return
-            generator.grid.get(i).get(j).getCellType().isWall() &&
-                generator.grid.get(i - 1).get(j).getCellType().isWalkable() &&
-                generator.grid.get(i + 1).get(j).getCellType().isWalkable() &&
-                generator.grid.get(i).get(j + 1).getCellType().isWalkable() &&
-                generator.grid.get(i).get(j - 1).getCellType().isWalkable();
+            grid.get(i, j).isWall() &&
+                grid.get(i - 1, j).isWalkable() &&
+                grid.get(i + 1, j).isWalkable() &&
+                grid.get(i, j + 1).isWalkable() &&
+                grid.get(i, j - 1).isWalkable();
     }
 
 
     /**
      * Checks if the current cell is a vertical wall, i.e. the cell is a wall and the cell above and below are walls
      *
-     * @param i         row index
-     * @param j         column index
-     * @param generator the maze generator
+     * @param i    row index
+     * @param j    column index
+     * @param grid the maze grid
      * @return {@code true} if the current cell is a vertical wall
      */
-    public static boolean verticalWallCase(int i, int j, MazeGenerator generator) {
-        if (i == generator.height - 1) {
+    public static boolean verticalWallCase(int i, int j, MazeGrid grid) {
+        if (i == grid.height - 1) {
             return false;
         }
 
         /// Check if there is a wall below or wall on top and border below
         if (i == 0 &&
-            generator.grid.get(i).get(j).getCellType().isWall() &&
-            generator.grid.get(i + 1).get(j).getCellType().isWall()) {
+            grid.get(i, j).isWall() &&
+            grid.get(i + 1, j).isWall()) {
             return true;
         }
         if (i == 0) {
             return false;
         }
         ///  Check if there is a wall below and above
-        return generator.grid.get(i).get(j).getCellType().isWall() &&
-            generator.grid.get(i + 1).get(j).getCellType().isWall() &&
-            generator.grid.get(i - 1).get(j).getCellType().isWall();
+        return grid.get(i, j).isWall() &&
+            grid.get(i + 1, j).isWall() &&
+            grid.get(i - 1, j).isWall();
     }
 
     /**
      * Checks if the current cell has any surrounding walls
      *
-     * @param i         row index
-     * @param j         column index
-     * @param generator the maze generator
+     * @param i    row index
+     * @param j    column index
+     * @param grid the maze grid
      * @return {@code true} if the current cell has any surrounding walls
      */
-    public static boolean hasAnySurroundingWall(int i, int j, MazeGenerator generator) {
-        if (isEdge(i, j, generator)) {
+    public static boolean hasAnySurroundingWall(int i, int j, MazeGrid grid) {
+        if (isEdge(i, j, grid)) {
             return false;
         }
         return
-            generator.grid.get(i - 1).get(j).getCellType().isWall() ||
-                generator.grid.get(i + 1).get(j).getCellType().isWall() ||
-                generator.grid.get(i).get(j + 1).getCellType().isWall() ||
-                generator.grid.get(i).get(j - 1).getCellType().isWall();
+            grid.get(i - 1, j).isWall() ||
+                grid.get(i + 1, j).isWall() ||
+                grid.get(i, j + 1).isWall() ||
+                grid.get(i, j - 1).isWall();
     }
 
     /**
@@ -126,23 +126,26 @@ public final class GenerationCases {
      *     <li>Bottom wall</li>
      * </ol>
      *
-     * @param i         the row index to begin the search
-     * @param j         the column index to begin the search
-     * @param generator the maze generator used to define the structure of the maze
+     * @param i    the row index to begin the search
+     * @param j    the column index to begin the search
+     * @param row  the row of the cell in the whole maze, differs from {@code i} if the grid is a window of a
+     *             streamed maze
+     * @param grid the maze grid used to define the structure of the maze, or a window containing the rows around
+     *             the cell
      * @return the first wall {@link GeneratorCell} encountered or {@code null} if no wall cell is found
      */
-    public static GeneratorCell getFirstSurroundingWall(int i, int j, MazeGenerator generator) {
-        if (i - 1 > 0 && generator.grid.get(i - 1).get(j).getCellType().isWall()) {
-            return generator.grid.get(i - 1).get(j);
+    public static GeneratorCell getFirstSurroundingWall(int i, int j, int row, MazeGrid grid) {
+        if (row - 1 > 0 && i - 1 >= 0 && grid.get(i - 1, j).isWall()) {
+            return grid.cell(i - 1, j);
         }
-        if (j - 1 > 0 && generator.grid.get(i).get(j - 1).getCellType().isWall()) {
-            return generator.grid.get(i).get(j - 1);
+        if (j - 1 > 0 && grid.get(i, j - 1).isWall()) {
+            return grid.cell(i, j - 1);
         }
-        if (j + 1 < generator.width && generator.grid.get(i).get(j + 1).getCellType().isWall()) {
-            return generator.grid.get(i).get(j + 1);
+        if (j + 1 < grid.width && grid.get(i, j + 1).isWall()) {
+            return grid.cell(i, j + 1);
         }
-        if (i + 1 < generator.height && generator.grid.get(i + 1).get(j).getCellType().isWall()) {
-            return generator.grid.get(i + 1).get(j);
+        if (i + 1 < grid.height && grid.get(i + 1, j).isWall()) {
+            return grid.cell(i + 1, j);
         }
         return null;
     }
@@ -157,23 +160,26 @@ public final class GenerationCases {
      *     <li>Bottom wall</li>
      * </ol>
      *
-     * @param i         the row index to begin the search
-     * @param j         the column index to begin the search
-     * @param generator the maze generator used to define the structure of the maze
+     * @param i    the row index to begin the search
+     * @param j    the column index to begin the search
+     * @param row  the row of the cell in the whole maze, differs from {@code i} if the grid is a window of a
+     *             streamed maze
+     * @param grid the maze grid used to define the structure of the maze, or a window containing the rows around
+     *             the cell
      * @return the first walkable {@link GeneratorCell} encountered or {@code null} if no walkable cell is found
      */
-    public static GeneratorCell getFirstSurroundingPath(int i, int j, MazeGenerator generator) {
-        if (i - 1 > 0 && generator.grid.get(i - 1).get(j).getCellType().isPath()) {
-            return generator.grid.get(i - 1).get(j);
+    public static GeneratorCell getFirstSurroundingPath(int i, int j, int row, MazeGrid grid) {
+        if (row - 1 > 0 && i - 1 >= 0 && grid.get(i - 1, j).isPath()) {
+            return grid.cell(i - 1, j);
         }
-        if (j - 1 > 0 && generator.grid.get(i).get(j - 1).getCellType().isPath()) {
-            return generator.grid.get(i).get(j - 1);
+        if (j - 1 > 0 && grid.get(i, j - 1).isPath()) {
+            return grid.cell(i, j - 1);
         }
-        if (j + 1 < generator.width && generator.grid.get(i).get(j + 1).getCellType().isPath()) {
-            return generator.grid.get(i).get(j + 1);
+        if (j + 1 < grid.width && grid.get(i, j + 1).isPath()) {
+            return grid.cell(i, j + 1);
         }
-        if (i + 1 < generator.height && generator.grid.get(i + 1).get(j).getCellType().isPath()) {
-            return generator.grid.get(i + 1).get(j);
+        if (i + 1 < grid.height && grid.get(i + 1, j).isPath()) {
+            return grid.cell(i + 1, j);
         }
         return null;
     }
@@ -5,9 +5,9 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
 import com.badlogic.gdx.physics.box2d.World;
@@ -18,6 +18,7 @@ import de.tum.cit.fop.maze.Globals;
 import de.tum.cit.fop.maze.entities.Enemy;
 import de.tum.cit.fop.maze.entities.EnemyType;
 import de.tum.cit.fop.maze.entities.EntityPathfinder;
+import de.tum.cit.fop.maze.entities.HierarchicalPathfinder;
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.entities.tile.Collectable;
 import de.tum.cit.fop.maze.entities.tile.LootContainer;
@@ -25,7 +26,9 @@ import de.tum.cit.fop.maze.entities.tile.TileEntityContactListener;
 import de.tum.cit.fop.maze.entities.tile.Torch;
 import de.tum.cit.fop.maze.essentials.*;
 import de.tum.cit.fop.maze.hud.HUD;
+import de.tum.cit.fop.maze.level.worldgen.MazeAlgorithmType;
 import de.tum.cit.fop.maze.level.worldgen.MazeGenerator;
+import de.tum.cit.fop.maze.level.worldgen.StreamingMazeGenerator;
 import de.tum.cit.fop.maze.menu.Menu;
 import de.tum.cit.fop.maze.menu.MenuState;
 import de.tum.cit.fop.maze.menu.PlayGameScreen;
@@ -59,10 +62,18 @@ public class LevelScreen implements Screen {
     public transient final SpriteBatch batch;
     public transient final RayHandler rayHandler;
     public transient final EntityPathfinder pathfinder = new EntityPathfinder();
+    public transient final HierarchicalPathfinder hierarchicalPathfinder = new HierarchicalPathfinder(pathfinder);
+    public transient final LineOfSight lineOfSight = new LineOfSight();
+    public transient final LightManager lightManager;
     /// Box2D world
     public transient final World world;
     private final LevelData levelData = new LevelData();
     private transient final Box2DDebugRenderer debugRenderer = new Box2DDebugRenderer();
+    /// Font of the frame counters drawn in {@code DEBUG} mode, created on first use
+    private transient BitmapFont debugFont;
+    private transient final Matrix4 debugProjection = new Matrix4();
+    private transient final Matrix4 batchProjection = new Matrix4();
+    private transient final StringBuilder debugStats = new StringBuilder();
     private transient final PauseScreen pauseScreen;
     private transient final Stage stage;
     public Player player;
@@ -74,7 +85,7 @@ public class LevelScreen implements Screen {
     public transient HUD hud;
     public final transient ReentrantLock worldLock = new ReentrantLock();
     transient Random random = new Random();
-    private transient TiledMapRenderer tiledMapRenderer;
+    private transient ChunkedMapRenderer mapRenderer;
     private transient boolean gameOver;
     private transient float accumulator = 0;
     private transient boolean needsRestoring;
@@ -114,6 +125,7 @@ public class LevelScreen implements Screen {
         if (Globals.FULLBRIGHT) lightColor = Color.WHITE;
         rayHandler.setAmbientLight(lightColor);
         rayHandler.setBlurNum(33);
+        lightManager = new LightManager(rayHandler);
 
         w = DEFAULT_SCREEN_WIDTH_WINDOWED / PPM;
         h = DEFAULT_SCREEN_HEIGHT_WINDOWED / PPM;
@@ -138,10 +150,34 @@ public class LevelScreen implements Screen {
      * @param seed The seed to use for the random number generator
      */
     public LevelScreen(long seed) {
+        this(seed, MazeAlgorithmType.WILSON);
+    }
+
+    /**
+     * Create a new level screen with a given seed and maze carving algorithm
+     *
+     * @param seed          The seed to use for the random number generator
+     * @param algorithmType The algorithm carving the walls of the maze
+     */
+    public LevelScreen(long seed, MazeAlgorithmType algorithmType) {
         this();
         this.needsRestoring = false;
         this.random = new Random(seed);
-        generate();
+        generate(seed, algorithmType);
+        init();
+    }
+
+    /**
+     * Create a new level screen with a streamed maze. The level is playable as soon as the first rows are built,
+     * the rest of the rows are built during the following frames.
+     *
+     * @param generator The streaming maze generator
+     */
+    public LevelScreen(StreamingMazeGenerator generator) {
+        this();
+        this.needsRestoring = false;
+        this.random = generator.getRandom();
+        map = new TileMap(generator);
         init();
     }
 
@@ -281,6 +317,8 @@ public class LevelScreen implements Screen {
      */
     public void saveGame() {
         if (endGame) return;
+        /// Saves only restore complete maps
+        map.buildAllBands();
         try {
             SaveManager.saveGame(levelIndex);
         } catch (IOException e) {
@@ -297,12 +335,14 @@ public class LevelScreen implements Screen {
         /// Render the game if not paused
         levelData.addPlaytime(delta);
         worldLock.lock();
+        if (!map.isComplete()) {
+            map.buildNextBand();
+        }
         doPhysicsStep(delta);
         worldLock.unlock();
 
         DebugRenderer.getInstance().begin();
-        tiledMapRenderer.setView(camera);
-        tiledMapRenderer.render();
+        mapRenderer.render(camera);
 
         camera.update();
 
@@ -315,13 +355,42 @@ public class LevelScreen implements Screen {
         player.renderEntity(delta);
         batch.end();
 
+        lightManager.update(camera, player.getPosition());
         rayHandler.setCombinedMatrix(camera);
         rayHandler.updateAndRender();
         hud.render(delta);
-        if (Globals.DEBUG) debugRenderer.render(world, camera.combined);
+        if (Globals.DEBUG) {
+            debugRenderer.render(world, camera.combined);
+            renderDebugStats();
+        }
         DebugRenderer.getInstance().end();
     }
 
+    /**
+     * Draws the counters of the last frame of the {@link LightManager} and the enemy AI in the bottom left corner
+     */
+    private void renderDebugStats() {
+        if (debugFont == null) {
+            debugFont = new BitmapFont();
+        }
+        debugStats.setLength(0);
+        debugStats.append("Lights active: ").append(lightManager.getActiveCount())
+            .append('/').append(lightManager.getLightCount())
+            .append(", rays cast: ").append(lightManager.getRaysCast())
+            .append("\nEnemies visible: ").append(enemyManager.getTierCount(EnemyManager.AiTier.VISIBLE))
+            .append(", near: ").append(enemyManager.getTierCount(EnemyManager.AiTier.NEAR))
+            .append(", asleep: ").append(enemyManager.getTierCount(EnemyManager.AiTier.ASLEEP))
+            .append("\nVision checks: ").append(enemyManager.getVisionChecks());
+        /// The batch is shared with the HUD and the pause screen, its projection is restored afterwards
+        batchProjection.set(batch.getProjectionMatrix());
+        debugProjection.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.setProjectionMatrix(debugProjection);
+        batch.begin();
+        debugFont.draw(batch, debugStats, 10, 10 + 3 * debugFont.getLineHeight());
+        batch.end();
+        batch.setProjectionMatrix(batchProjection);
+    }
+
     @Override
     public void resize(int width, int height) {
         pauseScreen.resize(width, height);
@@ -350,6 +419,7 @@ public class LevelScreen implements Screen {
 
     @Override
     public void dispose() {
+        mapRenderer.dispose();
         map.dispose();
         player.dispose();
         enemyManager.dispose();
@@ -358,11 +428,14 @@ public class LevelScreen implements Screen {
         rayHandler.dispose();
         world.dispose();
         debugRenderer.dispose();
+        if (debugFont != null) {
+            debugFont.dispose();
+        }
         instance = null;
     }
 
-    private void generate() {
-        map = new TileMap(35, 35, random);
+    private void generate(long seed, MazeAlgorithmType algorithmType) {
+        map = new TileMap(35, 35, seed, random, algorithmType);
     }
 
     private void generate(MazeGenerator generator) {
@@ -382,8 +455,10 @@ public class LevelScreen implements Screen {
      * </p>
      */
     public void init() {
-        tiledMapRenderer = new OrthogonalTiledMapRenderer(map.getMap(), MPP * Globals.TILEMAP_SCALE);
+        mapRenderer = new ChunkedMapRenderer(map, MPP * Globals.TILEMAP_SCALE);
+        lightManager.setOccupancyGrid(new LightOccupancyGrid(map.getNavigationGrid(), lineOfSight));
         if (needsRestoring) {
+            this.tileEntityManager.setNavigationGrid(map.getNavigationGrid());
             this.tileEntityManager.restore();
             this.enemyManager.restore();
             this.map.restore();
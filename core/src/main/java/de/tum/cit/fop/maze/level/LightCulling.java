@@ -0,0 +1,150 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import de.tum.cit.fop.maze.Globals;
+
+import java.util.Collection;
+
+/**
+ * <h2>Light culling</h2>
+ * <p>Decides which static lights of the {@link LightManager} are culled and with which level of detail the others
+ * are baked, without depending on the lights themselves. The static lights are kept in a {@link SpatialHash} by their
+ * position, the caller keeps their state, such as whether they are lit or dirty.</p>
+ * <p>Lights do not need an OpenGL context here, so the decisions can be measured on their own.</p>
+ *
+ * @param <T> the type of the static lights
+ */
+public final class LightCulling<T> {
+    /// Largest radius of a static light, lights further away from the camera view cannot reach it
+    public static final float MAX_STATIC_RADIUS = Math.max(Globals.TORCH_LIGHT_RADIUS, Globals.TRAP_LIGHT_RADIUS);
+    /// Hard shadows are kept until the player is this much further away than {@code LIGHT_HARD_SHADOW_DISTANCE}
+    private static final float HARD_SHADOW_HYSTERESIS = 1.25f;
+
+    /// Static lights by their position
+    private final SpatialHash<T> staticLights = new SpatialHash<>(256);
+    private float viewX0, viewY0, viewX1, viewY1;
+
+    /**
+     * Adds a static light, it must not move
+     *
+     * @param light the light
+     * @param x     the x coordinate of the light in meters
+     * @param y     the y coordinate of the light in meters
+     */
+    public void insert(T light, float x, float y) {
+        staticLights.insert(light, x, y);
+    }
+
+    /**
+     * @param light the static light to remove
+     */
+    public void remove(T light) {
+        staticLights.remove(light);
+    }
+
+    /**
+     * @return the number of static lights
+     */
+    public int size() {
+        return staticLights.size();
+    }
+
+    /**
+     * Sets the camera view the lights are culled to
+     *
+     * @param camera the camera of the level
+     */
+    public void setView(OrthographicCamera camera) {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        viewX0 = camera.position.x - halfWidth;
+        viewY0 = camera.position.y - halfHeight;
+        viewX1 = camera.position.x + halfWidth;
+        viewY1 = camera.position.y + halfHeight;
+    }
+
+    /**
+     * Collects the static lights that may reach the camera view, check them with
+     * {@link #reachesView(float, float, float)}
+     *
+     * @param result the collection to add the lights to
+     * @return {@code result}
+     */
+    public <C extends Collection<? super T>> C queryView(C result) {
+        return staticLights.queryRectangle(
+            viewX0 - MAX_STATIC_RADIUS, viewY0 - MAX_STATIC_RADIUS,
+            viewX1 + MAX_STATIC_RADIUS, viewY1 + MAX_STATIC_RADIUS,
+            result
+        );
+    }
+
+    /**
+     * Collects the static lights that may reach a point, their meshes have to be baked again when an occluder at
+     * the point changed
+     *
+     * @param x      the x coordinate of the point in meters
+     * @param y      the y coordinate of the point in meters
+     * @param result the collection to add the lights to
+     * @return {@code result}
+     */
+    public <C extends Collection<? super T>> C queryReaching(float x, float y, C result) {
+        return staticLights.queryRange(x, y, MAX_STATIC_RADIUS, result);
+    }
+
+    /**
+     * @param x        the x coordinate of the light in meters
+     * @param y        the y coordinate of the light in meters
+     * @param distance the radius of the light in meters
+     * @return {@code true} if the circle of the light overlaps the camera view
+     */
+    public boolean reachesView(float x, float y, float distance) {
+        float dx = x - Math.max(viewX0, Math.min(x, viewX1));
+        float dy = y - Math.max(viewY0, Math.min(y, viewY1));
+        return dx * dx + dy * dy <= distance * distance;
+    }
+
+    /**
+     * @param x        the x coordinate of the light in meters
+     * @param y        the y coordinate of the light in meters
+     * @param distance the radius of the light in meters
+     * @return the part of the camera view covered by the bounding square of the light, between {@code 0} and
+     *         {@code 1}
+     */
+    public float coverage(float x, float y, float distance) {
+        float width = Math.min(x + distance, viewX1) - Math.max(x - distance, viewX0);
+        float height = Math.min(y + distance, viewY1) - Math.max(y - distance, viewY0);
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        return width * height / ((viewX1 - viewX0) * (viewY1 - viewY0));
+    }
+
+    /**
+     * @param playerDistance the distance between the light and the player in meters
+     * @param hard           {@code true} if the light casts hard shadows so far
+     * @return {@code true} if the light casts hard shadows
+     */
+    public static boolean isHard(float playerDistance, boolean hard) {
+        return playerDistance <= Globals.LIGHT_HARD_SHADOW_DISTANCE * (hard ? HARD_SHADOW_HYSTERESIS : 1);
+    }
+
+    /**
+     * @param coverage the part of the camera view covered by the light
+     * @param hard     {@code true} if the light casts hard shadows
+     * @return the number of rays of the light
+     */
+    public static int rayCount(float coverage, boolean hard) {
+        int rays;
+        if (coverage >= 0.5f) {
+            rays = Globals.RAY_AMOUNT;
+        } else if (coverage >= 0.2f) {
+            rays = Globals.RAY_AMOUNT / 2;
+        } else {
+            rays = Globals.RAY_AMOUNT / 4;
+        }
+        if (!hard) {
+            rays = Math.min(rays, Globals.RAY_AMOUNT / 2);
+        }
+        return Math.max(Globals.LIGHT_MIN_RAYS, rays);
+    }
+}
@@ -0,0 +1,418 @@
+package de.tum.cit.fop.maze.level;
+
+import box2dLight.Light;
+import box2dLight.PointLight;
+import box2dLight.RayHandler;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.Globals;
+import de.tum.cit.fop.maze.essentials.AbsolutePoint;
+import de.tum.cit.fop.maze.essentials.BodyBits;
+
+import java.util.ArrayList;
+
+/**
+ * <h2>Light manager</h2>
+ * <p>Level of detail of the lights of the {@link RayHandler}. The {@code RayHandler} casts the rays of every active
+ * light in every frame unless the light is static, a static light only casts its rays again when it is marked
+ * dirty.</p>
+ * <ul>
+ *     <li>lights are only active while they are lit and their radius reaches the camera view, all other lights are
+ *     culled</li>
+ *     <li>static lights, such as the lights of torches and traps, get fewer rays the less of the screen they cover,
+ *     the number of rays is fixed when a light is created, so the light is recreated when it changes</li>
+ *     <li>static lights near the player cast hard shadows, lights further away soft shadows with at most half of
+ *     the rays, their blurred edges hide the coarser shadows</li>
+ *     <li>{@link #invalidate(float, float)} marks the static lights around an occluder that changed as dirty, so that
+ *     their meshes are recomputed once in the next frame</li>
+ * </ul>
+ * <p>The decisions which static lights are culled and how detailed they are baked are made by the
+ * {@link LightCulling}. Static lights are registered with their position, they must not move. Dynamic lights, such
+ * as lights attached to bodies, are only culled. The rays cast per frame are counted, see {@link #getRaysCast()}.</p>
+ * <p>Lit lights are stamped into a {@link LightOccupancyGrid}, culled lights included, so that {@link #isLit(float,
+ * float)} answers without the light polygons. A light is only restamped when it is lit or extinguished, its radius
+ * grows or shrinks by half a cell, it moves to another cell or an occluder around it changes.</p>
+ * <p>The manager is used by the render thread only.</p>
+ */
+public final class LightManager {
+    private final RayHandler rayHandler;
+    /// Static lights by their position, and the culling and level of detail decisions
+    private final LightCulling<Handle> culling = new LightCulling<>();
+    private final ArrayList<Handle> dynamicLights = new ArrayList<>();
+    /// Lights activated in the last update
+    private ArrayList<Handle> active = new ArrayList<>();
+    private ArrayList<Handle> nextActive = new ArrayList<>();
+    private final ArrayList<Handle> query = new ArrayList<>();
+    /// Lights to restamp into the occupancy grid in the next update
+    private final ArrayList<Handle> restamps = new ArrayList<>();
+    private LightOccupancyGrid occupancy;
+    private long frame;
+    private int raysCast;
+
+    /**
+     * @param rayHandler the ray handler the lights are created in
+     */
+    public LightManager(RayHandler rayHandler) {
+        this.rayHandler = rayHandler;
+    }
+
+    /**
+     * Sets the occupancy grid of the map, lit lights are stamped into it from the next update on
+     *
+     * @param occupancy the empty occupancy grid of the map
+     */
+    public void setOccupancyGrid(LightOccupancyGrid occupancy) {
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * @return the occupancy grid of the map
+     * @throws IllegalStateException if the map has not set its grid yet
+     */
+    public LightOccupancyGrid getOccupancyGrid() {
+        if (occupancy == null) {
+            throw new IllegalStateException("Light occupancy grid is not set");
+        }
+        return occupancy;
+    }
+
+    /**
+     * Checks if any lit light reaches the maze cell of the point, as of the last update
+     *
+     * @param x the x coordinate in meters
+     * @param y the y coordinate in meters
+     * @return {@code true} if the cell of the point is lit
+     * @throws IllegalStateException if the map has not set its grid yet
+     */
+    public boolean isLit(float x, float y) {
+        return getOccupancyGrid().isLit(x, y);
+    }
+
+    /**
+     * Registers a light of a static tile entity, the light is unlit until {@link #setLit(Handle, boolean)}.
+     * The light may be recreated with another number of rays, it has to be accessed through
+     * {@link Handle#getLight()}.
+     *
+     * @param light the light, filtered like all lights of the level
+     * @param x     the x coordinate of the light in meters
+     * @param y     the y coordinate of the light in meters
+     * @return the handle of the light
+     */
+    public Handle register(PointLight light, float x, float y) {
+        Handle handle = new Handle(light, false);
+        light.setActive(false);
+        culling.insert(handle, x, y);
+        return handle;
+    }
+
+    /**
+     * Registers a light that moves, the light is unlit until {@link #setLit(Handle, boolean)}
+     *
+     * @param light the light
+     * @return the handle of the light
+     */
+    public Handle registerDynamic(Light light) {
+        Handle handle = new Handle(light, true);
+        light.setActive(false);
+        dynamicLights.add(handle);
+        return handle;
+    }
+
+    /**
+     * Removes the light from the manager, the light itself is not removed from the {@code RayHandler}
+     *
+     * @param handle the handle of the light
+     */
+    public void unregister(Handle handle) {
+        if (handle.dynamic) {
+            dynamicLights.remove(handle);
+        } else {
+            culling.remove(handle);
+        }
+        active.remove(handle);
+        restamps.remove(handle);
+        handle.queued = false;
+        handle.lit = false;
+        handle.light.setActive(false);
+        if (occupancy != null) {
+            occupancy.remove(handle.litCells);
+        }
+        handle.stamped = false;
+    }
+
+    /**
+     * Lights or extinguishes the light, a lit light is activated immediately unless it was culled in this frame
+     *
+     * @param handle the handle of the light
+     * @param lit    {@code true} if the light shines
+     */
+    public void setLit(Handle handle, boolean lit) {
+        if (handle.lit == lit) {
+            return;
+        }
+        handle.lit = lit;
+        handle.dirty = true;
+        queueRestamp(handle);
+        boolean visible = handle.dynamic || handle.visibleFrame == frame;
+        handle.light.setActive(lit && visible);
+        if (lit && visible) {
+            active.add(handle);
+        }
+    }
+
+    /**
+     * Changes the radius of the light, the light is counted as dirty
+     *
+     * @param handle   the handle of the light
+     * @param distance the radius in meters
+     */
+    public void setDistance(Handle handle, float distance) {
+        handle.light.setDistance(distance);
+        handle.dirty = true;
+        queueRestamp(handle);
+    }
+
+    /**
+     * Marks the static lights that may reach the point as dirty, called when an occluder at the point changed
+     *
+     * @param x the x coordinate of the occluder in meters
+     * @param y the y coordinate of the occluder in meters
+     */
+    public void invalidate(float x, float y) {
+        query.clear();
+        culling.queryReaching(x, y, query);
+        for (Handle handle : query) {
+            markDirty(handle);
+            handle.occludersChanged = true;
+            queueRestamp(handle);
+        }
+    }
+
+    private void queueRestamp(Handle handle) {
+        if (!handle.queued) {
+            handle.queued = true;
+            restamps.add(handle);
+        }
+    }
+
+    /**
+     * Updates the cells of the light in the occupancy grid if its state, radius, cell or occluders changed
+     */
+    private void restamp(Handle handle) {
+        if (!handle.lit) {
+            if (handle.stamped) {
+                occupancy.remove(handle.litCells);
+                handle.stamped = false;
+            }
+            return;
+        }
+        Light light = handle.light;
+        float x = getX(light);
+        float y = getY(light);
+        int cx = LightOccupancyGrid.cell(x);
+        int cy = LightOccupancyGrid.cell(y);
+        /// Radius in steps of half a cell
+        int radius = (int) (light.getDistance() * 2 / LightOccupancyGrid.CELL_METERS);
+        if (handle.stamped && !handle.occludersChanged
+            && handle.stampX == cx && handle.stampY == cy && handle.stampRadius == radius) {
+            return;
+        }
+        occupancy.remove(handle.litCells);
+        occupancy.add(x, y, light.getDistance(), handle.litCells);
+        handle.stamped = true;
+        handle.occludersChanged = false;
+        handle.stampX = cx;
+        handle.stampY = cy;
+        handle.stampRadius = radius;
+    }
+
+    private static void markDirty(Handle handle) {
+        handle.dirty = true;
+        /// Setting a light static marks its mesh as dirty, it is recomputed in the next update of the RayHandler
+        if (handle.light.isStaticLight()) {
+            handle.light.setStaticLight(true);
+        }
+    }
+
+    /**
+     * Activates the lit lights reaching the camera view with their level of detail and deactivates all others,
+     * called once per frame before the {@code RayHandler} is updated
+     *
+     * @param camera the camera of the level
+     * @param player the position of the player
+     */
+    public void update(OrthographicCamera camera, AbsolutePoint player) {
+        frame++;
+        raysCast = 0;
+        culling.setView(camera);
+        query.clear();
+        culling.queryView(query);
+        nextActive.clear();
+        int rebuilds = 0;
+        for (Handle handle : query) {
+            if (!reachesView(handle.light)) {
+                continue;
+            }
+            handle.visibleFrame = frame;
+            if (!handle.lit) {
+                continue;
+            }
+            if (updateDetail(handle, player, rebuilds < Globals.LIGHT_MAX_REBUILDS_PER_FRAME)) {
+                rebuilds++;
+            }
+            activate(handle);
+        }
+        for (Handle handle : dynamicLights) {
+            if (handle.lit && reachesView(handle.light)) {
+                handle.visibleFrame = frame;
+                activate(handle);
+            }
+        }
+        for (Handle handle : active) {
+            if (handle.visibleFrame != frame || !handle.lit) {
+                handle.light.setActive(false);
+            }
+        }
+        ArrayList<Handle> swap = active;
+        active = nextActive;
+        nextActive = swap;
+        if (occupancy != null) {
+            for (Handle handle : dynamicLights) {
+                if (handle.lit) {
+                    queueRestamp(handle);
+                }
+            }
+            for (Handle handle : restamps) {
+                handle.queued = false;
+                restamp(handle);
+            }
+            restamps.clear();
+        }
+    }
+
+    private void activate(Handle handle) {
+        Light light = handle.light;
+        light.setActive(true);
+        nextActive.add(handle);
+        if (!light.isStaticLight() || handle.dirty) {
+            raysCast += light.getRayNum();
+        }
+        handle.dirty = false;
+    }
+
+    /**
+     * @return {@code true} if the circle of the light overlaps the camera view
+     */
+    private boolean reachesView(Light light) {
+        return culling.reachesView(getX(light), getY(light), light.getDistance());
+    }
+
+    /// Inactive lights do not follow their body, the body is where the light will be once it is active
+    private static float getX(Light light) {
+        Body body = light.getBody();
+        return body != null ? body.getPosition().x : light.getX();
+    }
+
+    private static float getY(Light light) {
+        Body body = light.getBody();
+        return body != null ? body.getPosition().y : light.getY();
+    }
+
+    /**
+     * Adjusts the shadows and the number of rays of a static light
+     *
+     * @param rebuild {@code true} if the light may be recreated with another number of rays in this frame
+     * @return {@code true} if the light was recreated
+     */
+    private boolean updateDetail(Handle handle, AbsolutePoint player, boolean rebuild) {
+        Light light = handle.light;
+        float playerDistance = Vector2.dst(player.x(), player.y(), light.getX(), light.getY());
+        handle.hard = LightCulling.isHard(playerDistance, handle.hard);
+        if (light.isSoft() == handle.hard) {
+            light.setSoft(!handle.hard);
+            markDirty(handle);
+        }
+        int rays = LightCulling.rayCount(
+            culling.coverage(light.getX(), light.getY(), light.getDistance()), handle.hard
+        );
+        if (rays == light.getRayNum() || !rebuild) {
+            return false;
+        }
+        PointLight copy = new PointLight(
+            rayHandler, rays, new Color(light.getColor()), light.getDistance(), light.getX(), light.getY()
+        );
+        copy.setContactFilter(BodyBits.LIGHT, (short) 0, BodyBits.LIGHT_MASK);
+        copy.setSoft(light.isSoft());
+        copy.setXray(light.isXray());
+        copy.setStaticLight(light.isStaticLight());
+        copy.setActive(light.isActive());
+        light.remove();
+        handle.light = copy;
+        handle.dirty = true;
+        return true;
+    }
+
+    /**
+     * @return the number of rays cast by the lights of the last update, static lights only count when their mesh is
+     *         recomputed
+     */
+    public int getRaysCast() {
+        return raysCast;
+    }
+
+    /**
+     * @return the number of lights activated by the last update
+     */
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * @return the number of registered lights
+     */
+    public int getLightCount() {
+        return culling.size() + dynamicLights.size();
+    }
+
+    /**
+     * Light registered with the manager
+     */
+    public static final class Handle {
+        private final boolean dynamic;
+        private Light light;
+        private boolean lit;
+        private boolean hard;
+        /// The rays of the light are cast in the next update of the RayHandler
+        private boolean dirty = true;
+        /// Frame of the last update the light reached the camera view in
+        private long visibleFrame = -1;
+        /// Cells of the occupancy grid the light was stamped into
+        private final IntArray litCells = new IntArray();
+        private boolean stamped;
+        private boolean queued;
+        private boolean occludersChanged;
+        private int stampX, stampY, stampRadius;
+
+        private Handle(Light light, boolean dynamic) {
+            this.light = light;
+            this.dynamic = dynamic;
+        }
+
+        /**
+         * @return the light, static lights are recreated when their number of rays changes
+         */
+        public Light getLight() {
+            return light;
+        }
+
+        /**
+         * @return {@code true} if the light shines
+         */
+        public boolean isLit() {
+            return lit;
+        }
+    }
+}
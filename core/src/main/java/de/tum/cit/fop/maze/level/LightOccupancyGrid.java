@@ -0,0 +1,113 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import static de.tum.cit.fop.maze.Globals.CELL_SIZE_METERS;
+
+/**
+ * <h2>Light occupancy grid</h2>
+ * <p>Coarse map of the lit parts of the level at the resolution of the maze cells, every 3x3 tile block of the map.
+ * Every cell counts the lights reaching it, so asking whether a cell is lit is a single array read and does not
+ * touch the light polygons of box2dlights.</p>
+ * <p>A light reaches a cell if the center of the cell is within the radius of the light, widened by half a cell, and
+ * the walls of the {@link NavigationGrid} do not block the line between them, see {@link LineOfSight}. A light
+ * stamps the cells it reaches when it is added and keeps them, so that removing it later restores the counts even if
+ * the walls changed in between. The {@link LightManager} restamps a light when it is lit or extinguished, its radius
+ * or its cell changes, or an occluder around it changes.</p>
+ * <p>The grid is used by the render thread only.</p>
+ */
+public final class LightOccupancyGrid {
+    /// Size of a cell in meters
+    public static final float CELL_METERS = 3 * CELL_SIZE_METERS;
+    /// Number of cell columns
+    public final int width;
+    /// Number of cell rows
+    public final int height;
+    /// Lights reaching every cell, indexed by {@code cx + cy * width}
+    private final int[] lights;
+    private final LineOfSight lineOfSight;
+
+    /**
+     * Creates a grid without lights covering a navigation grid
+     *
+     * @param grid        the navigation grid of the map
+     * @param lineOfSight the line of sight of the level, blocks the light
+     */
+    public LightOccupancyGrid(NavigationGrid grid, LineOfSight lineOfSight) {
+        this.width = (int) Math.ceil(grid.width * NavigationGrid.SAMPLE_METERS / CELL_METERS);
+        this.height = (int) Math.ceil(grid.height * NavigationGrid.SAMPLE_METERS / CELL_METERS);
+        this.lights = new int[width * height];
+        this.lineOfSight = lineOfSight;
+    }
+
+    /**
+     * @param meters a coordinate in meters
+     * @return the cell of the coordinate
+     */
+    public static int cell(float meters) {
+        return (int) Math.floor(meters / CELL_METERS);
+    }
+
+    /**
+     * @param cx the column of the cell
+     * @param cy the row of the cell
+     * @return {@code true} if any light reaches the cell, cells outside the map are dark
+     */
+    public boolean isLit(int cx, int cy) {
+        if (cx < 0 || cy < 0 || cx >= width || cy >= height) {
+            return false;
+        }
+        return lights[cx + cy * width] > 0;
+    }
+
+    /**
+     * @param x the x coordinate in meters
+     * @param y the y coordinate in meters
+     * @return {@code true} if any light reaches the cell of the point
+     */
+    public boolean isLit(float x, float y) {
+        return isLit(cell(x), cell(y));
+    }
+
+    /**
+     * Adds a light to the cells it reaches
+     *
+     * @param x      the x coordinate of the light in meters
+     * @param y      the y coordinate of the light in meters
+     * @param radius the radius of the light in meters
+     * @param cells  receives the indices of the cells the light reaches, needed to {@link #remove(IntArray)} it
+     */
+    public void add(float x, float y, float radius, IntArray cells) {
+        float reach = radius + CELL_METERS / 2;
+        int cx0 = Math.max(0, cell(x - reach));
+        int cy0 = Math.max(0, cell(y - reach));
+        int cx1 = Math.min(width - 1, cell(x + reach));
+        int cy1 = Math.min(height - 1, cell(y + reach));
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                float centerX = (cx + 0.5f) * CELL_METERS;
+                float centerY = (cy + 0.5f) * CELL_METERS;
+                float dx = centerX - x;
+                float dy = centerY - y;
+                if (dx * dx + dy * dy > reach * reach || !lineOfSight.isVisible(x, y, centerX, centerY)) {
+                    continue;
+                }
+                int index = cx + cy * width;
+                lights[index]++;
+                cells.add(index);
+            }
+        }
+    }
+
+    /**
+     * Removes a light from the cells it reached when it was added
+     *
+     * @param cells the indices of the cells filled by {@link #add(float, float, float, IntArray)}, cleared
+     */
+    public void remove(IntArray cells) {
+        for (int i = 0; i < cells.size; i++) {
+            lights[cells.get(i)]--;
+        }
+        cells.clear();
+    }
+}
@@ -0,0 +1,177 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import de.tum.cit.fop.maze.entities.Player;
+import de.tum.cit.fop.maze.essentials.AbsolutePoint;
+import de.tum.cit.fop.maze.essentials.DebugRenderer;
+
+/**
+ * <h2>Line of sight</h2>
+ * <p>Answers whether walls block the line between two points without the physics engine. The line is traversed
+ * over the samples of the {@link NavigationGrid} with the Amanatides–Woo grid traversal, visiting every sample the
+ * line crosses exactly once. Only the walls-only coverage of the grid is used, rasterized from the same wall hitboxes
+ * as the Box2D fixtures, so the result matches a raycast against the walls up to half a tile. Obstacles of tile
+ * entities, like loot containers, do not block the line.</p>
+ * <p>Results are cached per pair of source and target sample for the current frame, the line is traversed from
+ * the center of the source sample to the center of the target sample, so that the result only depends on the
+ * pair. Like a Box2D raycast, the walls the source lies in, such as the wall a torch is mounted on, do not block
+ * the line.</p>
+ * <p>The service is used by the render thread only.</p>
+ */
+public final class LineOfSight {
+    /// Slots of the cache, a power of two
+    private static final int CACHE_SIZE = 1024;
+    private static final int CACHE_PROBES = 8;
+
+    private final long[] cacheKeys = new long[CACHE_SIZE];
+    private final boolean[] cacheValues = new boolean[CACHE_SIZE];
+    /// Frame every slot was written in, slots of older frames are empty
+    private final long[] cacheFrames = new long[CACHE_SIZE];
+    private NavigationGrid grid;
+    private long frame = -1;
+    private int traversals;
+
+    /**
+     * Starts a new frame if the frame changed, the cache is emptied
+     */
+    private void update() {
+        NavigationGrid current = LevelScreen.getInstance().map.getNavigationGrid();
+        long currentFrame = Gdx.graphics.getFrameId();
+        if (current != grid) {
+            grid = current;
+            frame = currentFrame - 1;
+        }
+        if (currentFrame != frame) {
+            frame = currentFrame;
+            traversals = 0;
+        }
+    }
+
+    /**
+     * Checks if walls block the line between two points
+     *
+     * @param source the start of the line
+     * @param target the end of the line
+     * @return {@code true} if no wall lies between the samples of the points
+     */
+    public boolean isVisible(AbsolutePoint source, AbsolutePoint target) {
+        return isVisible(source.x(), source.y(), target.x(), target.y());
+    }
+
+    /**
+     * Checks if walls block the line between two points
+     *
+     * @param x0 the x coordinate of the start in meters
+     * @param y0 the y coordinate of the start in meters
+     * @param x1 the x coordinate of the end in meters
+     * @param y1 the y coordinate of the end in meters
+     * @return {@code true} if no wall lies between the samples of the points
+     */
+    public boolean isVisible(float x0, float y0, float x1, float y1) {
+        update();
+        int sx0 = (int) Math.floor(x0 / NavigationGrid.SAMPLE_METERS);
+        int sy0 = (int) Math.floor(y0 / NavigationGrid.SAMPLE_METERS);
+        int sx1 = (int) Math.floor(x1 / NavigationGrid.SAMPLE_METERS);
+        int sy1 = (int) Math.floor(y1 / NavigationGrid.SAMPLE_METERS);
+        long key = (sx0 & 0xFFFFL) | (sy0 & 0xFFFFL) << 16 | (sx1 & 0xFFFFL) << 32 | (sy1 & 0xFFFFL) << 48;
+        int slot = (int) (key ^ key >>> 29 ^ key >>> 47) * 0x9E3779B9 >>> 22;
+        for (int probe = 0; probe < CACHE_PROBES; probe++) {
+            int index = (slot + probe) & (CACHE_SIZE - 1);
+            if (cacheFrames[index] != frame) {
+                boolean visible = traverse(sx0, sy0, sx1, sy1);
+                cacheKeys[index] = key;
+                cacheValues[index] = visible;
+                cacheFrames[index] = frame;
+                return visible;
+            }
+            if (cacheKeys[index] == key) {
+                return cacheValues[index];
+            }
+        }
+        /// Cache full around the slot, not cached
+        return traverse(sx0, sy0, sx1, sy1);
+    }
+
+    private boolean isBlocked(int sx, int sy) {
+        return grid.isWall(sx, sy);
+    }
+
+    /**
+     * Amanatides–Woo traversal from the center of the source sample to the center of the target sample
+     */
+    private boolean traverse(int sx, int sy, int ex, int ey) {
+        traversals++;
+        int dx = ex - sx;
+        int dy = ey - sy;
+        int stepX = Integer.signum(dx);
+        int stepY = Integer.signum(dy);
+        /// Between sample centers the line crosses the first border after half a sample
+        float deltaX = dx == 0 ? Float.POSITIVE_INFINITY : 1f / Math.abs(dx);
+        float deltaY = dy == 0 ? Float.POSITIVE_INFINITY : 1f / Math.abs(dy);
+        float maxX = deltaX / 2;
+        float maxY = deltaY / 2;
+        /// Walls around the source do not block, as long as the line has not left them
+        boolean leaving = isBlocked(sx, sy);
+        int x = sx;
+        int y = sy;
+        for (int steps = Math.abs(dx) + Math.abs(dy); steps > 0; steps--) {
+            if (maxX < maxY) {
+                x += stepX;
+                maxX += deltaX;
+            } else {
+                y += stepY;
+                maxY += deltaY;
+            }
+            boolean blocked = isBlocked(x, y);
+            if (blocked && !leaving) {
+                return false;
+            }
+            leaving &= blocked;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the player is visible from the point, from the top, the middle or the bottom of the player
+     *
+     * @param source the point to look from
+     * @return {@code true} if walls do not hide the player from the point
+     */
+    public boolean isPlayerExposed(AbsolutePoint source) {
+        Player player = LevelScreen.getInstance().player;
+        AbsolutePoint position = player.getPosition();
+        float height = player.boundingRectangle.height();
+        boolean exposed = false;
+        /// We will track the player with 3 points on the top, middle and bottom of the player
+        for (int i = 1; i <= 3 && !exposed; ++i) {
+            float y = position.y() - height / 1.7f + height * i / 3;
+            exposed = isVisible(source.x(), source.y(), position.x(), y);
+            DebugRenderer.getInstance().drawLine(
+                source, new AbsolutePoint(position.x(), y), exposed ? Color.GREEN : Color.RED
+            );
+        }
+        return exposed;
+    }
+
+    /**
+     * Checks if the player is within the distance and visible from the point
+     *
+     * @param source    the point to look from
+     * @param rayLength the longest distance to the player
+     * @return {@code true} if the player is close enough and walls do not hide the player from the point
+     */
+    public boolean isPlayerExposed(AbsolutePoint source, float rayLength) {
+        if (source.distance(LevelScreen.getInstance().player.getPosition()) > rayLength) {
+            return false;
+        }
+        return isPlayerExposed(source);
+    }
+
+    /**
+     * @return the number of lines traversed in the current frame, lines answered from the cache are not counted
+     */
+    public int getTraversals() {
+        return traversals;
+    }
+}
@@ -0,0 +1,480 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.utils.FloatArray;
+import de.tum.cit.fop.maze.essentials.BodyBits;
+import de.tum.cit.fop.maze.essentials.BoundingRectangle;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static de.tum.cit.fop.maze.Globals.CELL_SIZE_METERS;
+
+/**
+ * <h2>Navigation grid</h2>
+ * <p>Static walkability of a {@link TileMap} for the pathfinding, sampled at half a tile. The grid is derived once
+ * from the wall hitboxes and the static {@link BodyBits#WALL} bodies of the tile entities, so that the pathfinding
+ * does not have to query Box2D, and hold the world lock, for every expanded node.</p>
+ * <p>Obstacles are rasterized into a coverage bitset. For every entity footprint a clearance layer is derived by
+ * dilating the coverage with the footprint, a lookup is then a single bit read. Coverage and clearance layers are
+ * patched in place when an obstacle is added or removed, every word is written once, so that lookups never block
+ * and always see either the old or the new value.</p>
+ * <p>Rows are indexed from the bottom of the map, samples outside the map are blocked.</p>
+ */
+public final class NavigationGrid {
+    /// Samples per tile
+    public static final int RESOLUTION = 2;
+    /// Size of a sample in meters
+    public static final float SAMPLE_METERS = CELL_SIZE_METERS / RESOLUTION;
+    /// Number of sample columns
+    public final int width;
+    /// Number of sample rows
+    public final int height;
+    /// Words per row of the bitsets
+    private final int rowWords;
+    /// Samples overlapped by any obstacle, only accessed by the writer
+    private final int[] coverage;
+    /// Samples overlapped by a wall hitbox, obstacles of the tile entities are not included
+    private final int[] wallCoverage;
+    /// Wall hitboxes {@code x0, y0, x1, y1} in meters, needed to restore the coverage below a removed obstacle
+    private final FloatArray walls = new FloatArray();
+    /// Obstacles of the tile entities
+    private final ArrayList<Obstacle> obstacles = new ArrayList<>();
+    /// Clearance layers by footprint, replaced instead of modified, republished after every patch
+    private volatile Clearance[] clearances = new Clearance[0];
+
+    /**
+     * Creates an empty grid for a map
+     *
+     * @param widthTiles  width of the map in tiles
+     * @param heightTiles height of the map in tiles
+     */
+    public NavigationGrid(int widthTiles, int heightTiles) {
+        if (widthTiles <= 0 || heightTiles <= 0) {
+            throw new IllegalArgumentException("Grid dimensions must be positive");
+        }
+        this.width = widthTiles * RESOLUTION;
+        this.height = heightTiles * RESOLUTION;
+        this.rowWords = (width + 31) >>> 5;
+        this.coverage = new int[rowWords * height];
+        this.wallCoverage = new int[rowWords * height];
+    }
+
+    /**
+     * Checks whether an entity fits at the given point. Lock-free, can be called from any thread.
+     *
+     * @param rectangle the bounding rectangle of the entity
+     * @param x         x coordinate of the center of the entity in meters
+     * @param y         y coordinate of the center of the entity in meters
+     * @return {@code true} if the bounding rectangle centered at the sample of the point overlaps no obstacle
+     */
+    public boolean isWalkable(BoundingRectangle rectangle, float x, float y) {
+        int sx = (int) Math.floor(x / SAMPLE_METERS);
+        int sy = (int) Math.floor(y / SAMPLE_METERS);
+        if (sx < 0 || sy < 0 || sx >= width || sy >= height) {
+            return false;
+        }
+        return isWalkable(clearance(rectangle), sx, sy);
+    }
+
+    /**
+     * Checks whether an entity fits at the given sample. Lock-free, can be called from any thread.
+     *
+     * @param clearance the clearance layer of the entity, see {@link #clearance(BoundingRectangle)}
+     * @param sx        column of the sample
+     * @param sy        row of the sample
+     * @return {@code true} if the footprint centered at the sample overlaps no obstacle
+     */
+    public boolean isWalkable(Clearance clearance, int sx, int sy) {
+        if (sx < 0 || sy < 0 || sx >= width || sy >= height) {
+            return false;
+        }
+        return (clearance.blocked[sy * rowWords + (sx >>> 5)] & (1 << (sx & 31))) == 0;
+    }
+
+    /**
+     * Checks whether a wall hitbox covers a sample, the obstacles of the tile entities are ignored. Lock-free, can be
+     * called from any thread.
+     *
+     * @param sx column of the sample
+     * @param sy row of the sample
+     * @return {@code true} if a wall overlaps the sample or the sample is outside the map
+     */
+    public boolean isWall(int sx, int sy) {
+        if (sx < 0 || sy < 0 || sx >= width || sy >= height) {
+            return true;
+        }
+        return (wallCoverage[sy * rowWords + (sx >>> 5)] & (1 << (sx & 31))) != 0;
+    }
+
+    /**
+     * Checks whether an entity can move along a straight line, the samples the line crosses are visited with the
+     * Amanatides–Woo traversal. Lock-free, can be called from any thread.
+     *
+     * @param clearance the clearance layer of the entity, see {@link #clearance(BoundingRectangle)}
+     * @param x0        x coordinate of the start in meters
+     * @param y0        y coordinate of the start in meters
+     * @param x1        x coordinate of the end in meters
+     * @param y1        y coordinate of the end in meters
+     * @return {@code true} if the footprint fits at every sample the line crosses
+     */
+    public boolean isSegmentWalkable(Clearance clearance, float x0, float y0, float x1, float y1) {
+        float fx = x0 / SAMPLE_METERS;
+        float fy = y0 / SAMPLE_METERS;
+        float dx = x1 / SAMPLE_METERS - fx;
+        float dy = y1 / SAMPLE_METERS - fy;
+        int sx = (int) Math.floor(fx);
+        int sy = (int) Math.floor(fy);
+        int steps = Math.abs((int) Math.floor(x1 / SAMPLE_METERS) - sx)
+            + Math.abs((int) Math.floor(y1 / SAMPLE_METERS) - sy);
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        /// Fraction of the line to the next column and row border, and between two borders
+        float deltaX = dx == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dx);
+        float deltaY = dy == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dy);
+        float maxX = dx == 0 ? Float.POSITIVE_INFINITY : (dx > 0 ? sx + 1 - fx : fx - sx) * deltaX;
+        float maxY = dy == 0 ? Float.POSITIVE_INFINITY : (dy > 0 ? sy + 1 - fy : fy - sy) * deltaY;
+        if (!isWalkable(clearance, sx, sy)) {
+            return false;
+        }
+        for (; steps > 0; steps--) {
+            if (maxX < maxY) {
+                sx += stepX;
+                maxX += deltaX;
+            } else {
+                sy += stepY;
+                maxY += deltaY;
+            }
+            if (!isWalkable(clearance, sx, sy)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the clearance layer of a footprint, the layer is built on the first request
+     *
+     * @param rectangle the bounding rectangle of the entity
+     * @return {@link Clearance} of the footprint
+     */
+    public Clearance clearance(BoundingRectangle rectangle) {
+        int halfWidth = halfExtent(rectangle.width());
+        int halfHeight = halfExtent(rectangle.height());
+        for (Clearance clearance : clearances) {
+            if (clearance.halfWidth == halfWidth && clearance.halfHeight == halfHeight) {
+                return clearance;
+            }
+        }
+        synchronized (this) {
+            for (Clearance clearance : clearances) {
+                if (clearance.halfWidth == halfWidth && clearance.halfHeight == halfHeight) {
+                    return clearance;
+                }
+            }
+            Clearance clearance = new Clearance(halfWidth, halfHeight, rowWords * height);
+            dilate(clearance, 0, 0, width - 1, height - 1);
+            Clearance[] result = Arrays.copyOf(clearances, clearances.length + 1);
+            result[clearances.length] = clearance;
+            clearances = result;
+            return clearance;
+        }
+    }
+
+    /**
+     * Adds wall hitboxes to the grid
+     *
+     * @param hitboxes {@code x, y, hx, hy} of every hitbox in cells, see {@link WallHitboxes#getHitboxes()}
+     */
+    public synchronized void addHitboxes(float[] hitboxes) {
+        if (hitboxes.length == 0) {
+            return;
+        }
+        int[] region = {width, height, -1, -1};
+        for (int k = 0; k < hitboxes.length; k += 4) {
+            float x0 = hitboxes[k] * CELL_SIZE_METERS;
+            float y0 = hitboxes[k + 1] * CELL_SIZE_METERS;
+            float x1 = x0 + hitboxes[k + 2] * CELL_SIZE_METERS;
+            float y1 = y0 + hitboxes[k + 3] * CELL_SIZE_METERS;
+            walls.add(x0, y0, x1, y1);
+            rasterize(x0, y0, x1, y1, region);
+            rasterizeWall(x0, y0, x1, y1);
+        }
+        patch(region);
+    }
+
+    /**
+     * Adds the {@link BodyBits#WALL} and {@link BodyBits#WALL_TRANSPARENT} fixtures of a static body to the grid
+     *
+     * @param body the static body
+     * @return the added {@link Obstacle}, {@code null} if the body has no blocking fixtures
+     */
+    public synchronized @Nullable Obstacle addObstacle(Body body) {
+        float x0 = Float.MAX_VALUE;
+        float y0 = Float.MAX_VALUE;
+        float x1 = -Float.MAX_VALUE;
+        float y1 = -Float.MAX_VALUE;
+        Vector2 vertex = new Vector2();
+        for (int i = 0; i < body.getFixtureList().size; i++) {
+            Fixture fixture = body.getFixtureList().get(i);
+            short categoryBits = fixture.getFilterData().categoryBits;
+            if (fixture.isSensor() || (categoryBits != BodyBits.WALL && categoryBits != BodyBits.WALL_TRANSPARENT)) {
+                continue;
+            }
+            switch (fixture.getType()) {
+                case Polygon -> {
+                    PolygonShape shape = (PolygonShape) fixture.getShape();
+                    for (int j = 0; j < shape.getVertexCount(); j++) {
+                        shape.getVertex(j, vertex);
+                        body.getTransform().mul(vertex);
+                        x0 = Math.min(x0, vertex.x);
+                        y0 = Math.min(y0, vertex.y);
+                        x1 = Math.max(x1, vertex.x);
+                        y1 = Math.max(y1, vertex.y);
+                    }
+                }
+                case Circle -> {
+                    float radius = fixture.getShape().getRadius();
+                    x0 = Math.min(x0, body.getPosition().x - radius);
+                    y0 = Math.min(y0, body.getPosition().y - radius);
+                    x1 = Math.max(x1, body.getPosition().x + radius);
+                    y1 = Math.max(y1, body.getPosition().y + radius);
+                }
+                default -> throw new IllegalStateException("Fixture type is not yet supported " + fixture.getType());
+            }
+        }
+        if (x0 > x1) {
+            return null;
+        }
+        Obstacle obstacle = new Obstacle(x0, y0, x1, y1);
+        obstacles.add(obstacle);
+        int[] region = {width, height, -1, -1};
+        rasterize(x0, y0, x1, y1, region);
+        patch(region);
+        return obstacle;
+    }
+
+    /**
+     * Removes an obstacle, e.g. a destroyed {@link de.tum.cit.fop.maze.entities.tile.LootContainer}.
+     * Only the samples below the obstacle and the clearance around them are recomputed.
+     *
+     * @param obstacle the obstacle returned by {@link #addObstacle(Body)}
+     */
+    public synchronized void removeObstacle(Obstacle obstacle) {
+        if (!obstacles.removeIf(other -> other == obstacle)) {
+            return;
+        }
+        int[] region = {width, height, -1, -1};
+        sampleRegion(obstacle.x0, obstacle.y0, obstacle.x1, obstacle.y1, region);
+        if (region[2] < region[0] || region[3] < region[1]) {
+            return;
+        }
+        for (int sy = region[1]; sy <= region[3]; sy++) {
+            clearRange(sy, region[0], region[2]);
+        }
+        /// Everything else overlapping the region is rasterized again, clipped to the region
+        float x0 = region[0] * SAMPLE_METERS;
+        float y0 = region[1] * SAMPLE_METERS;
+        float x1 = (region[2] + 1) * SAMPLE_METERS;
+        float y1 = (region[3] + 1) * SAMPLE_METERS;
+        int[] unused = {width, height, -1, -1};
+        for (int k = 0; k < walls.size; k += 4) {
+            rasterizeClipped(walls.items[k], walls.items[k + 1], walls.items[k + 2], walls.items[k + 3],
+                x0, y0, x1, y1, unused);
+        }
+        for (Obstacle other : obstacles) {
+            rasterizeClipped(other.x0, other.y0, other.x1, other.y1, x0, y0, x1, y1, unused);
+        }
+        patch(region);
+    }
+
+    /**
+     * Returns the number of samples from the center sample to the last sample overlapped by a footprint
+     *
+     * @param size the size of the footprint in meters
+     * @return the half extent in samples
+     */
+    private static int halfExtent(float size) {
+        /// A sample k samples away overlaps the footprint centered at a sample center if k < 0.5 + size / 2
+        return Math.max(0, (int) Math.ceil(0.5f + size / (2 * SAMPLE_METERS)) - 1);
+    }
+
+    private void rasterizeClipped(float x0, float y0, float x1, float y1,
+                                  float clipX0, float clipY0, float clipX1, float clipY1, int[] region) {
+        if (x1 <= clipX0 || x0 >= clipX1 || y1 <= clipY0 || y0 >= clipY1) {
+            return;
+        }
+        rasterize(Math.max(x0, clipX0), Math.max(y0, clipY0), Math.min(x1, clipX1), Math.min(y1, clipY1), region);
+    }
+
+    /**
+     * Marks every sample overlapped by the rectangle as covered and grows the region to include them
+     */
+    private void rasterize(float x0, float y0, float x1, float y1, int[] region) {
+        int[] samples = {width, height, -1, -1};
+        sampleRegion(x0, y0, x1, y1, samples);
+        for (int sy = samples[1]; sy <= samples[3]; sy++) {
+            setRange(sy, samples[0], samples[2]);
+        }
+        if (samples[2] >= samples[0] && samples[3] >= samples[1]) {
+            region[0] = Math.min(region[0], samples[0]);
+            region[1] = Math.min(region[1], samples[1]);
+            region[2] = Math.max(region[2], samples[2]);
+            region[3] = Math.max(region[3], samples[3]);
+        }
+    }
+
+    /**
+     * Marks every sample overlapped by a wall hitbox in the walls-only coverage, walls are never removed
+     */
+    private void rasterizeWall(float x0, float y0, float x1, float y1) {
+        int[] samples = {width, height, -1, -1};
+        sampleRegion(x0, y0, x1, y1, samples);
+        for (int sy = samples[1]; sy <= samples[3]; sy++) {
+            for (int w = samples[0] >>> 5; w <= samples[2] >>> 5; w++) {
+                wallCoverage[sy * rowWords + w] |= rangeMask(w, samples[0], samples[2]);
+            }
+        }
+    }
+
+    /**
+     * Computes the samples overlapped by the interior of a rectangle, clamped to the grid
+     *
+     * @param region receives {@code sx0, sy0, sx1, sy1}, inclusive, empty if {@code sx1 < sx0}
+     */
+    private void sampleRegion(float x0, float y0, float x1, float y1, int[] region) {
+        region[0] = Math.max(0, (int) Math.floor(x0 / SAMPLE_METERS));
+        region[1] = Math.max(0, (int) Math.floor(y0 / SAMPLE_METERS));
+        region[2] = Math.min(width - 1, (int) Math.ceil(x1 / SAMPLE_METERS) - 1);
+        region[3] = Math.min(height - 1, (int) Math.ceil(y1 / SAMPLE_METERS) - 1);
+    }
+
+    private void setRange(int sy, int from, int to) {
+        for (int w = from >>> 5; w <= to >>> 5; w++) {
+            coverage[sy * rowWords + w] |= rangeMask(w, from, to);
+        }
+    }
+
+    private void clearRange(int sy, int from, int to) {
+        for (int w = from >>> 5; w <= to >>> 5; w++) {
+            coverage[sy * rowWords + w] &= ~rangeMask(w, from, to);
+        }
+    }
+
+    /**
+     * @return the bits of word {@code w} inside the sample range {@code [from, to]}
+     */
+    private static int rangeMask(int w, int from, int to) {
+        int low = Math.max(from, w << 5) & 31;
+        int high = Math.min(to, (w << 5) + 31) & 31;
+        return (-1 >>> (31 - high)) & (-1 << low);
+    }
+
+    /**
+     * Updates every clearance layer around the changed coverage region and republishes the layers
+     *
+     * @param region {@code sx0, sy0, sx1, sy1} of the changed coverage, inclusive
+     */
+    private void patch(int[] region) {
+        if (region[2] < region[0] || region[3] < region[1]) {
+            return;
+        }
+        Clearance[] layers = clearances;
+        for (Clearance clearance : layers) {
+            dilate(clearance, region[0], region[1], region[2], region[3]);
+        }
+        /// The volatile write orders the patched words before the following lookups
+        clearances = layers.clone();
+    }
+
+    /**
+     * Recomputes the clearance layer for every sample whose footprint overlaps the changed coverage region
+     */
+    private void dilate(Clearance clearance, int sx0, int sy0, int sx1, int sy1) {
+        int w0 = Math.max(0, sx0 - clearance.halfWidth) >>> 5;
+        int w1 = Math.min(width - 1, sx1 + clearance.halfWidth) >>> 5;
+        /// Horizontal pass over the changed rows
+        for (int sy = sy0; sy <= sy1; sy++) {
+            for (int w = w0; w <= w1; w++) {
+                int bits = 0;
+                for (int d = -clearance.halfWidth; d <= clearance.halfWidth; d++) {
+                    bits |= coverageBits(sy, (w << 5) + d);
+                }
+                clearance.horizontal[sy * rowWords + w] = bits;
+            }
+        }
+        /// Vertical pass over the rows whose footprint reaches the changed rows
+        int y0 = Math.max(0, sy0 - clearance.halfHeight);
+        int y1 = Math.min(height - 1, sy1 + clearance.halfHeight);
+        for (int sy = y0; sy <= y1; sy++) {
+            for (int w = w0; w <= w1; w++) {
+                int bits = 0;
+                for (int d = -clearance.halfHeight; d <= clearance.halfHeight; d++) {
+                    int row = sy + d;
+                    bits |= row < 0 || row >= height ? -1 : clearance.horizontal[row * rowWords + w];
+                }
+                clearance.blocked[sy * rowWords + w] = bits;
+            }
+        }
+    }
+
+    /**
+     * @param sy    row of the samples
+     * @param start column of the first sample, may be outside the grid
+     * @return 32 coverage bits starting at {@code start}, samples outside the grid are covered
+     */
+    private int coverageBits(int sy, int start) {
+        int w = Math.floorDiv(start, 32);
+        int shift = Math.floorMod(start, 32);
+        int low = coverageWord(sy, w) >>> shift;
+        return shift == 0 ? low : low | coverageWord(sy, w + 1) << (32 - shift);
+    }
+
+    private int coverageWord(int sy, int w) {
+        if (w < 0 || w >= rowWords) {
+            return -1;
+        }
+        int bits = coverage[sy * rowWords + w];
+        if (w == rowWords - 1 && (width & 31) != 0) {
+            /// Padding beyond the last column
+            bits |= -1 << (width & 31);
+        }
+        return bits;
+    }
+
+    /**
+     * Axis-aligned obstacle of a tile entity
+     *
+     * @param x0 left edge in meters
+     * @param y0 bottom edge in meters
+     * @param x1 right edge in meters
+     * @param y1 top edge in meters
+     */
+    public record Obstacle(float x0, float y0, float x1, float y1) {
+    }
+
+    /**
+     * Coverage dilated by a footprint: a sample is blocked if the footprint centered at it overlaps a covered sample
+     */
+    public static final class Clearance {
+        /// Samples from the center to the left and right edge of the footprint
+        public final int halfWidth;
+        /// Samples from the center to the bottom and top edge of the footprint
+        public final int halfHeight;
+        /// Coverage dilated horizontally only, only accessed by the writer
+        private final int[] horizontal;
+        /// Blocked samples, read without locking
+        private final int[] blocked;
+
+        private Clearance(int halfWidth, int halfHeight, int words) {
+            this.halfWidth = halfWidth;
+            this.halfHeight = halfHeight;
+            this.horizontal = new int[words];
+            this.blocked = new int[words];
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package de.tum.cit.fop.maze.level;
+
+import de.tum.cit.fop.maze.Globals;
+import de.tum.cit.fop.maze.entities.Enemy;
+import de.tum.cit.fop.maze.entities.EnemyPath;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * <h2>Path request scheduler</h2>
+ * <p>Runs the path searches of the enemies on an AI executor with predictable frame times:</p>
+ * <ul>
+ *     <li>every enemy has at most one search in flight, new requests of that enemy wait until it returns</li>
+ *     <li>every request carries the generation of its enemy, {@link #invalidate(Enemy)} and {@link #cancel(Enemy)}
+ *     bump it, so results of older requests are dropped instead of overwriting newer paths</li>
+ *     <li>{@link #dispatch()} only submits as many requests per frame as fit into
+ *     {@code ENEMY_PATHFINDING_FRAME_BUDGET}, estimated from the measured search times, the rest waits for the
+ *     next frame</li>
+ *     <li>waiting requests are ordered by distance to the player, requests of enemies on screen first, and age so
+ *     that distant enemies are not starved</li>
+ * </ul>
+ * <p>Results are applied on the render thread by {@link #applyResults()}, the workers only compute paths.</p>
+ */
+public final class PathRequestScheduler {
+    /// Distance divisor of the requests of enemies on screen
+    private static final float VISIBLE_PRIORITY = 4f;
+    /// Weight of the last search in the moving average of the search time
+    private static final float AVERAGE_WEIGHT = 0.1f;
+    /// Waiting time in seconds after which the priority of a request stops increasing
+    private static final float MAX_WAIT = 1f;
+    /// Requests in flight per unit of parallelism, limits the work queued behind the budget
+    private static final int IN_FLIGHT_PER_WORKER = 2;
+
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final IdentityHashMap<Enemy, Slot> slots = new IdentityHashMap<>();
+    private final ArrayList<Request> waiting = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Result> results = new ConcurrentLinkedQueue<>();
+    /// Moving average of the search time in nanoseconds, written by the workers, concurrent writes only lose samples
+    private volatile float averageSearchNanos = 100_000f;
+    private int inFlight;
+    private float time;
+
+    /**
+     * @param executor    the executor running the searches, owned and shut down by the scheduler
+     * @param parallelism number of searches the executor runs at the same time
+     * @see de.tum.cit.fop.maze.essentials.TaskExecutors#newAiExecutor(String, int)
+     */
+    public PathRequestScheduler(ExecutorService executor, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Scheduler needs a parallelism of at least one");
+        }
+        this.executor = executor;
+        this.maxInFlight = parallelism * IN_FLIGHT_PER_WORKER;
+    }
+
+    /**
+     * Advances the clock of the scheduler, called once per frame
+     *
+     * @param delta the time since the last frame
+     */
+    public void tick(float delta) {
+        time += delta;
+    }
+
+    /**
+     * @param enemy the enemy
+     * @return {@code true} if the enemy has no search in flight and its last request is at least
+     *         {@code ENEMY_PATHFINDING_INTERVAL} old
+     */
+    public boolean isDue(Enemy enemy) {
+        Slot slot = slots.get(enemy);
+        return slot == null || !slot.inFlight && time - slot.requestedAt >= Globals.ENEMY_PATHFINDING_INTERVAL;
+    }
+
+    /**
+     * Queues a request for this frame, it is submitted by {@link #dispatch()} if it fits into the budget.
+     * Requests of enemies that are not {@link #isDue(Enemy) due} are ignored.
+     *
+     * @param enemy    the enemy
+     * @param distance the distance of the enemy to the player
+     * @param visible  {@code true} if the enemy is on screen
+     * @param search   the search, called on a worker, returns {@code null} if there is no path
+     * @param apply    applies the result of the search, called on the render thread
+     */
+    public void request(Enemy enemy, float distance, boolean visible,
+                        Function<Enemy, EnemyPath> search,
+                        BiConsumer<Enemy, EnemyPath> apply) {
+        if (!isDue(enemy)) {
+            return;
+        }
+        Slot slot = slots.computeIfAbsent(enemy, key -> new Slot());
+        float waited = Math.min(MAX_WAIT, time - slot.requestedAt - Globals.ENEMY_PATHFINDING_INTERVAL);
+        float priority = (visible ? distance / VISIBLE_PRIORITY : distance)
+            / (1 + waited / Globals.ENEMY_PATHFINDING_INTERVAL);
+        waiting.add(new Request(enemy, slot, priority, search, apply));
+    }
+
+    /**
+     * Submits the queued requests in the order of priority while they fit into the frame budget, at least one
+     * per frame. Requests left over are dropped and have to be requested again.
+     */
+    public void dispatch() {
+        waiting.sort(Comparator.comparingDouble(Request::priority));
+        float budget = Globals.ENEMY_PATHFINDING_FRAME_BUDGET * 1e9f;
+        float estimate = averageSearchNanos;
+        boolean first = true;
+        for (Request request : waiting) {
+            if (inFlight >= maxInFlight || !first && budget < estimate) {
+                break;
+            }
+            first = false;
+            budget -= estimate;
+            submit(request);
+        }
+        waiting.clear();
+    }
+
+    private void submit(Request request) {
+        Slot slot = request.slot;
+        slot.inFlight = true;
+        slot.requestedAt = time;
+        int generation = slot.generation;
+        inFlight++;
+        executor.execute(() -> {
+            EnemyPath path = null;
+            boolean completed = false;
+            try {
+                /// Cancelled while waiting in the queue of the executor
+                if (slot.generation == generation) {
+                    long start = System.nanoTime();
+                    path = request.search.apply(request.enemy);
+                    float nanos = System.nanoTime() - start;
+                    averageSearchNanos += (nanos - averageSearchNanos) * AVERAGE_WEIGHT;
+                    completed = true;
+                }
+            } finally {
+                results.add(new Result(request, generation, path, completed));
+            }
+        });
+    }
+
+    /**
+     * Applies the paths found since the last call whose generation is still current
+     */
+    public void applyResults() {
+        Result result;
+        while ((result = results.poll()) != null) {
+            Slot slot = result.request.slot;
+            slot.inFlight = false;
+            inFlight--;
+            if (result.completed && !slot.cancelled && slot.generation == result.generation) {
+                result.request.apply.accept(result.request.enemy, result.path);
+            }
+        }
+    }
+
+    /**
+     * Drops the result of the search in flight of the enemy, its next request is due immediately
+     *
+     * @param enemy the enemy
+     */
+    public void invalidate(Enemy enemy) {
+        Slot slot = slots.get(enemy);
+        if (slot != null) {
+            slot.generation++;
+            slot.requestedAt = Float.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Drops the result of the search in flight of the enemy and forgets the enemy, called when the enemy dies
+     *
+     * @param enemy the enemy
+     */
+    public void cancel(Enemy enemy) {
+        Slot slot = slots.remove(enemy);
+        if (slot != null) {
+            slot.generation++;
+            slot.cancelled = true;
+        }
+    }
+
+    /**
+     * Cancels every request and shuts the executor down, searches waiting in the executor are not started
+     */
+    public void dispose() {
+        for (Slot slot : slots.values()) {
+            slot.generation++;
+            slot.cancelled = true;
+        }
+        slots.clear();
+        waiting.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Request state of a single enemy, {@link #generation} is read by the workers
+     */
+    private static final class Slot {
+        private volatile int generation;
+        private boolean inFlight;
+        private boolean cancelled;
+        private float requestedAt = Float.NEGATIVE_INFINITY;
+    }
+
+    private record Request(Enemy enemy, Slot slot, float priority,
+                           Function<Enemy, EnemyPath> search,
+                           BiConsumer<Enemy, EnemyPath> apply) {
+    }
+
+    private record Result(Request request, int generation, EnemyPath path, boolean completed) {
+    }
+}
@@ -0,0 +1,257 @@
+package de.tum.cit.fop.maze.level;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.function.Predicate;
+
+import static de.tum.cit.fop.maze.Globals.CELL_SIZE_METERS;
+
+/**
+ * <h2>Spatial hash</h2>
+ * <p>Uniform spatial hash of objects keyed on the maze cells, every 3x3 tile block of the map. Objects are put into
+ * the bucket of the hash of their cell, so range and nearest neighbour queries only visit the buckets of the cells
+ * around the query point instead of all objects of the level.</p>
+ * <p>The number of buckets is fixed, cells far apart may share a bucket, their objects are told apart by the cell
+ * stored with them. The hash is not thread-safe, it is maintained and queried by the render thread.</p>
+ *
+ * @param <T> the type of the objects
+ */
+public final class SpatialHash<T> {
+    private static final float CELL_METERS = 3 * CELL_SIZE_METERS;
+
+    private final ArrayList<ArrayList<Entry<T>>> buckets;
+    private final int mask;
+    private final IdentityHashMap<T, Entry<T>> entries = new IdentityHashMap<>();
+
+    /**
+     * @param bucketCount the number of buckets, a power of two
+     */
+    public SpatialHash(int bucketCount) {
+        if (bucketCount <= 0 || Integer.bitCount(bucketCount) != 1) {
+            throw new IllegalArgumentException("Bucket count must be a power of two");
+        }
+        this.mask = bucketCount - 1;
+        this.buckets = new ArrayList<>(bucketCount);
+        for (int k = 0; k < bucketCount; k++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    private static int cell(float meters) {
+        return (int) Math.floor(meters / CELL_METERS);
+    }
+
+    private int bucket(int cx, int cy) {
+        return (cx * 73856093 ^ cy * 19349663) & mask;
+    }
+
+    /**
+     * Inserts the object at the position
+     *
+     * @param item the object
+     * @param x    the x coordinate in meters
+     * @param y    the y coordinate in meters
+     * @throws IllegalStateException if the object is already in the hash
+     */
+    public void insert(T item, float x, float y) {
+        if (entries.containsKey(item)) {
+            throw new IllegalStateException("Object is already in the spatial hash");
+        }
+        Entry<T> entry = new Entry<>(item);
+        entries.put(item, entry);
+        entry.x = x;
+        entry.y = y;
+        link(entry, cell(x), cell(y));
+    }
+
+    /**
+     * Moves the object to the position, inserts it if it is not in the hash.
+     * Only a change of the maze cell moves the object to another bucket.
+     *
+     * @param item the object
+     * @param x    the x coordinate in meters
+     * @param y    the y coordinate in meters
+     */
+    public void update(T item, float x, float y) {
+        Entry<T> entry = entries.get(item);
+        if (entry == null) {
+            insert(item, x, y);
+            return;
+        }
+        entry.x = x;
+        entry.y = y;
+        int cx = cell(x);
+        int cy = cell(y);
+        if (cx != entry.cx || cy != entry.cy) {
+            unlink(entry);
+            link(entry, cx, cy);
+        }
+    }
+
+    /**
+     * Removes the object, nothing happens if it is not in the hash
+     *
+     * @param item the object
+     */
+    public void remove(T item) {
+        Entry<T> entry = entries.remove(item);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * @param item the object
+     * @return {@code true} if the object is in the hash
+     */
+    public boolean contains(T item) {
+        return entries.containsKey(item);
+    }
+
+    /**
+     * @return the number of objects in the hash
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes every object
+     */
+    public void clear() {
+        entries.clear();
+        for (ArrayList<Entry<T>> bucket : buckets) {
+            bucket.clear();
+        }
+    }
+
+    private void link(Entry<T> entry, int cx, int cy) {
+        entry.cx = cx;
+        entry.cy = cy;
+        ArrayList<Entry<T>> bucket = buckets.get(bucket(cx, cy));
+        entry.index = bucket.size();
+        bucket.add(entry);
+    }
+
+    private void unlink(Entry<T> entry) {
+        ArrayList<Entry<T>> bucket = buckets.get(bucket(entry.cx, entry.cy));
+        Entry<T> last = bucket.remove(bucket.size() - 1);
+        if (last != entry) {
+            last.index = entry.index;
+            bucket.set(entry.index, last);
+        }
+    }
+
+    /**
+     * Adds the objects within the radius of the point to the result
+     *
+     * @param x      the x coordinate in meters
+     * @param y      the y coordinate in meters
+     * @param radius the radius in meters
+     * @param result the collection the objects are added to
+     * @return the result
+     */
+    public <C extends Collection<? super T>> C queryRange(float x, float y, float radius, C result) {
+        float radiusSquared = radius * radius;
+        int cx1 = cell(x + radius);
+        int cy1 = cell(y + radius);
+        for (int cy = cell(y - radius); cy <= cy1; cy++) {
+            for (int cx = cell(x - radius); cx <= cx1; cx++) {
+                for (Entry<T> entry : buckets.get(bucket(cx, cy))) {
+                    float dx = entry.x - x;
+                    float dy = entry.y - y;
+                    if (entry.cx == cx && entry.cy == cy && dx * dx + dy * dy <= radiusSquared) {
+                        result.add(entry.item);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds the objects within the rectangle to the result
+     *
+     * @param x0     the left edge in meters
+     * @param y0     the bottom edge in meters
+     * @param x1     the right edge in meters
+     * @param y1     the top edge in meters
+     * @param result the collection the objects are added to
+     * @return the result
+     */
+    public <C extends Collection<? super T>> C queryRectangle(float x0, float y0, float x1, float y1, C result) {
+        int cx1 = cell(x1);
+        int cy1 = cell(y1);
+        for (int cy = cell(y0); cy <= cy1; cy++) {
+            for (int cx = cell(x0); cx <= cx1; cx++) {
+                for (Entry<T> entry : buckets.get(bucket(cx, cy))) {
+                    if (entry.cx == cx && entry.cy == cy && entry.x >= x0 && entry.x <= x1
+                        && entry.y >= y0 && entry.y <= y1) {
+                        result.add(entry.item);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the nearest object accepted by the filter, searching the rings of cells around the point until no
+     * closer object can be found
+     *
+     * @param x           the x coordinate in meters
+     * @param y           the y coordinate in meters
+     * @param maxDistance the maximal distance in meters
+     * @param filter      the objects to consider
+     * @return the nearest object, {@code null} if there is none within the distance
+     */
+    public @Nullable T nearest(float x, float y, float maxDistance, Predicate<? super T> filter) {
+        int centerX = cell(x);
+        int centerY = cell(y);
+        int maxRing = (int) Math.ceil(maxDistance / CELL_METERS) + 1;
+        T best = null;
+        float bestSquared = maxDistance * maxDistance;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int cy = centerY - ring; cy <= centerY + ring; cy++) {
+                /// Inner rows of the ring only have the left and the right cell
+                int step = cy == centerY - ring || cy == centerY + ring ? 1 : Math.max(1, 2 * ring);
+                for (int cx = centerX - ring; cx <= centerX + ring; cx += step) {
+                    for (Entry<T> entry : buckets.get(bucket(cx, cy))) {
+                        float dx = entry.x - x;
+                        float dy = entry.y - y;
+                        float squared = dx * dx + dy * dy;
+                        if (entry.cx == cx && entry.cy == cy && squared <= bestSquared && filter.test(entry.item)) {
+                            best = entry.item;
+                            bestSquared = squared;
+                        }
+                    }
+                }
+            }
+            /// Objects of the next rings are at least this far away
+            float ringDistance = ring * CELL_METERS;
+            if (best != null && bestSquared <= ringDistance * ringDistance) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Object with its position and its place in the buckets
+     */
+    private static final class Entry<T> {
+        private final T item;
+        private float x;
+        private float y;
+        private int cx;
+        private int cy;
+        private int index;
+
+        private Entry(T item) {
+            this.item = item;
+        }
+    }
+}
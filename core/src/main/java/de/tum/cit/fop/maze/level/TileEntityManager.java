@@ -1,21 +1,57 @@
 package de.tum.cit.fop.maze.level;
 
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.utils.Disposable;
+import de.tum.cit.fop.maze.Globals;
 import de.tum.cit.fop.maze.entities.tile.TileEntity;
 import de.tum.cit.fop.maze.entities.tile.Trap;
 import de.tum.cit.fop.maze.essentials.AbsolutePoint;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
+import java.util.function.Predicate;
 
 /**
  * This class manages the tile entities in the game.
  * It is responsible for creating, removing and rendering the tile entities.
+ * <p>Static tile entities are kept in a {@link SpatialHash}, only the ones around the camera are sorted for
+ * rendering.</p>
  */
 public class TileEntityManager implements Disposable {
     private transient boolean loaded = false;
     private ArrayList<TileEntity> tileEntities = new ArrayList<>();
+    /// Static tile entities by their position
+    private transient final SpatialHash<TileEntity> spatialHash = new SpatialHash<>(1024);
+    /// Tile entities that move, rendered every frame
+    private transient final ArrayList<TileEntity> movingTileEntities = new ArrayList<>();
+    /// Tile entities rendered in the current frame
+    private transient final ArrayList<TileEntity> visibleTileEntities = new ArrayList<>();
+    /// Navigation grid of the map the tile entities are spawned in, set before the first spawn
+    private transient NavigationGrid navigationGrid;
+    /// Number of the current frame, every tile entity is ticked once per frame
+    private transient long frame = 0;
+    /// Whether the player stands on an activated trap in the current frame
+    private transient boolean isAnyActiveTraps;
+
+    /**
+     * Sets the navigation grid static tile entities register their obstacles in
+     *
+     * @param navigationGrid the navigation grid of the map
+     */
+    public void setNavigationGrid(NavigationGrid navigationGrid) {
+        this.navigationGrid = navigationGrid;
+    }
+
+    /**
+     * @return the navigation grid static tile entities register their obstacles in
+     * @throws IllegalStateException if the map has not set its grid yet
+     */
+    public NavigationGrid getNavigationGrid() {
+        if (navigationGrid == null) {
+            throw new IllegalStateException("Navigation grid is not set");
+        }
+        return navigationGrid;
+    }
 
     /**
      * Create a new tile entity manager.
@@ -35,6 +71,32 @@ public class TileEntityManager implements Disposable {
     public void createTileEntity(TileEntity tileEntity, float x, float y) {
         tileEntities.add(tileEntity);
         tileEntity.spawn(x, y);
+        track(tileEntity, x, y);
+    }
+
+    /**
+     * Add a spawned tile entity to the spatial hash, or to the moving tile entities.
+     * @param tileEntity The tile entity
+     * @param x The x position of the tile entity
+     * @param y The y position of the tile entity
+     */
+    private void track(TileEntity tileEntity, float x, float y) {
+        if (tileEntity.isStatic()) {
+            spatialHash.insert(tileEntity, x, y);
+        } else {
+            movingTileEntities.add(tileEntity);
+        }
+    }
+
+    /**
+     * Track a spawned tile entity again after {@link TileEntity#isStatic()} changed, a static tile entity is added to
+     * the spatial hash at its current position.
+     * @param tileEntity The tile entity
+     */
+    public void retrack(TileEntity tileEntity) {
+        spatialHash.remove(tileEntity);
+        movingTileEntities.remove(tileEntity);
+        track(tileEntity, tileEntity.getPosition().x(), tileEntity.getPosition().y());
     }
 
     /**
@@ -42,46 +104,86 @@ public class TileEntityManager implements Disposable {
      * @param tileEntity The tile entity to destroy
      */
     private void destroyTileEntity(TileEntity tileEntity) {
+        tileEntities.remove(tileEntity);
+        spatialHash.remove(tileEntity);
+        movingTileEntities.remove(tileEntity);
         tileEntity.dispose();
     }
 
     /**
-     * Render the tile entities.
+     * Find the nearest static tile entity.
+     * @param position The position to search from
+     * @param maxDistance The maximal distance to the tile entity
+     * @param filter The tile entities to consider
+     * @return The nearest tile entity, {@code null} if there is none within the distance
+     */
+    public @Nullable TileEntity findNearest(AbsolutePoint position, float maxDistance,
+                                            Predicate<? super TileEntity> filter) {
+        return spatialHash.nearest(position.x(), position.y(), maxDistance, filter);
+    }
+
+    /**
+     * Render the tile entities. The tile entities around the camera are rendered in order of their y position, static
+     * tile entities further away than the light of a torch cannot be seen and are only ticked afterward in any order.
+     * <p>Tile entities update in their {@code render} methods, so every tile entity is ticked in every frame.</p>
      * @param delta The time since the last frame
      */
     public void render(float delta) {
-        boolean isAnyActiveTraps = false;
-        TileEntity[] tileEntityPrimitive = tileEntities.toArray(new TileEntity[0]);
-        /// Sort the tile entities by their y position
-        Arrays.parallelSort(
-            tileEntityPrimitive, (a, b) -> Float.compare(b.getPosition().y(), a.getPosition().y())
+        frame++;
+        isAnyActiveTraps = false;
+        OrthographicCamera camera = LevelScreen.getInstance().camera;
+        float halfWidth = camera.viewportWidth * camera.zoom / 2 + Globals.TORCH_LIGHT_RADIUS;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2 + Globals.TORCH_LIGHT_RADIUS;
+        visibleTileEntities.clear();
+        spatialHash.queryRectangle(
+            camera.position.x - halfWidth, camera.position.y - halfHeight,
+            camera.position.x + halfWidth, camera.position.y + halfHeight,
+            visibleTileEntities
         );
-        this.tileEntities = new ArrayList<>(Arrays.asList(tileEntityPrimitive));
-        Iterator<TileEntity> it = tileEntities.iterator();
-
-        while (it.hasNext()) {
-            TileEntity tileEntity = it.next();
-            if (tileEntity.toDestroy) {
-                it.remove();
-                destroyTileEntity(tileEntity);
-                continue;
+        visibleTileEntities.addAll(movingTileEntities);
+        /// Sort the tile entities by their y position
+        visibleTileEntities.sort((a, b) -> Float.compare(b.getPosition().y(), a.getPosition().y()));
+
+        for (TileEntity tileEntity : visibleTileEntities) {
+            if (tileEntity.markTicked(frame)) {
+                tick(tileEntity, delta);
             }
-            if (tileEntity.isOnPlayer()) {
-                if (tileEntity instanceof Trap trap) {
-                    isAnyActiveTraps |= trap.isActivated();
-                }
-                tileEntity.contactTick(delta);
+        }
+        /// Backwards, a destroyed tile entity is removed from the list and tile entities spawned meanwhile wait
+        for (int i = tileEntities.size() - 1; i >= 0; i--) {
+            if (i < tileEntities.size() && tileEntities.get(i).markTicked(frame)) {
+                tick(tileEntities.get(i), delta);
             }
-            tileEntity.renderTileEntity(delta);
         }
         LevelScreen.getInstance().player.setOnActiveTrap(isAnyActiveTraps);
     }
 
+    /**
+     * Destroy a tile entity queued for deletion, or let it act on the player and render it.
+     * @param tileEntity The tile entity
+     * @param delta The time since the last frame
+     */
+    private void tick(TileEntity tileEntity, float delta) {
+        if (tileEntity.toDestroy) {
+            destroyTileEntity(tileEntity);
+            return;
+        }
+        if (tileEntity.isOnPlayer()) {
+            if (tileEntity instanceof Trap trap) {
+                isAnyActiveTraps |= trap.isActivated();
+            }
+            tileEntity.contactTick(delta);
+        }
+        tileEntity.renderTileEntity(delta);
+    }
+
     @Override
     public void dispose() {
         for (TileEntity tileEntity : tileEntities) {
             tileEntity.dispose();
         }
+        spatialHash.clear();
+        movingTileEntities.clear();
     }
 
     public void restore() {
@@ -96,6 +198,7 @@ public class TileEntityManager implements Disposable {
                 tileEntity.getSavedPosition().x(),
                 tileEntity.getSavedPosition().y()
             );
+            track(tileEntity, tileEntity.getSavedPosition().x(), tileEntity.getSavedPosition().y());
         }
     }
 }
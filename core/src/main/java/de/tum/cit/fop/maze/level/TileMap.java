@@ -8,11 +8,8 @@ import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
 import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.badlogic.gdx.physics.box2d.FixtureDef;
-import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.utils.Disposable;
+import com.google.gson.Gson;
 import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
@@ -24,9 +21,11 @@ import de.tum.cit.fop.maze.essentials.*;
 import de.tum.cit.fop.maze.gson.GSONPostRestorable;
 import de.tum.cit.fop.maze.level.worldgen.CellType;
 import de.tum.cit.fop.maze.level.worldgen.GeneratorCell;
+import de.tum.cit.fop.maze.level.worldgen.MazeAlgorithmType;
 import de.tum.cit.fop.maze.level.worldgen.MazeGenerator;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
+import de.tum.cit.fop.maze.level.worldgen.StreamingMazeGenerator;
 import de.tum.cit.fop.maze.level.worldgen.rooms.Entrance;
-import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.*;
@@ -52,9 +51,28 @@ public class TileMap implements Disposable, GSONPostRestorable {
     public transient float heightMeters;
     public transient float widthMeters;
     public final transient Random random;
+    /// Texture variations, a separate stream so that tiles restored from the {@link TileMapCache} do not change the
+    /// entities spawned with {@link #random}
+    private transient Random tileRandom;
     boolean[][] wallMap;
     private final ArrayList<AbsolutePoint> exitPositions = new ArrayList<>();
     private transient MazeGenerator generator;
+    private transient boolean loadedFromProperties;
+    /// Items left to spawn in the shop and in the treasure rooms
+    private transient List<CollectableAttributes> shopPool;
+    private transient List<CollectableAttributes> treasurePool;
+    /// Generator of a streamed map, {@code null} once all rows are built
+    private transient StreamingMazeGenerator streamingGenerator;
+    /// Hitboxes of a streamed map, {@code null} once all rows are built
+    private transient WallHitboxes wallHitboxes;
+    /// {@code true} while the entities are spawned over tiles and a wall map restored from the {@link TileMapCache}
+    private transient boolean tilesCached;
+    /// Hitboxes of a streamed map already added to the {@link #navigationGrid}
+    private transient int navigationHitboxes;
+    /// Walkability for the pathfinding, created with the layers or on first use after restoring from Gson
+    private transient volatile NavigationGrid navigationGrid;
+    /// Tiles set since the last {@link #pollChangedTiles(int[])}, {@code x0, y0, x1, y1}, empty if {@code x1 < x0}
+    private transient final int[] changedTiles = {Integer.MAX_VALUE, Integer.MAX_VALUE, -1, -1};
 
     /**
      * Create a new TileMap from Gson,
@@ -68,38 +86,200 @@ public class TileMap implements Disposable, GSONPostRestorable {
 
 
     public TileMap(MazeGenerator generator) {
-        this(generator.height, generator.width, generator.getRandom(), generator);
+        this(generator, generator.getRandom(), false);
     }
 
 
     public TileMap(int height, int width, Random random) {
-        this(height, width, random, null);
+        this(height, width, random, MazeAlgorithmType.WILSON);
     }
 
     /**
-     * Create a new TileMap with a given height, width and seed
+     * Create a new TileMap, generating the maze with the given algorithm
      *
-     * @param height the height of the map
-     * @param width  the width of the map
-     * @param random the random instance to use
+     * @param height        the height of the map
+     * @param width         the width of the map
+     * @param random        the random instance to use
+     * @param algorithmType the algorithm carving the walls of the maze
      */
-    private TileMap(int height, int width, Random random, MazeGenerator generator) {
-        if (generator == null) {
-            this.generator = new MazeGenerator(height, width, random);
-            this.generator.generate();
-        } else {
-            this.generator = generator;
+    public TileMap(int height, int width, Random random, MazeAlgorithmType algorithmType) {
+        this(new MazeGenerator(height, width, random, algorithmType.create()), random, true);
+    }
+
+    /**
+     * Create a new TileMap for a seed. The tiles, the wall map and the wall hitboxes are loaded from the
+     * {@link TileMapCache} if the same level was built before, otherwise the level is generated and cached.
+     * Either way the maze, the texture variations and the entities use separate random streams derived from
+     * {@code random}, so that a cached build spawns exactly the same entities as a fresh one.
+     *
+     * @param height        the height of the map
+     * @param width         the width of the map
+     * @param seed          the seed {@code random} was created with
+     * @param random        the random instance to use
+     * @param algorithmType the algorithm carving the walls of the maze
+     */
+    public TileMap(int height, int width, long seed, Random random, MazeAlgorithmType algorithmType) {
+        this.random = random;
+        this.tileEntityManager = LevelScreen.getInstance().tileEntityManager;
+        this.loadedFromProperties = false;
+        Random generatorRandom = new Random(random.nextLong());
+        this.tileRandom = new Random(random.nextLong());
+
+        TileMapCache cache = TileMapCache.getInstance();
+        String key = TileMapCache.key(seed, height, width, algorithmType);
+        TileMapCache.Entry entry = cache.load(key);
+        if (entry != null) {
+            restoreFromCache(entry);
+            return;
         }
+        this.generator = new MazeGenerator(height, width, generatorRandom, algorithmType.create());
+        this.generator.generate();
+        WallHitboxes hitboxes = build(this.generator.getGrid());
+        cache.store(key, createCacheEntry(this.generator.getGrid(), hitboxes));
+    }
 
-        ArrayList<AbsolutePoint> torches = new ArrayList<>();
-        // Always get width and height from the generator, because it always makes the parameters odd
+    /**
+     * Create a new TileMap from a maze generator
+     *
+     * @param generator the maze generator
+     * @param random    the random instance to use
+     * @param generate  {@code true} if the maze still has to be generated
+     */
+    private TileMap(MazeGenerator generator, Random random, boolean generate) {
+        this.generator = generator;
+        if (generate) {
+            this.generator.generate();
+        }
         this.random = random;
-        this.width = this.generator.width * 3;
-        this.height = this.generator.height * 3;
+        this.tileRandom = random;
         this.tileEntityManager = LevelScreen.getInstance().tileEntityManager;
+        this.loadedFromProperties = generator.loadedFromProperties;
+        build(this.generator.getGrid());
+    }
+
+    /**
+     * Builds the tiles, entities and hitboxes of a whole maze
+     *
+     * @param grid the generated maze
+     * @return {@link WallHitboxes} of the map
+     */
+    private WallHitboxes build(MazeGrid grid) {
+        // Always get width and height from the grid, because the generator always makes the parameters odd
+        createLayers(grid.height, grid.width);
+        for (int i = grid.height - 1; i >= 0; --i) {
+            for (int j = grid.width - 1; j >= 0; --j) {
+                buildCell(grid, i, j, i, GenerationCases.isEdge(i, j, grid));
+            }
+        }
+        wallMap = WallHitboxes.wallMapOf(grid);
+        WallHitboxes hitboxes = new WallHitboxes(LevelScreen.getInstance().world, wallMap);
+        hitboxes.generateHitboxes();
+        navigationGrid.addHitboxes(hitboxes.getHitboxes());
+        return hitboxes;
+    }
+
+    /**
+     * Builds the map from a cache entry: the tiles, the wall map and the hitboxes are restored,
+     * only the entities are spawned
+     *
+     * @param entry the cached build
+     */
+    private void restoreFromCache(TileMapCache.Entry entry) {
+        MazeGrid grid = entry.grid();
+        createLayers(grid.height, grid.width);
+        if (entry.width() != width || entry.height() != height) {
+            throw new IllegalStateException("Cached tiles do not match the maze size");
+        }
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int texture = entry.textures()[y * width + x];
+                if (texture != -1) {
+                    layer.setCell(x, y, createCell(entry.textureNames()[texture],
+                        entry.textureIndices()[y * width + x] & 0xFF));
+                }
+            }
+        }
+        wallMap = entry.wallMap();
+
+        tilesCached = true;
+        for (int i = grid.height - 1; i >= 0; --i) {
+            for (int j = grid.width - 1; j >= 0; --j) {
+                buildCell(grid, i, j, i, GenerationCases.isEdge(i, j, grid));
+            }
+        }
+        tilesCached = false;
+
+        WallHitboxes.createHitboxes(LevelScreen.getInstance().world, entry.hitboxes(), entry.hitboxFilters());
+        navigationGrid.addHitboxes(entry.hitboxes());
+    }
+
+    /**
+     * Collects the deterministic part of the build for the {@link TileMapCache}
+     *
+     * @param grid     the generated maze
+     * @param hitboxes the wall hitboxes created for the map
+     * @return {@link TileMapCache.Entry} of the map
+     */
+    private TileMapCache.Entry createCacheEntry(MazeGrid grid, WallHitboxes hitboxes) {
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
+        ArrayList<String> textureNames = new ArrayList<>();
+        HashMap<String, Short> textureIds = new HashMap<>();
+        short[] textures = new short[width * height];
+        byte[] textureIndices = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                Cell cell = layer.getCell(x, y);
+                String textureName = cell == null ? null : (String) cell.getTile().getProperties().get("textureName");
+                if (textureName == null) {
+                    /// Debug tiles are recreated by createLayers
+                    textures[y * width + x] = -1;
+                    continue;
+                }
+                textures[y * width + x] = textureIds.computeIfAbsent(textureName, name -> {
+                    textureNames.add(name);
+                    return (short) (textureNames.size() - 1);
+                });
+                textureIndices[y * width + x] = (byte) (int) cell.getTile().getProperties().get("index");
+            }
+        }
+        return new TileMapCache.Entry(
+            grid, width, height, textureNames.toArray(new String[0]), textures, textureIndices, wallMap,
+            hitboxes.getHitboxes(), hitboxes.getFilters()
+        );
+    }
+
+    /**
+     * Create a new TileMap that is built from the rows of a {@link StreamingMazeGenerator} as they are generated.
+     * Only the first band of rows is built right away, the rest is built by {@link #buildNextBand()}.
+     *
+     * @param streamingGenerator the streaming maze generator
+     */
+    public TileMap(StreamingMazeGenerator streamingGenerator) {
+        this.streamingGenerator = streamingGenerator;
+        this.random = streamingGenerator.getRandom();
+        this.tileRandom = this.random;
+        this.tileEntityManager = LevelScreen.getInstance().tileEntityManager;
+        this.loadedFromProperties = false;
+        createLayers(streamingGenerator.height, streamingGenerator.width);
+        wallHitboxes = new WallHitboxes(LevelScreen.getInstance().world, wallMap);
+        buildNextBand();
+    }
+
+    /**
+     * Creates the layers and the auxiliary arrays for a maze of the given size
+     *
+     * @param mazeHeight the height of the maze in cells
+     * @param mazeWidth  the width of the maze in cells
+     */
+    private void createLayers(int mazeHeight, int mazeWidth) {
+        this.width = mazeWidth * 3;
+        this.height = mazeHeight * 3;
         widthMeters = this.width * CELL_SIZE_METERS;
         heightMeters = this.height * CELL_SIZE_METERS;
         wallMap = new boolean[this.height][this.width];
+        navigationGrid = new NavigationGrid(this.width, this.height);
+        tileEntityManager.setNavigationGrid(navigationGrid);
         createDebugLayer();
 
         ///  Dimensions x3 since we want to have 3x3 tiles for each cell,
@@ -116,125 +296,183 @@ public class TileMap implements Disposable, GSONPostRestorable {
             (List<CollectableAttributes>) Assets.getInstance().getShopPool().clone();
         @SuppressWarnings("unchecked") List<CollectableAttributes> treasurePool =
             (List<CollectableAttributes>) Assets.getInstance().getTreasurePool().clone();
+        this.shopPool = shopPool;
+        this.treasurePool = treasurePool;
+    }
+
+    /**
+     * @return {@code true} if all rows of the map are built
+     */
+    public boolean isComplete() {
+        return streamingGenerator == null;
+    }
 
+    /**
+     * Builds the tiles, entities and hitboxes of the next {@code STREAMING_BAND_ROWS} rows of a streamed map
+     *
+     * @return {@code true} if there are rows left to build
+     */
+    public boolean buildNextBand() {
+        if (streamingGenerator == null) {
+            return false;
+        }
+        streamingGenerator.generateRows(STREAMING_BAND_ROWS, (row, window) -> {
+            for (int j = window.width - 1; j >= 0; --j) {
+                buildCell(window, 1, j, row, row == 0 || row == streamingGenerator.height - 1 ||
+                    j == 0 || j == window.width - 1);
+            }
+            /// Hitboxes of a row need the row below for isolated walls
+            if (row > 0) {
+                wallHitboxes.generateStreamedHitboxes(row - 1);
+            }
+        });
+        if (streamingGenerator.hasNextRow()) {
+            addStreamedNavigationHitboxes();
+            return true;
+        }
+        wallHitboxes.generateStreamedHitboxes(streamingGenerator.height - 1);
+        wallHitboxes.closeStreamedHitboxes();
+        addStreamedNavigationHitboxes();
+        streamingGenerator = null;
+        wallHitboxes = null;
+        return false;
+    }
+
+    /**
+     * Adds the hitboxes created since the last band to the {@link #navigationGrid}
+     */
+    private void addStreamedNavigationHitboxes() {
+        navigationGrid.addHitboxes(wallHitboxes.getHitboxes(navigationHitboxes));
+        navigationHitboxes = wallHitboxes.getHitboxCount();
+    }
+
+    /**
+     * Builds all remaining rows of a streamed map
+     */
+    public void buildAllBands() {
+        while (buildNextBand()) {
+            /// Build until complete
+        }
+    }
+
+    /**
+     * Builds a single cell of the maze: tiles, wall map, tile entities and enemies
+     *
+     * @param grid the maze grid, or a window of it
+     * @param i    the row of the cell in the grid
+     * @param j    the column of the cell
+     * @param row  the row of the cell in the whole maze
+     * @param edge {@code true} if the cell is on the edge of the whole maze
+     */
+    private void buildCell(MazeGrid grid, int i, int j, int row, boolean edge) {
         /// Paddings to account for surrounding walls
         int startI = 2;
         int startJ = 1;
-        for (int i = this.generator.height - 1; i >= 0; --i) {
-            for (int j = this.generator.width - 1; j >= 0; --j) {
-                final GeneratorCell cell = this.generator.grid.get(i).get(j);
-                int x = startJ + j * 3;
-                int y = layer.getHeight() - (startI + i * 3);
-                AbsolutePoint currentCellCenter = getCellCenterMeters(x, y);
-
-                DebugRenderer.getInstance().spawnRectangle(
-                    new AbsolutePoint(x - 1, y - 1).toMetersFromCells(),
-                    new AbsolutePoint(x + 2, y + 2).toMetersFromCells(),
-                    Color.BLACK
-                );
-                /// All non-walkable cells require hitboxes
-                if (cell.getCellType().isWall()) {
-                    setHitboxWallSquare(x, y, wallMap);
-                }
-                /// Any cell that is not a wall is walkable, floor would be a background
-                if (cell.getCellType().isWalkable()) {
-                    if (cell.getCellType().isRoom() && !(cell.getRoom() instanceof Entrance)) {
-                        setSquare("floor_room", x, y);
-                    } else {
-                        setSquare("floor", x, y);
-                    }
-                    tryTorchSpawn(i, j, cell, x, y, torches);
-                }
-                if (cell.getCellType().isPath() && !cell.getCellType().isRoom() &&
-                    !this.generator.loadedFromProperties) {
-                    if (random.nextFloat() <= ENEMY_SPAWN_CHANCE) {
-                        spawnEnemies(x, y);
-                    } else if (random.nextFloat() <= LOOTCONTAINER_SPAWN_CHANCE) {
-                        spawnLootContainers(x, y, i, j);
-                        ///(i, j, cell, x, y, torches);
-                    }
-                }
-                if (cell.getCellType() == CellType.ENEMY) {
-                    LevelScreen.getInstance().enemyManager.createEnemy(
-                        new Enemy(Arrays.stream(
-                            EnemyType.values()).skip(random.nextInt(EnemyType.values().length)
-                        ).findFirst().orElseThrow()),
-                        currentCellCenter.x(),
-                        currentCellCenter.y()
-                    );
-                }
-
-                ///  Room walls
-                if (cell.getCellType() == CellType.WALL || cell.getCellType() == CellType.ROOM_WALL) {
-                    setDefaultWallSquare(x, y);
-                    if (GenerationCases.verticalWallCase(i, j, this.generator)) {
-                        setVerticalWallSquare(x, y);
-                    }
-                    if (GenerationCases.topVerticalCase(i, j, this.generator)) {
-                        setVerticalWallSquare(x, y);
-                        setCell("wallVerticalLeftCorner", x - 1, y + 1);
-                        setCell("wallVerticalMiddleCorner", x, y + 1);
-                        setCell("wallVerticalRightCorner", x + 1, y + 1);
-                    }
-                }
-                if (cell.getCellType() == CellType.KEY_OBELISK) {
-                    tileEntityManager.createTileEntity(
-                        new Collectable(Collectable.CollectableType.KEY), currentCellCenter
-                    );
-                }
-                if (cell.getCellType() == CellType.TREASURE_ROOM_ITEM) {
-                    CollectableAttributes attribute = null;
-                    for (CollectableAttributes attr : treasurePool) {
-                        if (attr.spawnPriority) {
-                            attribute = attr;
-                            break;
-                        }
-                    }
-                    if (attribute == null) {
-                        attribute = treasurePool.get(random.nextInt(treasurePool.size()));
-                    }
-                    treasurePool.remove(attribute);
-                    tileEntityManager.createTileEntity(new Collectable(attribute), currentCellCenter);
-                }
-                if (cell.getCellType() == CellType.EXIT_DOOR) {
-                    GeneratorCell pathCell = GenerationCases.getFirstSurroundingPath(i, j, this.generator);
-                    if (pathCell == null) {
-                        throw new IllegalStateException("EXIT_DOOR is unreachable in this generation");
-                    }
-                    tileEntityManager.createTileEntity(
-                        new ExitDoor(pathCell.getDirection(cell)), currentCellCenter
-                    );
-                    exitPositions.add(currentCellCenter);
-                }
-                if (cell.getCellType() == CellType.SHOP_ITEM) {
-                    CollectableAttributes item = shopPool.get(random.nextInt(shopPool.size()));
-                    shopPool.remove(item);
-                    tileEntityManager.createTileEntity(
-                        new ShopItem(new Collectable(item)), currentCellCenter
-                    );
-                }
-
-                /// Trap
-                if (cell.getCellType() == CellType.TRAP && !GenerationCases.isEdge(i, j, this.generator)) {
-                    boolean vertical =
-                        (this.generator.grid.get(i - 1).get(j).getCellType().isWall() ||
-                            this.generator.grid.get(i - 1).get(j).getCellType().isDoor())
-                            &&
-                            (this.generator.grid.get(i + 1).get(j).getCellType().isWall() ||
-                                this.generator.grid.get(i + 1).get(j).getCellType().isDoor());
-                    spawnRandomTrap(x, y, vertical);
-                }
+        final CellType cellType = grid.get(i, j);
+        int x = startJ + j * 3;
+        int y = height - (startI + row * 3);
+        AbsolutePoint currentCellCenter = getCellCenterMeters(x, y);
+
+        DebugRenderer.getInstance().spawnRectangle(
+            new AbsolutePoint(x - 1, y - 1).toMetersFromCells(),
+            new AbsolutePoint(x + 2, y + 2).toMetersFromCells(),
+            Color.BLACK
+        );
+        /// All non-walkable cells require hitboxes, a whole maze builds its wall map at once
+        if (cellType.isWall() && streamingGenerator != null) {
+            WallHitboxes.setHitboxWallSquare(wallMap, x, y, true);
+        }
+        /// Any cell that is not a wall is walkable, floor would be a background
+        if (cellType.isWalkable()) {
+            if (cellType.isRoom() && !(grid.getRoom(i, j) instanceof Entrance)) {
+                setSquare("floor_room", x, y);
+            } else {
+                setSquare("floor", x, y);
+            }
+            tryTorchSpawn(grid, i, j, row, edge, cellType, x, y);
+        }
+        if (cellType.isPath() && !cellType.isRoom() &&
+            !loadedFromProperties) {
+            if (random.nextFloat() <= ENEMY_SPAWN_CHANCE) {
+                spawnEnemies(x, y);
+            } else if (random.nextFloat() <= LOOTCONTAINER_SPAWN_CHANCE) {
+                spawnLootContainers(grid, x, y, i, j);
+                ///(i, j, cell, x, y, torches);
+            }
+        }
+        if (cellType == CellType.ENEMY) {
+            LevelScreen.getInstance().enemyManager.createEnemy(
+                new Enemy(Arrays.stream(
+                    EnemyType.values()).skip(random.nextInt(EnemyType.values().length)
+                ).findFirst().orElseThrow()),
+                currentCellCenter.x(),
+                currentCellCenter.y()
+            );
+        }
 
-                if (cell.getCellType() == CellType.PLAYER) {
-                    setSquare("floor_room", x, y);
-                    playerPosition = currentCellCenter;
+        ///  Room walls
+        if (cellType == CellType.WALL || cellType == CellType.ROOM_WALL) {
+            setDefaultWallSquare(x, y);
+            if (GenerationCases.verticalWallCase(i, j, grid)) {
+                setVerticalWallSquare(x, y);
+            }
+            if (GenerationCases.topVerticalCase(i, j, grid)) {
+                setVerticalWallSquare(x, y);
+                setCell("wallVerticalLeftCorner", x - 1, y + 1);
+                setCell("wallVerticalMiddleCorner", x, y + 1);
+                setCell("wallVerticalRightCorner", x + 1, y + 1);
+            }
+        }
+        if (cellType == CellType.KEY_OBELISK) {
+            tileEntityManager.createTileEntity(
+                new Collectable(Collectable.CollectableType.KEY), currentCellCenter
+            );
+        }
+        if (cellType == CellType.TREASURE_ROOM_ITEM) {
+            CollectableAttributes attribute = null;
+            for (CollectableAttributes attr : treasurePool) {
+                if (attr.spawnPriority) {
+                    attribute = attr;
+                    break;
                 }
+            }
+            if (attribute == null) {
+                attribute = treasurePool.get(random.nextInt(treasurePool.size()));
+            }
+            treasurePool.remove(attribute);
+            tileEntityManager.createTileEntity(new Collectable(attribute), currentCellCenter);
+        }
+        if (cellType == CellType.EXIT_DOOR) {
+            GeneratorCell pathCell = GenerationCases.getFirstSurroundingPath(i, j, row, grid);
+            if (pathCell == null) {
+                throw new IllegalStateException("EXIT_DOOR is unreachable in this generation");
+            }
+            tileEntityManager.createTileEntity(
+                new ExitDoor(pathCell.getDirection(grid.cell(i, j))), currentCellCenter
+            );
+            exitPositions.add(currentCellCenter);
+        }
+        if (cellType == CellType.SHOP_ITEM) {
+            CollectableAttributes item = shopPool.get(random.nextInt(shopPool.size()));
+            shopPool.remove(item);
+            tileEntityManager.createTileEntity(
+                new ShopItem(new Collectable(item)), currentCellCenter
+            );
+        }
 
+        /// Trap
+        if (cellType == CellType.TRAP && !edge) {
+            boolean vertical =
+                (grid.get(i - 1, j).isWall() || grid.get(i - 1, j).isDoor())
+                    &&
+                    (grid.get(i + 1, j).isWall() || grid.get(i + 1, j).isDoor());
+            spawnRandomTrap(x, y, vertical);
+        }
 
-            }
+        if (cellType == CellType.PLAYER) {
+            setSquare("floor_room", x, y);
+            playerPosition = currentCellCenter;
         }
-        reverseCollisionMapRows(wallMap);
-        generateHitboxes();
     }
 
     /**
@@ -266,7 +504,28 @@ public class TileMap implements Disposable, GSONPostRestorable {
         this.height = layer.getHeight();
         this.widthMeters = this.width * CELL_SIZE_METERS;
         this.heightMeters = this.height * CELL_SIZE_METERS;
-        generateHitboxes();
+        WallHitboxes hitboxes = new WallHitboxes(LevelScreen.getInstance().world, wallMap);
+        hitboxes.generateHitboxes();
+        getNavigationGrid().addHitboxes(hitboxes.getHitboxes());
+    }
+
+    /**
+     * Returns the navigation grid of the map. Tile entities restored from Gson are spawned before
+     * {@link #restore()}, so the grid of a restored map is created on first use.
+     *
+     * @return {@link NavigationGrid} of the map
+     */
+    public NavigationGrid getNavigationGrid() {
+        NavigationGrid grid = navigationGrid;
+        if (grid == null) {
+            synchronized (this) {
+                if (navigationGrid == null) {
+                    navigationGrid = new NavigationGrid(width, height);
+                }
+                grid = navigationGrid;
+            }
+        }
+        return grid;
     }
 
     public void spawnEnemies(int x, int y) {
@@ -300,7 +559,7 @@ public class TileMap implements Disposable, GSONPostRestorable {
 
     }
 
-    private void spawnLootContainers(int x, int y, int iOrigin, int jOrigin) {
+    private void spawnLootContainers(MazeGrid grid, int x, int y, int iOrigin, int jOrigin) {
         AbsolutePoint current = getCellCenterMeters(x, y);
         int lootContainerCount = 1;
         for (int i = 0; i < 8; ++i) {
@@ -313,7 +572,7 @@ public class TileMap implements Disposable, GSONPostRestorable {
                 if (lootContainerCount == 0) {
                     return;
                 }
-                if ((i == 0 && j == 0) || generator.grid.get(iOrigin).get(jOrigin + j).getCellType().isWall()) {
+                if ((i == 0 && j == 0) || grid.get(iOrigin, jOrigin + j).isWall()) {
                     continue;
                 }
 
@@ -333,30 +592,21 @@ public class TileMap implements Disposable, GSONPostRestorable {
         }
     }
 
-    private void tryTorchSpawn(int i, int j, GeneratorCell cell, int x, int y, ArrayList<AbsolutePoint> torches) {
-        AbsolutePoint closestTorch = null;
-        GeneratorCell torchCell = GenerationCases.getFirstSurroundingWall(i, j, generator);
+    private void tryTorchSpawn(MazeGrid grid, int i, int j, int row, boolean edge, CellType cellType, int x, int y) {
+        GeneratorCell torchCell = GenerationCases.getFirstSurroundingWall(i, j, row, grid);
         if (
-            cell.getCellType() != CellType.TRAP &&
-                !GenerationCases.isEdge(i, j, generator) &&
+            cellType != CellType.TRAP &&
+                !edge &&
                 torchCell != null
         ) {
-            Direction torchDirection = cell.getDirection(torchCell);
+            Direction torchDirection = grid.cell(i, j).getDirection(torchCell);
             AbsolutePoint current = getCellCenterMeters(x, y);
             AbsolutePoint torchPoint = getTorchPoint(torchDirection, current);
 
-            for (AbsolutePoint torch : torches) {
-                if (closestTorch != null && torchPoint.distance(closestTorch) > torchPoint.distance(torch)) {
-                    closestTorch = torch;
-                } else if (closestTorch == null) {
-                    closestTorch = torch;
-                }
-            }
-
-            if (closestTorch != null && torchPoint.distance(closestTorch) < TORCH_ACTIVATION_RADIUS * TORCH_GAP) {
+            if (tileEntityManager.findNearest(torchPoint, TORCH_ACTIVATION_RADIUS * TORCH_GAP,
+                Torch.class::isInstance) != null) {
                 return;
             }
-            torches.add(torchPoint);
             tileEntityManager.createTileEntity(
                 new Torch(torchDirection), torchPoint.x(), torchPoint.y()
             );
@@ -386,8 +636,8 @@ public class TileMap implements Disposable, GSONPostRestorable {
         float yActual = center.y();
         if (!vertical) --yActual;
         TrapType trapType = vertical ?
-            TrapType.pickRandomVerticalTrap(generator.getRandom()) :
-            TrapType.pickRandomHorizontalTrap(generator.getRandom());
+            TrapType.pickRandomVerticalTrap(random) :
+            TrapType.pickRandomHorizontalTrap(random);
 
         Trap trap = new Trap(trapType);
         boolean singleCellTrap = trap.attributes.width() == 1 && trap.attributes.height() == 1;
@@ -410,46 +660,6 @@ public class TileMap implements Disposable, GSONPostRestorable {
     }
 
 
-    /**
-     * Reverses the collision map rows
-     *
-     * @param collisionMap the collision map with the cells
-     */
-    private void reverseCollisionMapRows(boolean[][] collisionMap) {
-        for (int i = 0; i < height / 2; ++i) {
-            for (int j = 0; j < width; ++j) {
-                boolean tmp = collisionMap[i][j];
-                collisionMap[i][j] = collisionMap[height - 1 - i][j];
-                collisionMap[height - 1 - i][j] = tmp;
-            }
-        }
-    }
-
-    /**
-     * Sets a wall square for the wallMap at x y position
-     *
-     * @param x       the x position
-     * @param y       the y position
-     * @param wallMap the collision map with the cells
-     */
-    private void setHitboxWallSquare(int x, int y, boolean[][] wallMap) {
-        int[][] allSurrounding = {
-            {0, 0},
-            {-1, 0},
-            {1, 0},
-            {0, -1},
-            {0, 1},
-            {-1, -1},
-            {1, -1},
-            {-1, 1},
-            {1, 1}
-        };
-        ///  Height is reversed since the map is drawn from the top left corner
-        for (int[] surrounding : allSurrounding) {
-            wallMap[height - 1 - y - surrounding[1]][x + surrounding[0]] = true;
-        }
-    }
-
     private void setHorizontalWallStack(int x, int y) {
         for (int k = -1; k < 2; ++k) {
             setCell("wallTop", x + k, y + 1);
@@ -533,23 +743,48 @@ public class TileMap implements Disposable, GSONPostRestorable {
      * @param y           the y position
      */
     private void setCell(String textureName, int x, int y) {
-        Cell mapCell = new Cell();
+        if (tilesCached) {
+            return;
+        }
         TileTextureHelper.TextureResult result = Assets.getInstance().
-            tileTextureHelper.getTextureWithVariationChance(textureName, random);
-        mapCell.setTile(
-            new StaticTiledMapTile(
-                result.textureRegion()
-            )
-        );
-        mapCell.getTile().getProperties().put(
-            "textureName", textureName
-        );
-        mapCell.getTile().getProperties().put(
-            "index", result.index()
-        );
+            tileTextureHelper.getTextureWithVariationChance(textureName, tileRandom);
         ///  1 is always the top layer and 0 is the bottom layer
         TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
-        layer.setCell(x, y, mapCell);
+        layer.setCell(x, y, createCell(textureName, result.index()));
+        changedTiles[0] = Math.min(changedTiles[0], x);
+        changedTiles[1] = Math.min(changedTiles[1], y);
+        changedTiles[2] = Math.max(changedTiles[2], x);
+        changedTiles[3] = Math.max(changedTiles[3], y);
+    }
+
+    /**
+     * Returns the bounds of the tiles set since the last call, such as the tiles of the rows of a streamed map
+     * built by {@link #buildNextBand()}
+     *
+     * @param region receives {@code x0, y0, x1, y1} of the tiles, inclusive
+     * @return {@code true} if any tile was set
+     */
+    public boolean pollChangedTiles(int[] region) {
+        if (changedTiles[2] < changedTiles[0]) {
+            return false;
+        }
+        System.arraycopy(changedTiles, 0, region, 0, 4);
+        changedTiles[0] = Integer.MAX_VALUE;
+        changedTiles[1] = Integer.MAX_VALUE;
+        changedTiles[2] = -1;
+        changedTiles[3] = -1;
+        return true;
+    }
+
+    /**
+     * Returns the map cell of the given texture variation, shared by all tiles with the variation
+     *
+     * @param textureName the texture of the cell
+     * @param index       the index of the texture variation
+     * @return {@link Cell} with the texture, interned in the {@link TileRegistry}
+     */
+    private static Cell createCell(String textureName, int index) {
+        return TileRegistry.getInstance().cell(textureName, index);
     }
 
 
@@ -583,192 +818,74 @@ public class TileMap implements Disposable, GSONPostRestorable {
 
     }
 
-    /**
-     * Calls {@link #createRectangularHitbox(float, float, float, float, FixtureDef)} with {@code fixtureDef} set to null
-     */
-    private void createRectangularHitbox(float x, float y, float hx, float hy) {
-        createRectangularHitbox(x, y, hx, hy, null);
-    }
-
-    /**
-     * Helper function to create a hitbox at x y position considering the cell size
-     * Create a hitbox at x y position with hx hy size
-     *
-     * @param x          the x position
-     * @param y          the y position
-     * @param hx         the x size
-     * @param hy         the y size
-     * @param fixtureDef the fixture definition
-     */
-    private void createRectangularHitbox(float x, float y, float hx, float hy, @Nullable FixtureDef fixtureDef) {
-
-        hx *= CELL_SIZE_METERS / 2;
-        hy *= CELL_SIZE_METERS / 2;
-        x = x * CELL_SIZE_METERS + hx;
-        y = y * CELL_SIZE_METERS + hy;
-
-        LevelScreen screen = LevelScreen.getInstance();
-        BodyDef bodyDef = new BodyDef();
-        bodyDef.type = BodyDef.BodyType.StaticBody;
-        bodyDef.position.set(x, y);
-
-        Body body = screen.world.createBody(bodyDef);
-        PolygonShape shape = new PolygonShape();
-        shape.setAsBox(hx, hy);
-        if (fixtureDef == null) {
-            fixtureDef = new FixtureDef();
-            fixtureDef.filter.categoryBits = BodyBits.WALL;
-            fixtureDef.filter.maskBits = BodyBits.WALL_MASK;
-        }
-        fixtureDef.shape = shape;
-        body.createFixture(fixtureDef);
-        shape.dispose();
+    public List<AbsolutePoint> getExitPositions() {
+        return exitPositions;
     }
 
-    /**
-     * Check if the cell at i j position is isolated, requires special treatment, since we draw a decoration there
-     *
-     * @param x the x position
-     * @param y the y position
-     * @return {@code true} if the cell is isolated
-     */
-    private boolean isIsolatedCollidable(int x, int y) {
-        if (y - 2 <= 0 || x - 2 <= 0 || y + 2 >= height || x + 2 >= width) {
-            return false;
-        }
-        return !wallMap[y - 2][x] && !wallMap[y + 2][x] && !wallMap[y][x - 2] && !wallMap[y][x + 2];
+    public TiledMap getMap() {
+        return map;
     }
 
     /**
-     * Generate hitboxes for the map
+     * <h2>Tiled map adapter</h2>
+     * <p>Serializes the bottom layer of a map as the texture variations it uses, each written once, and a grid of
+     * indices into them, {@code -1} for empty and debug tiles. The grid is stored row by row from the bottom.</p>
+     * <p>Saves with a {@code "tiles"} array holding the texture variation of every tile are still read.</p>
      */
-    private void generateHitboxes() {
-        generateVerticalHitboxes();
-        generateHorizontalHitboxes();
-    }
-
-    private void generateVerticalHitboxes() {
-        for (int j = 0; j < width; j += 3) {
-            int x = (j - 1);
-            int y = -1;
-            int hy = 0;
-            for (int i = 0; i < height; i += 3) {
-                if (wallMap[i][j]) {
-                    if (y == -1) {
-                        y = i;
-                    }
-                    hy += 3;
-                } else {
-                    if (y != -1) {
-                        if (hy > 3) {
-                            /// HY reduced by 0.05 to avoid collision above the wall
-                            /// 1.8 is the height of the wall (less than usual 3 because of projection)
-                            /// x + 1 and y + 1.8 are the starting point of the wall
-                            FixtureDef temp = new FixtureDef();
-                            temp.filter.categoryBits = BodyBits.WALL_TRANSPARENT;
-                            temp.filter.maskBits = BodyBits.WALL_TRANSPARENT_MASK;
-                            createRectangularHitbox(
-                                x + 1, y + HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS + 0.1f, 3f,
-                                HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS - 0.1f, temp);
-                            createRectangularHitbox(x + 1f, y + 2.8f, 2.95f, hy - 2.8f);
-                        }
-                        y = -1;
-                        hy = 0;
-                    }
-                }
-            }
-            if (y != -1 && hy > 3) {
-                FixtureDef temp = new FixtureDef();
-                temp.filter.categoryBits = BodyBits.WALL_TRANSPARENT;
-                temp.filter.maskBits = BodyBits.WALL_TRANSPARENT_MASK;
-                createRectangularHitbox(
-                    x + 1, y + HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS + 0.1f, 3f,
-                    HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS - 0.1f, temp);
-                createRectangularHitbox(x + 1, y + 3f, 3, hy - 2.8f);
-            }
+    public static class TiledMapAdapter extends TypeAdapter<TiledMap> {
+        /// The texture variations are plain records, they need none of the adapters of the {@link Assets}
+        private static final Gson GSON = new Gson();
+        private final TileRegistry registry;
+
+        /**
+         * Creates an adapter interning the tiles in the shared {@link TileRegistry}
+         */
+        public TiledMapAdapter() {
+            this(TileRegistry.getInstance());
         }
 
-    }
-
-    private void generateHorizontalHitboxes() {
-        for (int i = 0; i < height; i += 3) {
-            int x = -1;
-            int y = (i - 1);
-            int hx = 0;
-            for (int j = 0; j < width; j += 3) {
-                if (wallMap[i][j]) {
-                    if (x == -1) {
-                        x = j;
-                    }
-                    hx += 3;
-                } else {
-                    if (x != -1) {
-                        /// x is offset for 0.025f to avoid collision with the tiny pixel
-                        if (hx > 3 || isIsolatedCollidable(j - 2, i + 1)) {
-                            FixtureDef temp = new FixtureDef();
-                            temp.filter.categoryBits = BodyBits.WALL_TRANSPARENT;
-                            temp.filter.maskBits = BodyBits.WALL_TRANSPARENT_MASK;
-                            createRectangularHitbox(
-                                x + 0.04f, y + 1 + HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS, hx - 0.07f,
-                                HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS, temp);
-                            createRectangularHitbox(x + 0.12f, y + 3f + 0.6f, hx - 0.24f, 0.3f);
-                        }
-
-                        x = -1;
-                        hx = 0;
-                    }
-                }
-            }
-            if (x != -1 && hx > 3) {
-                FixtureDef temp = new FixtureDef();
-                temp.filter.categoryBits = BodyBits.WALL_TRANSPARENT;
-                temp.filter.maskBits = BodyBits.WALL_TRANSPARENT_MASK;
-                createRectangularHitbox(
-                    x + 0.07f, y + 1 + HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS, hx - 0.07f,
-                    HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS, temp);
-                createRectangularHitbox(x + 0.12f, y + 3f + 0.6f, hx - 0.24f, 0.3f);
-            }
+        /**
+         * @param registry the registry the tiles of the maps are interned in
+         */
+        TiledMapAdapter(TileRegistry registry) {
+            this.registry = registry;
         }
-    }
-
-    public List<AbsolutePoint> getExitPositions() {
-        return exitPositions;
-    }
-
-    public TiledMap getMap() {
-        return map;
-    }
 
-    public static class TiledMapAdapter extends TypeAdapter<TiledMap> {
         @Override
         public void write(JsonWriter jsonWriter, TiledMap tiledMap) throws IOException {
             TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
-            TileTextureHelper.TextureWithIndex[][] textures =
-                new TileTextureHelper.TextureWithIndex[layer.getWidth()][layer.getHeight()];
-            for (int i = 0; i < layer.getWidth(); i++) {
-                for (int j = 0; j < layer.getHeight(); j++) {
-                    Cell cell = layer.getCell(i, j);
-                    if (cell == null) {
-                        continue;
-                    }
-                    String textureName = (String) cell.getTile().getProperties().get("textureName");
-                    int index = (int) cell.getTile().getProperties().get("index");
-                    textures[i][j] = new TileTextureHelper.TextureWithIndex(textureName, index);
+            ArrayList<TileTextureHelper.TextureWithIndex> textures = new ArrayList<>();
+            HashMap<Integer, Integer> localIds = new HashMap<>();
+            int[] grid = new int[layer.getWidth() * layer.getHeight()];
+            for (int y = 0; y < layer.getHeight(); y++) {
+                for (int x = 0; x < layer.getWidth(); x++) {
+                    int id = registry.idOf(layer.getCell(x, y));
+                    grid[y * layer.getWidth() + x] = id == -1 ? -1 : localIds.computeIfAbsent(id, tile -> {
+                        textures.add(registry.key(tile));
+                        return textures.size() - 1;
+                    });
                 }
             }
             jsonWriter.beginObject();
             jsonWriter.name("width").value(layer.getWidth());
             jsonWriter.name("height").value(layer.getHeight());
-            jsonWriter.name("tiles");
+            jsonWriter.name("registry");
             jsonWriter.jsonValue(
-                Assets.getInstance().gson.toJson(textures)
+                GSON.toJson(textures.toArray(new TileTextureHelper.TextureWithIndex[0]))
             );
+            jsonWriter.name("grid");
+            jsonWriter.beginArray();
+            for (int id : grid) {
+                jsonWriter.value(id);
+            }
+            jsonWriter.endArray();
             jsonWriter.endObject();
         }
 
         @Override
         public TiledMap read(JsonReader jsonReader) throws IOException {
             int width = 0, height = 0;
+            Cell[] cells = null;
             jsonReader.beginObject();
             String fieldname = null;
             TiledMap map = new TiledMap();
@@ -782,12 +899,42 @@ public class TileMap implements Disposable, GSONPostRestorable {
                 switch (Objects.requireNonNull(fieldname)) {
                     case "width" -> width = jsonReader.nextInt();
                     case "height" -> height = jsonReader.nextInt();
+                    case "registry" -> {
+                        TileTextureHelper.TextureWithIndex[] textures =
+                            GSON.fromJson(jsonReader, TileTextureHelper.TextureWithIndex[].class);
+                        cells = new Cell[textures.length];
+                        for (int i = 0; i < textures.length; i++) {
+                            cells[i] = registry.cell(textures[i].texture(), textures[i].index());
+                        }
+                    }
+                    case "grid" -> {
+                        if (width == 0 || height == 0 || cells == null) {
+                            throw new IOException("Width, height and registry must be set before the grid");
+                        }
+                        TiledMapTileLayer layer =
+                            new TiledMapTileLayer(width, height,
+                                CELL_SIZE,
+                                CELL_SIZE
+                            );
+                        jsonReader.beginArray();
+                        for (int i = 0; i < width * height; i++) {
+                            int id = jsonReader.nextInt();
+                            if (id < -1 || id >= cells.length) {
+                                throw new IOException("Unknown tile " + id + " in the grid");
+                            }
+                            if (id != -1) {
+                                layer.setCell(i % width, i / width, cells[id]);
+                            }
+                        }
+                        jsonReader.endArray();
+                        map.getLayers().add(layer);
+                    }
                     case "tiles" -> {
                         if (width == 0 || height == 0) {
                             throw new IOException("Width and height must be set before tiles");
                         }
                         TileTextureHelper.TextureWithIndex[][] textures =
-                            Assets.getInstance().gson.fromJson(jsonReader, TileTextureHelper.TextureWithIndex[][].class);
+                            GSON.fromJson(jsonReader, TileTextureHelper.TextureWithIndex[][].class);
 
                         TiledMapTileLayer layer =
                             new TiledMapTileLayer(width, height,
@@ -796,22 +943,10 @@ public class TileMap implements Disposable, GSONPostRestorable {
                             );
                         for (int i = 0; i < width; i++) {
                             for (int j = 0; j < height; j++) {
-                                if (textures[i][j] == null) {
-                                    continue;
+                                if (textures[i][j] != null) {
+                                    layer.setCell(i, j,
+                                        registry.cell(textures[i][j].texture(), textures[i][j].index()));
                                 }
-                                Cell mapCell = new Cell();
-                                TextureRegion result =
-                                    Assets.getInstance().tileTextureHelper.getTexture(
-                                        textures[i][j].texture(), textures[i][j].index()
-                                    );
-                                mapCell.setTile(
-                                    new StaticTiledMapTile(
-                                        result
-                                    )
-                                );
-                                mapCell.getTile().getProperties().put("textureName", textures[i][j].texture());
-                                mapCell.getTile().getProperties().put("index", textures[i][j].index());
-                                layer.setCell(i, j, mapCell);
                             }
                         }
                         map.getLayers().add(layer);
@@ -0,0 +1,308 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.Gdx;
+import de.tum.cit.fop.maze.level.worldgen.MazeAlgorithmType;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
+import de.tum.cit.fop.maze.level.worldgen.MazeLevelFile;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static de.tum.cit.fop.maze.Globals.LEVEL_CACHE_DIRECTORY;
+import static de.tum.cit.fop.maze.Globals.LEVEL_CACHE_MAX_BYTES;
+
+/**
+ * <h2>TileMap build cache</h2>
+ * <p>On-disk cache of the deterministic part of a {@link TileMap} built from a seed: the maze grid, the texture of
+ * every tile, the wall map and the merged wall hitboxes. Building the same seed again, e.g. when retrying a level,
+ * loads the entry instead of carving the maze, rolling the texture variations and merging the hitboxes.</p>
+ * <p>Entries are keyed by the seed, the dimensions, the algorithm and {@link #GENERATOR_VERSION}. Loading an entry
+ * touches its modification time, the least recently used entries are evicted once the cache exceeds
+ * {@code LEVEL_CACHE_MAX_BYTES}.</p>
+ * <p>The cache is best-effort: unreadable entries are deleted and treated as misses, write failures are logged.</p>
+ */
+public final class TileMapCache {
+    /// Must be increased whenever the generation or the tile building changes its output for the same seed
+    public static final int GENERATOR_VERSION = 1;
+    /// {@code "MZTC"}
+    private static final int MAGIC = 0x4D5A5443;
+    private static final String EXTENSION = ".bin";
+    private static final String LOG_TAG = "TileMapCache";
+
+    private static TileMapCache instance;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * Creates a cache in the given directory
+     *
+     * @param directory directory of the entries, created when the first entry is stored
+     * @param maxBytes  maximum total size of the entries
+     */
+    public TileMapCache(Path directory, long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the cache in the local {@code LEVEL_CACHE_DIRECTORY}
+     */
+    public static TileMapCache getInstance() {
+        if (instance == null) {
+            instance = new TileMapCache(
+                Gdx.files.local(LEVEL_CACHE_DIRECTORY).file().toPath(), LEVEL_CACHE_MAX_BYTES
+            );
+        }
+        return instance;
+    }
+
+    /**
+     * @param seed          the seed of the level
+     * @param height        the requested height of the maze
+     * @param width         the requested width of the maze
+     * @param algorithmType the algorithm carving the walls of the maze
+     * @return the key of the entry
+     */
+    public static String key(long seed, int height, int width, MazeAlgorithmType algorithmType) {
+        return String.format(Locale.ROOT, "%016x-%dx%d-%s-v%d",
+            seed, height, width, algorithmType.name().toLowerCase(Locale.ROOT), GENERATOR_VERSION);
+    }
+
+    /**
+     * Loads the entry and marks it as recently used
+     *
+     * @param key the key of the entry, see {@link #key(long, int, int, MazeAlgorithmType)}
+     * @return the entry, {@code null} if it is not cached or unreadable
+     */
+    public @Nullable Entry load(String key) {
+        Path file = directory.resolve(key + EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Entry entry = read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry;
+        } catch (IOException | RuntimeException e) {
+            /// A corrupt entry must not fail the level, it is rebuilt like a missing one
+            Gdx.app.error(LOG_TAG, "Discarding unreadable entry " + key, e);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                /// Overwritten by the next store anyway
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Stores the entry and evicts the least recently used entries above the size cap
+     *
+     * @param key   the key of the entry, see {@link #key(long, int, int, MazeAlgorithmType)}
+     * @param entry the entry
+     */
+    public void store(String key, Entry entry) {
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream output =
+                     new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                write(entry, output);
+            }
+            Files.move(temporary, directory.resolve(key + EXTENSION),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            evict();
+        } catch (IOException e) {
+            Gdx.app.error(LOG_TAG, "Failed to store entry " + key, e);
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the total size is within the cap
+     *
+     * @throws IOException if the directory cannot be listed
+     */
+    private void evict() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> list = Files.list(directory)) {
+            list.filter(file -> file.getFileName().toString().endsWith(EXTENSION)).forEach(files::add);
+        }
+        long total = 0;
+        long[] sizes = new long[files.size()];
+        long[] modified = new long[files.size()];
+        for (int k = 0; k < files.size(); k++) {
+            sizes[k] = Files.size(files.get(k));
+            modified[k] = Files.getLastModifiedTime(files.get(k)).toMillis();
+            total += sizes[k];
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        Integer[] order = new Integer[files.size()];
+        for (int k = 0; k < order.length; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, Comparator.comparingLong(k -> modified[k]));
+        /// The newest entry is kept even if it alone exceeds the cap
+        for (int k = 0; k < order.length - 1 && total > maxBytes; k++) {
+            Files.deleteIfExists(files.get(order[k]));
+            total -= sizes[order[k]];
+        }
+    }
+
+    private static void write(Entry entry, DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(GENERATOR_VERSION);
+        MazeLevelFile.write(entry.grid(), output);
+
+        output.writeInt(entry.width());
+        output.writeInt(entry.height());
+        output.writeShort(entry.textureNames().length);
+        for (String name : entry.textureNames()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            output.writeShort(bytes.length);
+            output.write(bytes);
+        }
+        for (short texture : entry.textures()) {
+            output.writeShort(texture);
+        }
+        output.write(entry.textureIndices());
+
+        /// Wall map packed to bits, row-major
+        int bits = 0;
+        int count = 0;
+        for (boolean[] row : entry.wallMap()) {
+            for (boolean wall : row) {
+                bits |= (wall ? 1 : 0) << count;
+                if (++count == 8) {
+                    output.writeByte(bits);
+                    bits = 0;
+                    count = 0;
+                }
+            }
+        }
+        if (count > 0) {
+            output.writeByte(bits);
+        }
+
+        int hitboxes = entry.hitboxFilters().length / 2;
+        output.writeInt(hitboxes);
+        for (float value : entry.hitboxes()) {
+            output.writeFloat(value);
+        }
+        for (short filter : entry.hitboxFilters()) {
+            output.writeShort(filter);
+        }
+    }
+
+    private static Entry read(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a cache entry");
+            }
+            if (buffer.getInt() != GENERATOR_VERSION) {
+                throw new IllegalArgumentException("Cache entry of another generator version");
+            }
+            MazeGrid grid = MazeLevelFile.read(buffer);
+
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            if (width <= 0 || height <= 0 || (long) width * height * 3 > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid tile dimensions " + width + "x" + height);
+            }
+            String[] textureNames = new String[length(buffer, 2)];
+            for (int k = 0; k < textureNames.length; k++) {
+                byte[] bytes = new byte[length(buffer, 1)];
+                buffer.get(bytes);
+                textureNames[k] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            short[] textures = new short[width * height];
+            for (int k = 0; k < textures.length; k++) {
+                textures[k] = buffer.getShort();
+                if (textures[k] < -1 || textures[k] >= textureNames.length) {
+                    throw new IllegalArgumentException("Invalid texture id " + textures[k]);
+                }
+            }
+            byte[] textureIndices = new byte[width * height];
+            buffer.get(textureIndices);
+
+            boolean[][] wallMap = new boolean[height][width];
+            int bits = 0;
+            int count = 8;
+            for (boolean[] row : wallMap) {
+                for (int j = 0; j < width; j++) {
+                    if (count == 8) {
+                        bits = buffer.get();
+                        count = 0;
+                    }
+                    row[j] = (bits & (1 << count++)) != 0;
+                }
+            }
+
+            int hitboxes = buffer.getInt();
+            if (hitboxes < 0 || hitboxes > buffer.remaining() / 20) {
+                throw new IllegalArgumentException("Invalid hitbox count " + hitboxes);
+            }
+            float[] rectangles = new float[hitboxes * 4];
+            for (int k = 0; k < rectangles.length; k++) {
+                rectangles[k] = buffer.getFloat();
+            }
+            short[] filters = new short[hitboxes * 2];
+            for (int k = 0; k < filters.length; k++) {
+                filters[k] = buffer.getShort();
+            }
+            return new Entry(grid, width, height, textureNames, textures, textureIndices, wallMap, rectangles, filters);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated cache entry", e);
+        }
+    }
+
+    /**
+     * Reads an unsigned short length and checks that the buffer holds that many elements
+     *
+     * @param buffer       the entry
+     * @param bytesPerItem the minimal size of an element in bytes
+     * @return the length
+     * @throws IllegalArgumentException if the entry is too short for the elements
+     */
+    private static int length(ByteBuffer buffer, int bytesPerItem) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if ((long) length * bytesPerItem > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid length " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Cached build of a {@link TileMap}
+     *
+     * @param grid           the generated maze
+     * @param width          width of the tile layer
+     * @param height         height of the tile layer
+     * @param textureNames   names of the textures used by the tiles
+     * @param textures       texture name id of every tile, {@code y * width + x}, {@code -1} if the tile is not set
+     * @param textureIndices texture variation index of every tile, unsigned
+     * @param wallMap        the wall map of the TileMap
+     * @param hitboxes       {@code x, y, hx, hy} of every wall hitbox in cells
+     * @param hitboxFilters  {@code categoryBits, maskBits} of every wall hitbox
+     */
+    public record Entry(MazeGrid grid, int width, int height, String[] textureNames, short[] textures,
+                        byte[] textureIndices, boolean[][] wallMap, float[] hitboxes, short[] hitboxFilters) {
+    }
+}
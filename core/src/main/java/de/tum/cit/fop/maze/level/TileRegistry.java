@@ -0,0 +1,129 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import de.tum.cit.fop.maze.essentials.Assets;
+import de.tum.cit.fop.maze.essentials.TileTextureHelper;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.BiFunction;
+
+/**
+ * <h2>Tile registry</h2>
+ * <p>Interns the tiles of the maps, so that every texture variation, a texture name with the index of the variation,
+ * has a single {@link StaticTiledMapTile} and a single {@link Cell} referencing it. The layers of a map hold
+ * references to the shared cells instead of a cell, a tile and its properties per tile of the map. The shared cells
+ * must not be flipped or rotated.</p>
+ * <p>Every interned tile gets a dense id in the order of interning, which is its {@link StaticTiledMapTile#getId()}.
+ * The tiles keep the {@code "textureName"} and {@code "index"} properties of the variation.</p>
+ */
+public final class TileRegistry {
+    private static TileRegistry instance;
+
+    private final ArrayList<StaticTiledMapTile> tiles = new ArrayList<>();
+    private final ArrayList<Cell> cells = new ArrayList<>();
+    private final ArrayList<TileTextureHelper.TextureWithIndex> keys = new ArrayList<>();
+    private final HashMap<TileTextureHelper.TextureWithIndex, Integer> ids = new HashMap<>();
+    /// Texture region of a texture name and the index of the variation
+    private final BiFunction<String, Integer, TextureRegion> textures;
+
+    /**
+     * @param textures the texture region of a texture name and the index of the variation
+     */
+    TileRegistry(BiFunction<String, Integer, TextureRegion> textures) {
+        this.textures = textures;
+    }
+
+    /**
+     * @return the registry of the tile textures of the {@link Assets}
+     */
+    public static synchronized TileRegistry getInstance() {
+        if (instance == null) {
+            instance = new TileRegistry(
+                (textureName, index) -> Assets.getInstance().tileTextureHelper.getTexture(textureName, index)
+            );
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the id of a texture variation, interning its tile on first use
+     *
+     * @param textureName the name of the texture
+     * @param index       the index of the variation
+     * @return the id of the tile
+     */
+    public synchronized int id(String textureName, int index) {
+        TileTextureHelper.TextureWithIndex key = new TileTextureHelper.TextureWithIndex(textureName, index);
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        StaticTiledMapTile tile = new StaticTiledMapTile(textures.apply(textureName, index));
+        tile.setId(tiles.size());
+        tile.getProperties().put("textureName", textureName);
+        tile.getProperties().put("index", index);
+        Cell cell = new Cell();
+        cell.setTile(tile);
+        tiles.add(tile);
+        cells.add(cell);
+        keys.add(key);
+        ids.put(key, tile.getId());
+        return tile.getId();
+    }
+
+    /**
+     * @param textureName the name of the texture
+     * @param index       the index of the variation
+     * @return the shared cell of the texture variation
+     */
+    public synchronized Cell cell(String textureName, int index) {
+        return cells.get(id(textureName, index));
+    }
+
+    /**
+     * @param id the id of an interned tile
+     * @return the shared cell of the tile
+     */
+    public synchronized Cell cell(int id) {
+        return cells.get(checkId(id));
+    }
+
+    /**
+     * @param id the id of an interned tile
+     * @return the texture name and the index of the variation of the tile
+     */
+    public synchronized TileTextureHelper.TextureWithIndex key(int id) {
+        return keys.get(checkId(id));
+    }
+
+    /**
+     * @param cell a cell of a map layer
+     * @return the id of the tile of the cell, {@code -1} if the cell is empty or its tile was not interned, like
+     * the tiles of the debug layer
+     */
+    public synchronized int idOf(@Nullable Cell cell) {
+        if (cell == null || cell.getTile() == null) {
+            return -1;
+        }
+        int id = cell.getTile().getId();
+        return id >= 0 && id < tiles.size() && tiles.get(id) == cell.getTile() ? id : -1;
+    }
+
+    /**
+     * @return the number of interned tiles
+     */
+    public synchronized int size() {
+        return tiles.size();
+    }
+
+    private int checkId(int id) {
+        if (id < 0 || id >= tiles.size()) {
+            throw new IllegalArgumentException("Unknown tile id: " + id);
+        }
+        return id;
+    }
+}
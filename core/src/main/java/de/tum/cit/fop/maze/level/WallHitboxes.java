@@ -0,0 +1,403 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ShortArray;
+import de.tum.cit.fop.maze.essentials.BodyBits;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+import static de.tum.cit.fop.maze.Globals.CELL_SIZE_METERS;
+import static de.tum.cit.fop.maze.Globals.HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS;
+
+/**
+ * <h2>Wall hitboxes</h2>
+ * <p>Builds the wall map of a {@link TileMap} and merges its runs of wall cells into static Box2D bodies,
+ * either for the whole map at once or row by row for a streamed map.</p>
+ * <p>Every created hitbox is recorded in cell units, so that the merged result can be stored in the
+ * {@link TileMapCache} and recreated with {@link #createHitboxes(World, float[], short[])}.</p>
+ * <p>The wallMap is indexed {@code [row][column]} with row {@code 0} at the bottom of the map.</p>
+ */
+public final class WallHitboxes {
+    private final World world;
+    private final boolean[][] wallMap;
+    private final int width;
+    private final int height;
+    /// Created hitboxes {@code x, y, hx, hy} in cells
+    private final FloatArray hitboxes = new FloatArray();
+    /// Filters {@code categoryBits, maskBits} of the created hitboxes
+    private final ShortArray filters = new ShortArray();
+    /// Next row of a streamed map without hitboxes
+    private int hitboxRow;
+    /// Top wallMap row of the open vertical wall of every column of cells, {@code -1} if there is none
+    private int[] verticalWallTops;
+
+    /**
+     * @param world   the Box2D world to create the bodies in
+     * @param wallMap the wall map, {@code [row][column]}
+     */
+    public WallHitboxes(World world, boolean[][] wallMap) {
+        this.world = world;
+        this.wallMap = wallMap;
+        this.height = wallMap.length;
+        this.width = height == 0 ? 0 : wallMap[0].length;
+    }
+
+    /**
+     * Recreates recorded hitboxes
+     *
+     * @param world    the Box2D world to create the bodies in
+     * @param hitboxes {@code x, y, hx, hy} of every hitbox in cells, see {@link #getHitboxes()}
+     * @param filters  {@code categoryBits, maskBits} of every hitbox, see {@link #getFilters()}
+     */
+    public static void createHitboxes(World world, float[] hitboxes, short[] filters) {
+        for (int k = 0; k < filters.length / 2; k++) {
+            FixtureDef fixtureDef = new FixtureDef();
+            fixtureDef.filter.categoryBits = filters[k * 2];
+            fixtureDef.filter.maskBits = filters[k * 2 + 1];
+            createHitbox(world, hitboxes[k * 4], hitboxes[k * 4 + 1], hitboxes[k * 4 + 2], hitboxes[k * 4 + 3],
+                fixtureDef);
+        }
+    }
+
+    /**
+     * @return {@code x, y, hx, hy} of every created hitbox in cells
+     */
+    public float[] getHitboxes() {
+        return hitboxes.toArray();
+    }
+
+    /**
+     * @param fromHitbox index of the first hitbox
+     * @return {@code x, y, hx, hy} of the hitboxes created after the first {@code fromHitbox} ones
+     */
+    public float[] getHitboxes(int fromHitbox) {
+        return Arrays.copyOfRange(hitboxes.items, fromHitbox * 4, hitboxes.size);
+    }
+
+    /**
+     * @return number of created hitboxes
+     */
+    public int getHitboxCount() {
+        return hitboxes.size / 4;
+    }
+
+    /**
+     * @return {@code categoryBits, maskBits} of every created hitbox
+     */
+    public short[] getFilters() {
+        return filters.toArray();
+    }
+
+    /**
+     * Builds the wall map of a whole maze, three by three tiles and the tiles around them for every wall cell
+     *
+     * @param grid the maze
+     * @return the wall map, {@code [row][column]} with row {@code 0} at the bottom of the map
+     */
+    public static boolean[][] wallMapOf(MazeGrid grid) {
+        int height = grid.height * 3;
+        boolean[][] wallMap = new boolean[height][grid.width * 3];
+        for (int i = 0; i < grid.height; i++) {
+            for (int j = 0; j < grid.width; j++) {
+                if (grid.get(i, j).isWall()) {
+                    setHitboxWallSquare(wallMap, 1 + j * 3, height - (2 + i * 3), false);
+                }
+            }
+        }
+        reverseCollisionMapRows(wallMap);
+        return wallMap;
+    }
+
+    /**
+     * Reverses the collision map rows
+     *
+     * @param collisionMap the collision map with the cells
+     */
+    public static void reverseCollisionMapRows(boolean[][] collisionMap) {
+        int height = collisionMap.length;
+        for (int i = 0; i < height / 2; ++i) {
+            for (int j = 0; j < collisionMap[i].length; ++j) {
+                boolean tmp = collisionMap[i][j];
+                collisionMap[i][j] = collisionMap[height - 1 - i][j];
+                collisionMap[height - 1 - i][j] = tmp;
+            }
+        }
+    }
+
+    /**
+     * Sets a wall square for the wallMap at x y position
+     *
+     * @param wallMap  the collision map with the cells
+     * @param x        the x position
+     * @param y        the y position
+     * @param bottomUp {@code true} if the rows of the wallMap are already in map order
+     */
+    public static void setHitboxWallSquare(boolean[][] wallMap, int x, int y, boolean bottomUp) {
+        int height = wallMap.length;
+        int[][] allSurrounding = {
+            {0, 0},
+            {-1, 0},
+            {1, 0},
+            {0, -1},
+            {0, 1},
+            {-1, -1},
+            {1, -1},
+            {-1, 1},
+            {1, 1}
+        };
+        ///  Height is reversed since the map is drawn from the top left corner,
+        ///  streamed maps need the hitboxes before the whole map is built, so they are not reversed afterwards
+        for (int[] surrounding : allSurrounding) {
+            int row = bottomUp ? y + surrounding[1] : height - 1 - y - surrounding[1];
+            wallMap[row][x + surrounding[0]] = true;
+        }
+    }
+
+    /**
+     * Calls {@link #createRectangularHitbox(float, float, float, float, FixtureDef)} with {@code fixtureDef} set to null
+     */
+    private void createRectangularHitbox(float x, float y, float hx, float hy) {
+        createRectangularHitbox(x, y, hx, hy, null);
+    }
+
+    /**
+     * Helper function to create a hitbox at x y position considering the cell size
+     * Create a hitbox at x y position with hx hy size
+     *
+     * @param x          the x position
+     * @param y          the y position
+     * @param hx         the x size
+     * @param hy         the y size
+     * @param fixtureDef the fixture definition
+     */
+    private void createRectangularHitbox(float x, float y, float hx, float hy, @Nullable FixtureDef fixtureDef) {
+        hitboxes.add(x, y, hx, hy);
+        filters.add(fixtureDef == null ? BodyBits.WALL : fixtureDef.filter.categoryBits);
+        filters.add(fixtureDef == null ? BodyBits.WALL_MASK : fixtureDef.filter.maskBits);
+        createHitbox(world, x, y, hx, hy, fixtureDef);
+    }
+
+    /**
+     * Creates a static wall body at x y position with hx hy size, both in cells
+     *
+     * @param world      the Box2D world
+     * @param x          the x position
+     * @param y          the y position
+     * @param hx         the x size
+     * @param hy         the y size
+     * @param fixtureDef the fixture definition, a plain wall if {@code null}
+     */
+    private static void createHitbox(World world, float x, float y, float hx, float hy,
+                                     @Nullable FixtureDef fixtureDef) {
+        hx *= CELL_SIZE_METERS / 2;
+        hy *= CELL_SIZE_METERS / 2;
+        x = x * CELL_SIZE_METERS + hx;
+        y = y * CELL_SIZE_METERS + hy;
+
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.StaticBody;
+        bodyDef.position.set(x, y);
+
+        Body body = world.createBody(bodyDef);
+        PolygonShape shape = new PolygonShape();
+        shape.setAsBox(hx, hy);
+        if (fixtureDef == null) {
+            fixtureDef = new FixtureDef();
+            fixtureDef.filter.categoryBits = BodyBits.WALL;
+            fixtureDef.filter.maskBits = BodyBits.WALL_MASK;
+        }
+        fixtureDef.shape = shape;
+        body.createFixture(fixtureDef);
+        shape.dispose();
+    }
+
+    /**
+     * Check if the cell at i j position is isolated, requires special treatment, since we draw a decoration there
+     *
+     * @param x the x position
+     * @param y the y position
+     * @return {@code true} if the cell is isolated
+     */
+    private boolean isIsolatedCollidable(int x, int y) {
+        if (y - 2 <= 0 || x - 2 <= 0 || y + 2 >= height || x + 2 >= width) {
+            return false;
+        }
+        return !wallMap[y - 2][x] && !wallMap[y + 2][x] && !wallMap[y][x - 2] && !wallMap[y][x + 2];
+    }
+
+    /**
+     * Generate hitboxes for the map
+     */
+    public void generateHitboxes() {
+        generateVerticalHitboxes();
+        generateHorizontalHitboxes();
+    }
+
+    /**
+     * Merges the vertical runs of wall cells of every column into hitboxes
+     */
+    public void generateVerticalHitboxes() {
+        for (int j = 0; j < width; j += 3) {
+            int y = -1;
+            int hy = 0;
+            for (int i = 0; i < height; i += 3) {
+                if (wallMap[i][j]) {
+                    if (y == -1) {
+                        y = i;
+                    }
+                    hy += 3;
+                } else {
+                    if (y != -1) {
+                        createVerticalWallHitbox(j, y, hy, false);
+                        y = -1;
+                        hy = 0;
+                    }
+                }
+            }
+            if (y != -1) {
+                createVerticalWallHitbox(j, y, hy, true);
+            }
+        }
+
+    }
+
+    /**
+     * Creates the hitboxes of a vertical wall
+     *
+     * @param j          the wallMap column of the wall
+     * @param y          the bottom wallMap row of the wall
+     * @param hy         the height of the wall in cells
+     * @param reachesTop {@code true} if the wall reaches the top of the map
+     */
+    private void createVerticalWallHitbox(int j, int y, int hy, boolean reachesTop) {
+        if (hy <= 3) {
+            return;
+        }
+        int x = (j - 1);
+        /// HY reduced by 0.05 to avoid collision above the wall
+        /// 1.8 is the height of the wall (less than usual 3 because of projection)
+        /// x + 1 and y + 1.8 are the starting point of the wall
+        FixtureDef temp = new FixtureDef();
+        temp.filter.categoryBits = BodyBits.WALL_TRANSPARENT;
+        temp.filter.maskBits = BodyBits.WALL_TRANSPARENT_MASK;
+        createRectangularHitbox(
+            x + 1, y + HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS + 0.1f, 3f,
+            HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS - 0.1f, temp);
+        if (reachesTop) {
+            createRectangularHitbox(x + 1, y + 3f, 3, hy - 2.8f);
+        } else {
+            createRectangularHitbox(x + 1f, y + 2.8f, 2.95f, hy - 2.8f);
+        }
+    }
+
+    /**
+     * Merges the horizontal runs of wall cells of every row into hitboxes
+     */
+    public void generateHorizontalHitboxes() {
+        for (int i = 0; i < height; i += 3) {
+            generateHorizontalHitboxes(i);
+        }
+    }
+
+    /**
+     * Generates the hitboxes of the horizontal walls in a row of cells
+     *
+     * @param i the bottom wallMap row of the cells
+     */
+    public void generateHorizontalHitboxes(int i) {
+        int x = -1;
+        int y = (i - 1);
+        int hx = 0;
+        for (int j = 0; j < width; j += 3) {
+            if (wallMap[i][j]) {
+                if (x == -1) {
+                    x = j;
+                }
+                hx += 3;
+            } else {
+                if (x != -1) {
+                    /// x is offset for 0.025f to avoid collision with the tiny pixel
+                    if (hx > 3 || isIsolatedCollidable(j - 2, i + 1)) {
+                        FixtureDef temp = new FixtureDef();
+                        temp.filter.categoryBits = BodyBits.WALL_TRANSPARENT;
+                        temp.filter.maskBits = BodyBits.WALL_TRANSPARENT_MASK;
+                        createRectangularHitbox(
+                            x + 0.04f, y + 1 + HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS, hx - 0.07f,
+                            HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS, temp);
+                        createRectangularHitbox(x + 0.12f, y + 3f + 0.6f, hx - 0.24f, 0.3f);
+                    }
+
+                    x = -1;
+                    hx = 0;
+                }
+            }
+        }
+        if (x != -1 && hx > 3) {
+            FixtureDef temp = new FixtureDef();
+            temp.filter.categoryBits = BodyBits.WALL_TRANSPARENT;
+            temp.filter.maskBits = BodyBits.WALL_TRANSPARENT_MASK;
+            createRectangularHitbox(
+                x + 0.07f, y + 1 + HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS, hx - 0.07f,
+                HORIZONTAL_WALL_HITBOX_HEIGHT_CELLS, temp);
+            createRectangularHitbox(x + 0.12f, y + 3f + 0.6f, hx - 0.24f, 0.3f);
+        }
+    }
+
+    /**
+     * Generates the hitboxes of the streamed rows up to the given row. Streamed rows arrive from the top,
+     * so vertical walls are tracked from their top wallMap row until a row without the wall closes them.
+     *
+     * @param lastRow the last row of the maze to generate the hitboxes for
+     */
+    public void generateStreamedHitboxes(int lastRow) {
+        if (verticalWallTops == null) {
+            verticalWallTops = new int[width / 3];
+            Arrays.fill(verticalWallTops, -1);
+        }
+        for (; hitboxRow <= lastRow; ++hitboxRow) {
+            int i = height - 3 - hitboxRow * 3;
+            generateHorizontalHitboxes(i);
+            for (int j = 0; j < width; j += 3) {
+                if (wallMap[i][j]) {
+                    if (verticalWallTops[j / 3] == -1) {
+                        verticalWallTops[j / 3] = i;
+                    }
+                } else {
+                    closeVerticalWall(j, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the hitboxes of the open vertical wall of a column of a streamed map
+     *
+     * @param j the wallMap column of the wall
+     * @param i the wallMap row below the wall
+     */
+    private void closeVerticalWall(int j, int i) {
+        int top = verticalWallTops[j / 3];
+        if (top == -1) {
+            return;
+        }
+        verticalWallTops[j / 3] = -1;
+        createVerticalWallHitbox(j, i + 3, top - i, top == height - 3);
+    }
+
+    /**
+     * Creates the hitboxes of the vertical walls still open at the bottom of a fully streamed map
+     */
+    public void closeStreamedHitboxes() {
+        for (int j = 0; j < width; j += 3) {
+            closeVerticalWall(j, -3);
+        }
+        verticalWallTops = null;
+    }
+}
@@ -0,0 +1,274 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import com.badlogic.gdx.utils.Null;
+import de.tum.cit.fop.maze.level.GenerationCases;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+/**
+ * <h1>Batch maze generator</h1>
+ * <p>Generates many independent levels in parallel on a {@link ForkJoinPool}, e.g. to validate the generator
+ * or to pre-generate levels offline. Only {@link MazeGenerator} is used, no graphics context is needed.</p>
+ * <p>The seed of every level is split from a {@link SplittableRandom} with the master seed in level order before
+ * any work is started and every level has its own generator, so the result is bit-identical for any number of
+ * threads.</p>
+ * <p>Streamed levels are generated with {@link StreamingMazeGenerator} instead and checked row by row the way the
+ * {@code TileMap} builds them, see {@link #generateStreamedLevel(int, long)}.</p>
+ */
+public final class BatchMazeGenerator {
+    /// Number of levels a fork-join task generates without splitting further
+    private static final int SEQUENTIAL_THRESHOLD = 4;
+    private final int height;
+    private final int width;
+    private final MazeAlgorithmType algorithmType;
+    private final boolean streamed;
+
+    /**
+     * @param height        the height of the levels, see {@link MazeGenerator#MazeGenerator(int, int, Random)}
+     * @param width         the width of the levels, see {@link MazeGenerator#MazeGenerator(int, int, Random)}
+     * @param algorithmType the algorithm carving the walls of the levels
+     */
+    public BatchMazeGenerator(int height, int width, MazeAlgorithmType algorithmType) {
+        this(height, width, algorithmType, false);
+    }
+
+    /**
+     * @param height        the height of the levels, see {@link MazeGenerator#MazeGenerator(int, int, Random)}
+     * @param width         the width of the levels, see {@link MazeGenerator#MazeGenerator(int, int, Random)}
+     * @param algorithmType the algorithm carving the walls of the levels, ignored for streamed levels
+     * @param streamed      {@code true} to generate streamed levels
+     */
+    public BatchMazeGenerator(int height, int width, MazeAlgorithmType algorithmType, boolean streamed) {
+        this.height = height;
+        this.width = width;
+        this.algorithmType = algorithmType;
+        this.streamed = streamed;
+    }
+
+    /**
+     * Generates the levels
+     *
+     * @param masterSeed the seed all level seeds are derived from
+     * @param count      number of levels
+     * @param threads    number of worker threads
+     * @return stats of every level, in level order
+     */
+    public LevelStats[] generate(long masterSeed, int count, int threads) {
+        return generate(masterSeed, count, threads, LevelStats[]::new,
+            (index, seed) -> streamed ? generateStreamedLevel(index, seed) : generateLevel(index, seed));
+    }
+
+    /**
+     * Generates the levels and keeps their grids, e.g. to compare batches cell by cell
+     *
+     * @param masterSeed the seed all level seeds are derived from
+     * @param count      number of levels
+     * @param threads    number of worker threads
+     * @return the grid of every level, in level order, {@code null} for the levels that could not be generated
+     */
+    public MazeGrid[] generateGrids(long masterSeed, int count, int threads) {
+        return generate(masterSeed, count, threads, MazeGrid[]::new,
+            (index, seed) -> streamed ? generateStreamedGrid(index, seed) : generateGrid(seed));
+    }
+
+    private <T> T[] generate(long masterSeed, int count, int threads, IntFunction<T[]> array, Level<T> level) {
+        if (count < 0 || threads <= 0) {
+            throw new IllegalArgumentException("Invalid level count or thread count");
+        }
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        long[] seeds = new long[count];
+        for (int k = 0; k < count; k++) {
+            seeds[k] = master.split().nextLong();
+        }
+        T[] results = array.apply(count);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new GenerateTask<>(level, seeds, results, 0, count));
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    /**
+     * Generates a single level
+     *
+     * @param index index of the level in the batch
+     * @param seed  seed of the level
+     * @return the stats of the level
+     */
+    public LevelStats generateLevel(int index, long seed) {
+        MazeGrid grid = generateGrid(seed);
+        return grid == null ? LevelStats.failed(index, seed) : LevelStats.of(index, seed, grid);
+    }
+
+    /**
+     * @param seed seed of the level
+     * @return the grid of the level, {@code null} if it could not be generated
+     */
+    private @Null MazeGrid generateGrid(long seed) {
+        MazeGenerator generator = new MazeGenerator(
+            height, width, new SplittableRandomAdapter(new SplittableRandom(seed)), algorithmType.create()
+        );
+        try {
+            generator.generate();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return generator.getGrid();
+    }
+
+    /**
+     * Generates a single streamed level to the end. Every emitted row is checked on its window like the
+     * {@code TileMap} builds it, the rows are collected into a grid for the stats.
+     *
+     * @param index index of the level in the batch
+     * @param seed  seed of the level
+     * @return the stats of the level
+     * @throws IllegalStateException if the exit door cannot be reached from the row above it
+     */
+    public LevelStats generateStreamedLevel(int index, long seed) {
+        MazeGrid grid = generateStreamedGrid(index, seed);
+        return grid == null ? LevelStats.failed(index, seed) : LevelStats.of(index, seed, grid);
+    }
+
+    /**
+     * @param index index of the level in the batch
+     * @param seed  seed of the level
+     * @return the grid of the streamed level, {@code null} if it could not be generated
+     * @throws IllegalStateException if the exit door cannot be reached from the row above it
+     */
+    private @Null MazeGrid generateStreamedGrid(int index, long seed) {
+        StreamingMazeGenerator generator;
+        MazeGrid grid;
+        try {
+            generator = new StreamingMazeGenerator(
+                height, width, new SplittableRandomAdapter(new SplittableRandom(seed))
+            );
+            grid = new MazeGrid(generator.height, generator.width);
+            generator.generateAll((row, window) -> {
+                for (int j = 0; j < window.width; j++) {
+                    grid.set(row, j, window.get(1, j));
+                    if (window.get(1, j) == CellType.EXIT_DOOR &&
+                        GenerationCases.getFirstSurroundingPath(1, j, row, window) == null) {
+                        throw new IllegalStateException("EXIT_DOOR is unreachable in streamed level " + index);
+                    }
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return grid;
+    }
+
+    /**
+     * Generates levels and prints their stats as CSV.
+     * <p>Arguments: {@code masterSeed count [size] [threads] [algorithm] [streamed]}</p>
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: BatchMazeGenerator masterSeed count [size] [threads] [algorithm] [streamed]");
+            System.exit(1);
+        }
+        long masterSeed = Long.parseLong(args[0]);
+        int count = Integer.parseInt(args[1]);
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 35;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        MazeAlgorithmType algorithmType =
+            args.length > 4 ? MazeAlgorithmType.valueOf(args[4]) : MazeAlgorithmType.WILSON;
+        boolean streamed = args.length > 5 && Boolean.parseBoolean(args[5]);
+
+        long start = System.nanoTime();
+        LevelStats[] results = new BatchMazeGenerator(size, size, algorithmType, streamed)
+            .generate(masterSeed, count, threads);
+        long elapsed = System.nanoTime() - start;
+
+        StringBuilder sb = new StringBuilder("index,seed,generated,deadEnds,pathLength,traps,checksum\n");
+        long batchChecksum = 0;
+        int failed = 0;
+        for (LevelStats stats : results) {
+            sb.append(stats.index()).append(',')
+                .append(stats.seed()).append(',')
+                .append(stats.generated()).append(',')
+                .append(stats.deadEnds()).append(',')
+                .append(stats.pathLength()).append(',')
+                .append(stats.traps()).append(',')
+                .append(Long.toHexString(stats.checksum())).append('\n');
+            batchChecksum = batchChecksum * 31 + stats.checksum();
+            if (!stats.generated()) {
+                ++failed;
+            }
+        }
+        System.out.print(sb);
+        System.err.printf("%d levels (%d failed) in %.1f ms on %d threads, batch checksum %s%n",
+            count, failed, elapsed / 1e6, threads, Long.toHexString(batchChecksum));
+    }
+
+    /**
+     * Generates a single level of a batch
+     *
+     * @param <T> the result of a level
+     */
+    @FunctionalInterface
+    private interface Level<T> {
+        T generate(int index, long seed);
+    }
+
+    /**
+     * Fork-join task generating the levels {@code from..to-1}
+     */
+    private static final class GenerateTask<T> extends RecursiveAction {
+        private final Level<T> level;
+        private final long[] seeds;
+        private final T[] results;
+        private final int from;
+        private final int to;
+
+        GenerateTask(Level<T> level, long[] seeds, T[] results, int from, int to) {
+            this.level = level;
+            this.seeds = seeds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int k = from; k < to; k++) {
+                    results[k] = level.generate(k, seeds[k]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new GenerateTask<>(level, seeds, results, from, middle),
+                new GenerateTask<>(level, seeds, results, middle, to)
+            );
+        }
+    }
+
+    /**
+     * <p>{@link Random} view of a {@link SplittableRandom}, since {@link MazeGenerator} and the rooms take a
+     * {@link Random}. All methods of {@link Random} are derived from {@link #next(int)}, so the sequence only
+     * depends on the seed of the {@link SplittableRandom}.</p>
+     */
+    private static final class SplittableRandomAdapter extends Random {
+        private final SplittableRandom splittableRandom;
+
+        SplittableRandomAdapter(SplittableRandom splittableRandom) {
+            this.splittableRandom = splittableRandom;
+        }
+
+        @Override
+        protected int next(int bits) {
+            return splittableRandom.nextInt() >>> (32 - bits);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <h2>Eller's algorithm</h2>
+ * <p>Builds the maze one row of maze cells at a time, only the set membership of the current row is kept,
+ * so the memory use is proportional to the width of the maze and not to its area.</p>
+ * <p>For every row:
+ * <ol>
+ *     <li>Cells that are not connected to the row above get a set of their own.</li>
+ *     <li>Neighbouring cells of different sets are randomly joined (always in the last row).</li>
+ *     <li>Every set gets at least one passage down, other cells go down randomly.
+ *     The cells below the passages keep the set of the cell above.</li>
+ * </ol>
+ * </p>
+ */
+public final class EllersAlgorithm implements MazeAlgorithm {
+    /// Number of maze cell columns
+    private int columns;
+    /// Set of every cell in the current row, {@code 0} if the cell has no set yet
+    private int[] sets = new int[0];
+    /// Per set id: whether the id is used in the current row
+    private boolean[] used = new boolean[1];
+    /// Per set id: number of cells of the set in the current row
+    private int[] memberCount = new int[1];
+    /// Per set id: number of cells of the set that go down
+    private int[] downCount = new int[1];
+    /// Per set id: which member is forced to go down if no member went down randomly
+    private int[] forcedMember = new int[1];
+    /// Passages to the right of every cell in the last generated row
+    private boolean[] right = new boolean[0];
+    /// Passages down from every cell in the last generated row
+    private boolean[] down = new boolean[0];
+
+    @Override
+    public void carve(MazeGrid grid, Random random) {
+        int rows = (grid.height + 1) / 2;
+        begin((grid.width + 1) / 2);
+        for (int row = 0; row < rows; row++) {
+            boolean lastRow = row == rows - 1;
+            nextRow(random, lastRow);
+            for (int column = 0; column < columns; column++) {
+                grid.set(row * 2, column * 2, CellType.PATH);
+                if (right[column]) {
+                    grid.set(row * 2, column * 2 + 1, CellType.PATH);
+                }
+                if (!lastRow && down[column]) {
+                    grid.set(row * 2 + 1, column * 2, CellType.PATH);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts a new maze
+     *
+     * @param columns number of maze cell columns
+     */
+    void begin(int columns) {
+        if (columns <= 0) {
+            throw new IllegalArgumentException("Maze must have at least one column");
+        }
+        this.columns = columns;
+        if (sets.length < columns) {
+            sets = new int[columns];
+            right = new boolean[columns];
+            down = new boolean[columns];
+            used = new boolean[columns + 1];
+            memberCount = new int[columns + 1];
+            downCount = new int[columns + 1];
+            forcedMember = new int[columns + 1];
+        }
+        Arrays.fill(sets, 0, columns, 0);
+    }
+
+    /**
+     * Generates the passages of the next row of maze cells, see {@link #hasRightPassage(int)} and
+     * {@link #hasDownPassage(int)}
+     *
+     * @param random  the source of randomness
+     * @param lastRow {@code true} if this is the last row, all sets are joined and no passages go down
+     */
+    void nextRow(Random random, boolean lastRow) {
+        /// Fresh sets for cells not connected to the row above
+        Arrays.fill(used, 0, columns + 1, false);
+        for (int column = 0; column < columns; column++) {
+            used[sets[column]] = true;
+        }
+        int freeId = 1;
+        for (int column = 0; column < columns; column++) {
+            if (sets[column] == 0) {
+                while (used[freeId]) {
+                    ++freeId;
+                }
+                used[freeId] = true;
+                sets[column] = freeId;
+            }
+        }
+
+        /// Horizontal passages
+        for (int column = 0; column < columns - 1; column++) {
+            right[column] = sets[column] != sets[column + 1] && (lastRow || random.nextBoolean());
+            if (right[column]) {
+                int merged = sets[column + 1];
+                for (int other = 0; other < columns; other++) {
+                    if (sets[other] == merged) {
+                        sets[other] = sets[column];
+                    }
+                }
+            }
+        }
+        right[columns - 1] = false;
+        if (lastRow) {
+            Arrays.fill(down, 0, columns, false);
+            return;
+        }
+
+        /// Vertical passages, at least one per set
+        Arrays.fill(memberCount, 0, columns + 1, 0);
+        Arrays.fill(downCount, 0, columns + 1, 0);
+        for (int column = 0; column < columns; column++) {
+            down[column] = random.nextBoolean();
+            memberCount[sets[column]]++;
+            if (down[column]) {
+                downCount[sets[column]]++;
+            }
+        }
+        for (int column = 0; column < columns; column++) {
+            int set = sets[column];
+            if (downCount[set] == 0) {
+                forcedMember[set] = random.nextInt(memberCount[set]);
+                /// Marks the set as handled, the forced member is counted down below
+                downCount[set] = -1;
+            }
+        }
+        for (int column = 0; column < columns; column++) {
+            int set = sets[column];
+            if (downCount[set] < 0 && forcedMember[set]-- == 0) {
+                down[column] = true;
+            }
+        }
+        for (int column = 0; column < columns; column++) {
+            if (!down[column]) {
+                sets[column] = 0;
+            }
+        }
+    }
+
+    /**
+     * @param column maze cell column
+     * @return {@code true} if the cell of the last generated row is connected to its right neighbour
+     */
+    boolean hasRightPassage(int column) {
+        return right[column];
+    }
+
+    /**
+     * @param column maze cell column
+     * @return {@code true} if the cell of the last generated row is connected to the cell below
+     */
+    boolean hasDownPassage(int column) {
+        return down[column];
+    }
+}
@@ -6,6 +6,8 @@ import de.tum.cit.fop.maze.level.worldgen.rooms.Room;
 
 /**
  * Used to represent a cell in the maze.
+ * <p>A cell is either standalone or a view of a {@link MazeGrid} cell (see {@link MazeGrid#cell(int, int)}),
+ * in which case its type and room are read from and written to the grid.</p>
  */
 public final class GeneratorCell {
     /// Row index
@@ -16,6 +18,8 @@ public final class GeneratorCell {
     private CellType cellType;
     /// The room the cell is part of
     private @Null Room room = null;
+    /// The grid backing this cell, {@code null} for standalone cells
+    private final @Null MazeGrid grid;
 
     /**
      * Constructor for a MazeCell
@@ -28,6 +32,7 @@ public final class GeneratorCell {
         this.i = i;
         this.j = j;
         this.cellType = cellType;
+        this.grid = null;
     }
 
     /**
@@ -37,25 +42,44 @@ public final class GeneratorCell {
      * @param j - column index
      */
     public GeneratorCell(int i, int j) {
+        this(i, j, CellType.NONE);
+    }
+
+    /**
+     * Constructor for a cell backed by a {@link MazeGrid}
+     *
+     * @param grid - the backing grid
+     * @param i    - row index
+     * @param j    - column index
+     */
+    GeneratorCell(MazeGrid grid, int i, int j) {
         this.i = i;
         this.j = j;
-        this.cellType = CellType.NONE;
+        this.grid = grid;
     }
 
     public Room getRoom() {
-        return room;
+        return grid == null ? room : grid.getRoom(i, j);
     }
 
     public void setRoom(Room room) {
-        this.room = room;
+        if (grid == null) {
+            this.room = room;
+        } else {
+            grid.setRoom(i, j, room);
+        }
     }
 
     public CellType getCellType() {
-        return cellType;
+        return grid == null ? cellType : grid.get(i, j);
     }
 
     public void setCellType(CellType cellType) {
-        this.cellType = cellType;
+        if (grid == null) {
+            this.cellType = cellType;
+        } else {
+            grid.set(i, j, cellType);
+        }
     }
 
     /**
@@ -71,7 +95,7 @@ public final class GeneratorCell {
 
     @Override
     public int hashCode() {
-        return cantor(i, cantor(j, cellType.value));
+        return cantor(i, cantor(j, getCellType().value));
     }
 
     @Override
@@ -0,0 +1,110 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import java.util.Arrays;
+
+/**
+ * <p>Statistics of a generated level, see {@link BatchMazeGenerator}.</p>
+ *
+ * @param index      index of the level in the batch
+ * @param seed       seed of the random generator of the level
+ * @param generated  {@code false} if the generation failed (e.g. a room did not fit), all other stats are
+ *                   {@code -1} then
+ * @param deadEnds   number of walkable cells with exactly one walkable neighbour
+ * @param pathLength length of the shortest path from the player to the exit in cells, {@code -1} if there is none
+ * @param traps      number of traps
+ * @param checksum   hash of all cell types of the grid, equal checksums mean equal levels
+ */
+public record LevelStats(int index, long seed, boolean generated, int deadEnds, int pathLength, int traps,
+                         long checksum) {
+    /**
+     * @param index index of the level in the batch
+     * @param seed  seed of the random generator of the level
+     * @return stats of a level that could not be generated
+     */
+    public static LevelStats failed(int index, long seed) {
+        return new LevelStats(index, seed, false, -1, -1, -1, -1);
+    }
+
+    /**
+     * Computes the stats of a generated grid
+     *
+     * @param index index of the level in the batch
+     * @param seed  seed of the random generator of the level
+     * @param grid  the generated grid
+     * @return the stats of the grid
+     */
+    public static LevelStats of(int index, long seed, MazeGrid grid) {
+        int deadEnds = 0;
+        int traps = 0;
+        int start = -1;
+        /// FNV-1a
+        long checksum = 0xcbf29ce484222325L;
+        for (int i = 0; i < grid.height; i++) {
+            for (int j = 0; j < grid.width; j++) {
+                CellType cellType = grid.get(i, j);
+                checksum = (checksum ^ cellType.ordinal()) * 0x100000001b3L;
+                if (cellType == CellType.TRAP) {
+                    ++traps;
+                }
+                if (cellType == CellType.PLAYER) {
+                    start = grid.index(i, j);
+                }
+                if (cellType.isWalkable() && walkableNeighbours(grid, i, j) == 1) {
+                    ++deadEnds;
+                }
+            }
+        }
+        return new LevelStats(index, seed, true, deadEnds, pathLength(grid, start), traps, checksum);
+    }
+
+    private static int walkableNeighbours(MazeGrid grid, int i, int j) {
+        int count = 0;
+        if (i > 0 && grid.get(i - 1, j).isWalkable()) ++count;
+        if (i + 1 < grid.height && grid.get(i + 1, j).isWalkable()) ++count;
+        if (j > 0 && grid.get(i, j - 1).isWalkable()) ++count;
+        if (j + 1 < grid.width && grid.get(i, j + 1).isWalkable()) ++count;
+        return count;
+    }
+
+    /**
+     * BFS over the walkable cells from the start to the closest exit door
+     *
+     * @param grid  the grid
+     * @param start flat index of the start cell, {@code -1} if there is none
+     * @return the length of the path in cells, {@code -1} if the exit is unreachable
+     */
+    private static int pathLength(MazeGrid grid, int start) {
+        if (start == -1) {
+            return -1;
+        }
+        int[] distance = new int[grid.height * grid.width];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[grid.height * grid.width];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        distance[start] = 0;
+        while (head < tail) {
+            int current = queue[head++];
+            if (grid.get(current) == CellType.EXIT_DOOR) {
+                return distance[current];
+            }
+            int i = current / grid.width;
+            int j = current % grid.width;
+            if (i > 0) tail = visit(grid, current - grid.width, distance, queue, tail, distance[current]);
+            if (i + 1 < grid.height) tail = visit(grid, current + grid.width, distance, queue, tail, distance[current]);
+            if (j > 0) tail = visit(grid, current - 1, distance, queue, tail, distance[current]);
+            if (j + 1 < grid.width) tail = visit(grid, current + 1, distance, queue, tail, distance[current]);
+        }
+        return -1;
+    }
+
+    private static int visit(MazeGrid grid, int next, int[] distance, int[] queue, int tail, int currentDistance) {
+        if (distance[next] != -1 || !grid.get(next).isWalkable()) {
+            return tail;
+        }
+        distance[next] = currentDistance + 1;
+        queue[tail] = next;
+        return tail + 1;
+    }
+}
@@ -0,0 +1,22 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import java.util.Random;
+
+/**
+ * <h2>Maze carving algorithm</h2>
+ * <p>Strategy used by {@link MazeGenerator} to carve the walls of the maze before the rooms are placed.</p>
+ * <p>Maze cells are the cells of the grid with even coordinates, the cells between two neighbouring maze cells are
+ * the passages. An implementation must turn every maze cell and the passages of a spanning tree over the maze cells
+ * into {@link CellType#PATH}, so that the rest of the generation pipeline gets a perfect maze.</p>
+ *
+ * @see MazeAlgorithmType
+ */
+public interface MazeAlgorithm {
+    /**
+     * Carves the maze into the grid. The grid is filled with {@link CellType#WALL} beforehand.
+     *
+     * @param grid   the grid to carve, its dimensions are odd
+     * @param random the source of randomness, the result must only depend on it
+     */
+    void carve(MazeGrid grid, Random random);
+}
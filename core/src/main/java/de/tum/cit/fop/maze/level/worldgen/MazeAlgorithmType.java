@@ -0,0 +1,32 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import java.util.function.Supplier;
+
+/**
+ * <p>Enum for the available {@link MazeAlgorithm maze carving algorithms}.</p>
+ * <ol>
+ *     <li>{@code WILSON} - Uniform spanning tree, no bias, but slow to converge on large grids.</li>
+ *     <li>{@code RECURSIVE_BACKTRACKER} - Long winding corridors with few dead ends, fast.</li>
+ *     <li>{@code ELLER} - Row by row with memory proportional to the width, biased towards horizontal corridors.</li>
+ *     <li>{@code KRUSKAL} - Many short dead ends, fast.</li>
+ * </ol>
+ */
+public enum MazeAlgorithmType {
+    WILSON(WilsonsAlgorithm::new),
+    RECURSIVE_BACKTRACKER(RecursiveBacktrackerAlgorithm::new),
+    ELLER(EllersAlgorithm::new),
+    KRUSKAL(KruskalsAlgorithm::new);
+
+    private final Supplier<MazeAlgorithm> factory;
+
+    MazeAlgorithmType(Supplier<MazeAlgorithm> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return new instance of the algorithm
+     */
+    public MazeAlgorithm create() {
+        return factory.get();
+    }
+}
@@ -4,10 +4,10 @@ package de.tum.cit.fop.maze.level.worldgen;
 import de.tum.cit.fop.maze.Globals;
 import de.tum.cit.fop.maze.level.worldgen.rooms.*;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 
 /**
@@ -25,29 +25,25 @@ import java.util.stream.Collectors;
  *         <li>It generates a uniform simple maze with no loops and biases.</li>
  *     </ol>
  * </p>
+ * <p>The walls can be carved by any other {@link MazeAlgorithm}, see {@link MazeAlgorithmType}.
+ * The rooms, traps and the exit are generated the same way for every algorithm.</p>
  */
 public final class MazeGenerator {
     public final int width;
     public final int height;
-    /// Final grid
-    public final ArrayList<ArrayList<GeneratorCell>> grid = new ArrayList<>();
     public final boolean loadedFromProperties;
-    /// Auxiliary arrays
-    /// The path from the current cell to the next cell
-    private final HashMap<GeneratorCell, Integer> path = new HashMap<>();
-    /// The wilson's cell grid of booleans to mark walls
-    private final List<List<Boolean>> willsonsCellGrid = new ArrayList<>();
-    private final ArrayList<GeneratorCell> visitedCells = new ArrayList<>();
-    private final ArrayList<GeneratorCell> unvisitedCells = new ArrayList<>();
-    /// The directions to move in the maze
-    private final List<List<Integer>> directions = Arrays.asList(
-        Arrays.asList(0, 1),
-        Arrays.asList(1, 0),
-        Arrays.asList(0, -1),
-        Arrays.asList(-1, 0)
-    );
+    /// Final grid, surrounded with walls once generated
+    private MazeGrid grid;
+    /// Wall carving algorithm, keeps its auxiliary arrays between generations
+    private final MazeAlgorithm mazeAlgorithm;
     ///  The visited cells
     private short[][] visited;
+    /// Summed-area table of the cells blocked for rooms, {@code (generatorHeight + 1) x (generatorWidth + 1)}
+    private int[] roomIndex;
+    /// Connected component label of every cell, see {@link #fixReachability()}
+    private int[] labels;
+    /// Candidate passages between components, see {@link #fixReachability()}
+    private int[] passages;
     /// The width value to use for generation
     private int generatorWidth;
     /// The height value to use for generation
@@ -58,76 +54,34 @@ public final class MazeGenerator {
      * Initializes MazeGenerator from pre-generated .properties file
      *
      * @param file FileReader instance to read from the file
+     * @see MazeLevelFile#readProperties(java.io.Reader)
      */
     public MazeGenerator(FileReader file) {
-        int tempWidth = 0;
-        int tempHeight = 0;
-        try (BufferedReader reader = new BufferedReader(file)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                ArrayList<Integer> cellData = Arrays.stream(line.split("[,=]")).mapToInt(
-                    Integer::parseInt
-                ).boxed().collect(Collectors.toCollection(ArrayList::new));
-                int x = cellData.get(0);
-                int y = cellData.get(1);
-                int type = cellData.get(2);
-                CellType actualType = switch (type) {
-                    case 0 -> CellType.WALL;
-                    case 1 -> CellType.PLAYER;
-                    case 2 -> CellType.EXIT_DOOR;
-                    case 3 -> CellType.TRAP;
-                    case 4 -> CellType.ENEMY;
-                    case 5 -> CellType.KEY_OBELISK;
-                    default -> throw new IllegalArgumentException("Invalid cell type");
-                };
-                tempWidth = Math.max(tempWidth, x);
-                tempHeight = Math.max(tempHeight, y);
-                while (y >= grid.size()) {
-                    grid.add(new ArrayList<>());
-                }
-                while (x >= grid.get(y).size()) {
-                    grid.get(y).add(new GeneratorCell(y, x, CellType.NONE));
-                }
-                grid.get(y).set(x, new GeneratorCell(y, x, actualType));
-            }
-        } catch (java.io.IOException e) {
-            e.printStackTrace();
-        }
-        for (int i = 0; i < grid.size(); i++) {
-            for (int j = 0; j < grid.get(i).size(); j++) {
-                GeneratorCell cell = grid.get(i).get(j);
-                cell.setJ(j);
-                cell.setJ(i);
-                if (cell.getCellType() == CellType.NONE) {
-                    cell.setCellType(CellType.PATH);
-                }
-            }
-        }
-        tempHeight += 3;
-        tempWidth += 3;
-        grid.add(0, new ArrayList<>());
-        grid.add(new ArrayList<>());
-        for (int i = 0; i < tempWidth; i++) {
-            grid.get(0).add(new GeneratorCell(0, i, CellType.WALL));
-            grid.get(tempHeight - 1).add(new GeneratorCell(tempHeight - 1, i, CellType.WALL));
-        }
-        for (int i = 0; i < tempHeight; i++) {
-            grid.get(i).add(0, new GeneratorCell(i, 0, CellType.WALL));
-            grid.get(i).add(new GeneratorCell(i, tempWidth - 1, CellType.WALL));
-        }
-        /// Update all cells coordinates
-        for (int i = 0; i < tempHeight; i++) {
-            for (int j = 0; j < tempWidth; j++) {
-                grid.get(i).get(j).setI(i);
-                grid.get(i).get(j).setJ(j);
-            }
-        }
+        this(readProperties(file));
+    }
+
+    /**
+     * Initializes MazeGenerator from a hand-authored level, see {@link MazeLevelFile}
+     *
+     * @param level the final grid of the level, surrounded with walls
+     */
+    public MazeGenerator(MazeGrid level) {
+        grid = level;
         random = new Random();
-        width = tempWidth;
-        height = tempHeight;
+        mazeAlgorithm = null;
+        width = grid.width;
+        height = grid.height;
         loadedFromProperties = true;
     }
 
+    private static MazeGrid readProperties(FileReader file) {
+        try {
+            return MazeLevelFile.readProperties(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * <p>Constructor</p>
      *
@@ -136,57 +90,32 @@ public final class MazeGenerator {
      * @param random instance of Random class
      */
     public MazeGenerator(int height, int width, Random random) {
+        this(height, width, random, new WilsonsAlgorithm());
+    }
+
+    /**
+     * <p>Constructor</p>
+     *
+     * @param height        The generatorHeight of the maze. <b>It will be adjusted to be odd.</b>
+     * @param width         The generatorWidth of the maze. <b>It will be adjusted to be odd.</b>
+     * @param random        instance of Random class
+     * @param mazeAlgorithm the algorithm carving the walls of the maze
+     */
+    public MazeGenerator(int height, int width, Random random, MazeAlgorithm mazeAlgorithm) {
         this.random = random;
+        this.mazeAlgorithm = mazeAlgorithm;
         this.generatorWidth = (2 * (width / 2)) + 1;  // Make sure generatorWidth is odd
         this.generatorHeight = (2 * (height / 2)) + 1;  // Make sure generatorHeight is odd
         this.width = width + 2 + (width % 2 == 0 ? 1 : 0);
         this.height = height + 2 + (height % 2 == 0 ? 1 : 0);
         this.visited = new short[this.generatorHeight][this.generatorWidth];
+        this.roomIndex = new int[(this.generatorHeight + 1) * (this.generatorWidth + 1)];
+        this.labels = new int[this.generatorHeight * this.generatorWidth];
+        this.passages = new int[this.generatorHeight * this.generatorWidth * 2];
+        this.grid = new MazeGrid(this.generatorHeight, this.generatorWidth, CellType.WALL);
         loadedFromProperties = false;
-
-        for (int i = 0; i < height; i++) {
-            Arrays.fill(visited[i], (short) 0);
-        }
-
-        for (int i = 0; i < this.generatorHeight; i++) {
-            List<Boolean> row = new ArrayList<>();
-            for (int j = 0; j < this.generatorWidth; j++) {
-                row.add(false);
-            }
-            this.willsonsCellGrid.add(row);
-        }
-    }
-
-
-    /**
-     * <p>Fills the grid and the aux. arrays.</p>
-     */
-    private void clearArrays() {
-        for (int i = 0; i < generatorHeight; i++) {
-            for (int j = 0; j < generatorWidth; j++) {
-                willsonsCellGrid.get(i).set(j, false);
-            }
-        }
-
-        // Fill unvisited cells
-        for (int i = 0; i < generatorHeight; i++) {
-            for (int j = 0; j < generatorWidth; j++) {
-                if (i % 2 == 0 && j % 2 == 0) {
-                    unvisitedCells.add(new GeneratorCell(i, j));
-                }
-            }
-        }
-        visitedCells.clear();
-        path.clear();
-
     }
 
-    /**
-     * @param current The cell to set.
-     */
-    private void setTrue(GeneratorCell current) {
-        willsonsCellGrid.get(current.getI()).set(current.getJ(), true);
-    }
 
     public void generate() {
 
@@ -200,113 +129,45 @@ public final class MazeGenerator {
         ));
 
         // Surround grid with walls
-        grid.add(0, new ArrayList<>());
-        grid.add(new ArrayList<>());
-        for (int i = 0; i < width; i++) {
-            grid.get(0).add(new GeneratorCell(0, i, CellType.WALL));
-            grid.get(height - 1).add(new GeneratorCell(height - 1, i, CellType.WALL));
-        }
-        for (int i = 0; i < height; i++) {
-            grid.get(i).add(0, new GeneratorCell(i, 0, CellType.WALL));
-            grid.get(i).add(new GeneratorCell(i, width - 1, CellType.WALL));
-        }
-        /// Update all cells coordinates
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                grid.get(i).get(j).setI(i);
-                grid.get(i).get(j).setJ(j);
-            }
-        }
+        grid = grid.surround(CellType.WALL);
         generateTraps();
         generateExit();
     }
 
-    private void generateTraps() {
+    void generateTraps() {
         for (int i = 1; i < height - 1; i++) {
             for (int j = 1; j < width - 1; j++) {
-                GeneratorCell current = grid.get(i).get(j);
-                GeneratorCell above = grid.get(i - 1).get(j);
-                GeneratorCell below = grid.get(i + 1).get(j);
-                GeneratorCell left = grid.get(i).get(j - 1);
-                GeneratorCell right = grid.get(i).get(j + 1);
-                int totalSurroundingWallCount = 0;
-                for (GeneratorCell cell : List.of(above, below, left, right)) {
-                    if (cell.getCellType().isWall()) {
-                        totalSurroundingWallCount++;
-                    }
-                }
-                if (!current.getCellType().isRoom() && current.getCellType().isPath() &&
+                CellType current = grid.get(i, j);
+                boolean aboveWall = grid.get(i - 1, j).isWall();
+                boolean belowWall = grid.get(i + 1, j).isWall();
+                boolean leftWall = grid.get(i, j - 1).isWall();
+                boolean rightWall = grid.get(i, j + 1).isWall();
+                int totalSurroundingWallCount = (aboveWall ? 1 : 0) + (belowWall ? 1 : 0) +
+                    (leftWall ? 1 : 0) + (rightWall ? 1 : 0);
+                if (!current.isRoom() && current.isPath() &&
                     (
-                        (above.getCellType().isWall() && below.getCellType().isWall()) ||
-                            (left.getCellType().isWall() && right.getCellType().isWall())
+                        (aboveWall && belowWall) ||
+                            (leftWall && rightWall)
                     )
                     && totalSurroundingWallCount < 3
                     && random.nextDouble() < Globals.TRAP_SPAWN_CHANCE) {
-                    current.setCellType(CellType.TRAP);
+                    grid.set(i, j, CellType.TRAP);
                 }
             }
         }
     }
 
     /**
-     * Generates maze walls.
+     * Generates maze walls using the {@link MazeAlgorithm} of the generator.
      */
-    private void generateMazeWalls() {
-        this.clearArrays();
-        GeneratorCell current = unvisitedCells.remove(
-            random.nextInt(unvisitedCells.size())
-        );
-        visitedCells.add(current);
-        setTrue(current);
-
-        while (!unvisitedCells.isEmpty()) {
-            GeneratorCell first = unvisitedCells.get(random.nextInt(unvisitedCells.size()));
-            current = first;
-            do {
-                int directionIndex = random.nextInt(4);
-                while (!validDirection(current, directionIndex)) {
-                    directionIndex = random.nextInt(4);
-                }
-                path.put(current, directionIndex);
-                current = getNextCell(current, directionIndex, 2);
-            } while (!visitedCells.contains(current));
-            /// Roll back to first cell
-            current = first;
-
-            /// Until we reach the end
-            while (true) {
-                visitedCells.add(current);
-                unvisitedCells.remove(current);
-                setTrue(current);
-
-                // Look at direction at next cell
-                int directionIndex = path.get(current);
-                GeneratorCell crossed = getNextCell(current, directionIndex, 1);
-                setTrue(crossed);
-                current = getNextCell(current, directionIndex, 2);
-                if (visitedCells.contains(current)) {
-                    path.clear();
-                    break;
-                }
-            }
-        }
-
-        /// Fill the final maze grid
-        for (int i = 0; i < generatorHeight; i++) {
-            ArrayList<GeneratorCell> row = new ArrayList<>();
-            for (int j = 0; j < generatorWidth; j++) {
-                if (willsonsCellGrid.get(i).get(j)) {
-                    row.add(new GeneratorCell(i, j, CellType.PATH));
-                } else {
-                    row.add(new GeneratorCell(i, j, CellType.WALL));
-                }
-            }
-            grid.add(row);
-        }
+    void generateMazeWalls() {
+        grid.fill(CellType.WALL);
+        mazeAlgorithm.carve(grid, random);
     }
 
     /**
-     * Checks if it is possible to generate a room in the given location.
+     * Checks if it is possible to generate a room in the given location, i.e. the room is inside the grid and no cell
+     * of the room is blocked, see {@link #updateRoomIndex(int)}. Takes {@code O(1)} using the summed-area table.
      *
      * @param i    The row.
      * @param j    The column.
@@ -315,28 +176,52 @@ public final class MazeGenerator {
      * {@code false} otherwise.
      */
     private boolean isPossibleToGenerateRoom(int i, int j, Room room) {
-        for (int k = i; k < i + room.height; k++) {
-            for (int l = j; l < j + room.width; l++) {
-                if (k < 0 || k >= generatorHeight || l < 0 || l >= generatorWidth) {
-                    return false;
-                }
-                if (grid.get(k).get(l).getCellType() == CellType.ROOM_PATH ||
-                    grid.get(k).get(l).getCellType() == CellType.ROOM_WALL) {
-                    return false;
-                }
-                if (k > 0 && l > 0 && k < generatorHeight - 1 && l < generatorWidth - 1) {
-                    // check if no room cell is adjacent
-                    if (grid.get(k - 1).get(l).getCellType().isRoom() ||
-                        grid.get(k + 1).get(l).getCellType().isRoom() ||
-                        grid.get(k).get(l - 1).getCellType().isRoom() ||
-                        grid.get(k).get(l + 1).getCellType().isRoom()) {
-                        return false;
-                    }
+        if (i < 0 || j < 0 || i + room.height > generatorHeight || j + room.width > generatorWidth) {
+            return false;
+        }
+        int stride = generatorWidth + 1;
+        int blockedCells = roomIndex[(i + room.height) * stride + j + room.width]
+            - roomIndex[i * stride + j + room.width]
+            - roomIndex[(i + room.height) * stride + j]
+            + roomIndex[i * stride + j];
+        return blockedCells == 0;
+    }
 
-                }
+    /**
+     * <p>Updates the summed-area table of the cells a room can't be placed on, starting from the given row.</p>
+     * <p>A cell is blocked if it is a room cell ({@link CellType#ROOM_PATH} or {@link CellType#ROOM_WALL}) or if it
+     * is an inner cell of the grid next to any {@link CellType#isRoom() room} cell, i.e. the room mask dilated by
+     * one cell. Stamping a room changes cells at most one cell around its footprint, which changes the dilated mask
+     * at most two cells around it, so only the rows from there on have to be recomputed.</p>
+     *
+     * @param fromRow the first row that may have changed
+     */
+    private void updateRoomIndex(int fromRow) {
+        int stride = generatorWidth + 1;
+        for (int k = Math.max(0, fromRow); k < generatorHeight; k++) {
+            int rowSum = 0;
+            for (int l = 0; l < generatorWidth; l++) {
+                rowSum += isRoomBlocked(k, l) ? 1 : 0;
+                roomIndex[(k + 1) * stride + l + 1] = roomIndex[k * stride + l + 1] + rowSum;
             }
         }
-        return true;
+    }
+
+    /**
+     * @param k The row.
+     * @param l The column.
+     * @return {@code true} if no room can cover the cell
+     */
+    private boolean isRoomBlocked(int k, int l) {
+        if (grid.get(k, l) == CellType.ROOM_PATH || grid.get(k, l) == CellType.ROOM_WALL) {
+            return true;
+        }
+        // check if no room cell is adjacent
+        return k > 0 && l > 0 && k < generatorHeight - 1 && l < generatorWidth - 1 &&
+            (grid.get(k - 1, l).isRoom() ||
+                grid.get(k + 1, l).isRoom() ||
+                grid.get(k, l - 1).isRoom() ||
+                grid.get(k, l + 1).isRoom());
     }
 
 
@@ -349,41 +234,41 @@ public final class MazeGenerator {
     private void generateRoom(Room room) {
         clearVisited();
         boolean generated = false;
-        Queue<GeneratorCell> queue = new LinkedList<>();
+        Queue<Integer> queue = new ArrayDeque<>();
 
         if (room.generatorStrategy == GeneratorStrategy.CENTER) {
             int centerI = generatorHeight / 2;
             int centerJ = generatorWidth / 2;
-            queue.add(grid.get(centerI).get(centerJ));
+            queue.add(grid.index(centerI, centerJ));
         } else if (room.generatorStrategy == GeneratorStrategy.RANDOM) {
             int i = random.nextInt(generatorHeight);
             int j = random.nextInt(generatorWidth);
-            queue.add(grid.get(i).get(j));
+            queue.add(grid.index(i, j));
         } else if (room.generatorStrategy == GeneratorStrategy.CORNERS) {
-            queue.add(grid.get(0).get(0));
-            queue.add(grid.get(0).get(generatorWidth - 1));
-            queue.add(grid.get(generatorHeight - 1).get(0));
-            queue.add(grid.get(generatorHeight - 1).get(generatorWidth - 1));
+            queue.add(grid.index(0, 0));
+            queue.add(grid.index(0, generatorWidth - 1));
+            queue.add(grid.index(generatorHeight - 1, 0));
+            queue.add(grid.index(generatorHeight - 1, generatorWidth - 1));
         } else if (room.generatorStrategy == GeneratorStrategy.SIDES) {
             for (int i = 0; i < generatorHeight; i++) {
-                queue.add(grid.get(i).get(0));
-                queue.add(grid.get(i).get(generatorWidth - 1));
+                queue.add(grid.index(i, 0));
+                queue.add(grid.index(i, generatorWidth - 1));
             }
             for (int j = 0; j < generatorWidth; j++) {
-                queue.add(grid.get(0).get(j));
-                queue.add(grid.get(generatorHeight - 1).get(j));
+                queue.add(grid.index(0, j));
+                queue.add(grid.index(generatorHeight - 1, j));
             }
         } else if (room.generatorStrategy == GeneratorStrategy.AROUND_CENTER) {
             int centerI = generatorHeight / 2;
             int centerJ = generatorWidth / 2;
-            List<GeneratorCell> candidates = new ArrayList<>();
+            List<Integer> candidates = new ArrayList<>();
             for (int i = centerI - generatorHeight / 3; i < centerI + generatorHeight / 3; ++i) {
-                candidates.add(grid.get(i).get(centerJ - generatorHeight / 3));
-                candidates.add(grid.get(i).get(centerJ + generatorHeight / 3));
+                candidates.add(grid.index(i, centerJ - generatorHeight / 3));
+                candidates.add(grid.index(i, centerJ + generatorHeight / 3));
             }
             for (int j = centerJ - generatorWidth / 3; j < centerJ + generatorWidth / 3; ++j) {
-                candidates.add(grid.get(centerI + generatorHeight / 3).get(j));
-                candidates.add(grid.get(centerI - generatorHeight / 3).get(j));
+                candidates.add(grid.index(centerI + generatorHeight / 3, j));
+                candidates.add(grid.index(centerI - generatorHeight / 3, j));
             }
             int pick = random.nextInt(candidates.size());
             queue.add(candidates.get(pick));
@@ -392,34 +277,31 @@ public final class MazeGenerator {
 
         while (!queue.isEmpty()) {
 
-            GeneratorCell current = queue.poll();
-            int i = current.getI();
-            int j = current.getJ();
+            int current = queue.poll();
+            int i = current / grid.width;
+            int j = current % grid.width;
             if (visited[i][j] > 0) {
                 continue;
             }
             visited[i][j] = 1;
             if (isPossibleToGenerateRoom(i, j, room)) {
                 generated = true;
-                List<GeneratorCell> roomCells = new ArrayList<>();
                 for (int k = i; k < i + room.height; k++) {
                     for (int l = j; l < j + room.width; l++) {
-                        GeneratorCell cell = grid.get(k).get(l);
-                        roomCells.add(cell);
-                        cell.setRoom(room);
+                        grid.setRoom(k, l, room);
                     }
                 }
                 room.setLocation(i, j);
-                room.setRoomCells(roomCells);
                 room.generate(grid, random);
+                updateRoomIndex(i - 2);
 
                 break;
             }
             /// Out of bounds safety checks
-            if (i + 1 < generatorHeight) queue.add(grid.get(i + 1).get(j));
-            if (i - 1 >= 0) queue.add(grid.get(i - 1).get(j));
-            if (j + 1 < generatorWidth) queue.add(grid.get(i).get(j + 1));
-            if (j - 1 >= 0) queue.add(grid.get(i).get(j - 1));
+            if (i + 1 < generatorHeight) queue.add(grid.index(i + 1, j));
+            if (i - 1 >= 0) queue.add(grid.index(i - 1, j));
+            if (j + 1 < generatorWidth) queue.add(grid.index(i, j + 1));
+            if (j - 1 >= 0) queue.add(grid.index(i, j - 1));
 
 
         }
@@ -444,9 +326,7 @@ public final class MazeGenerator {
      * @param rooms The rooms to generate.
      */
     public void generateRooms(List<Room> rooms) {
-        for (Room room : rooms) {
-            generateRoom(room);
-        }
+        placeRooms(rooms);
 
         fixReachability();
         fixDoubleWalls();
@@ -454,33 +334,45 @@ public final class MazeGenerator {
     }
 
 
+    /**
+     * Places the rooms into the carved maze without fixing the maze around them
+     *
+     * @param rooms The rooms to generate.
+     */
+    void placeRooms(List<Room> rooms) {
+        updateRoomIndex(0);
+        for (Room room : rooms) {
+            generateRoom(room);
+        }
+    }
+
     /**
      * <p>Generates an exit cell on the top of the maze</p>
      */
     public void generateExit() {
-        ArrayList<GeneratorCell> eligibleCells = new ArrayList<>();
+        ArrayList<Integer> eligibleCells = new ArrayList<>();
         for (int j = 1; j < width; ++j) {
-            boolean wallBelow = grid.get(1).get(j).getCellType().isWall();
+            boolean wallBelow = grid.get(1, j).isWall();
             if (!wallBelow) {
-                eligibleCells.add(grid.get(0).get(j));
+                eligibleCells.add(grid.index(0, j));
             }
         }
         for (int j = 1; j < width; ++j) {
-            boolean wallAbove = grid.get(height - 2).get(j).getCellType().isWall();
+            boolean wallAbove = grid.get(height - 2, j).isWall();
             if (!wallAbove) {
-                eligibleCells.add(grid.get(height - 1).get(j));
+                eligibleCells.add(grid.index(height - 1, j));
             }
         }
         for (int i = 1; i < height - 1; ++i) {
-            boolean wallRight = grid.get(i).get(1).getCellType().isWall();
+            boolean wallRight = grid.get(i, 1).isWall();
             if (!wallRight) {
-                eligibleCells.add(grid.get(i).get(0));
+                eligibleCells.add(grid.index(i, 0));
             }
         }
         for (int i = 1; i < height - 1; ++i) {
-            boolean wallLeft = grid.get(i).get(width - 2).getCellType().isWall();
+            boolean wallLeft = grid.get(i, width - 2).isWall();
             if (!wallLeft) {
-                eligibleCells.add(grid.get(i).get(width - 1));
+                eligibleCells.add(grid.index(i, width - 1));
             }
         }
 
@@ -488,36 +380,36 @@ public final class MazeGenerator {
             throw new IllegalArgumentException("No eligible cells for exit door");
         }
         int doorPosition = random.nextInt(eligibleCells.size());
-        eligibleCells.get(doorPosition).setCellType(CellType.EXIT_DOOR);
+        grid.set(eligibleCells.get(doorPosition), CellType.EXIT_DOOR);
     }
 
-    private void fixDoubleWalls() {
+    void fixDoubleWalls() {
         for (int i = 1; i < generatorHeight; i++) {
             for (int j = 1; j < generatorWidth; j++) {
-                boolean leftWall = grid.get(i).get(j - 1).getCellType() == CellType.WALL;
-                boolean currentRoomWall = grid.get(i).get(j).getCellType() == CellType.ROOM_WALL;
-                boolean currentWall = grid.get(i).get(j).getCellType().isWall();
-                boolean topWall = grid.get(i - 1).get(j).getCellType().isWall();
-                boolean bottomWall = i > generatorHeight - 2 || grid.get(i + 1).get(j).getCellType().isWall();
+                boolean leftWall = grid.get(i, j - 1) == CellType.WALL;
+                boolean currentRoomWall = grid.get(i, j) == CellType.ROOM_WALL;
+                boolean currentWall = grid.get(i, j).isWall();
+                boolean topWall = grid.get(i - 1, j).isWall();
+                boolean bottomWall = i > generatorHeight - 2 || grid.get(i + 1, j).isWall();
                 if (currentRoomWall && leftWall) {
-                    grid.get(i).get(j - 1).setCellType(CellType.PATH);
+                    grid.set(i, j - 1, CellType.PATH);
                 }
                 boolean is3wallVerticalBlock;
                 if (!(i > 1 && i < generatorHeight - 1)) is3wallVerticalBlock = true;
                 else {
-                    boolean underBottomWall = i < generatorHeight - 2 && grid.get(i + 2).get(j).getCellType().isWall();
-                    boolean aboveTopWall = grid.get(i - 2).get(j).getCellType().isWall();
+                    boolean underBottomWall = i < generatorHeight - 2 && grid.get(i + 2, j).isWall();
+                    boolean aboveTopWall = grid.get(i - 2, j).isWall();
                     is3wallVerticalBlock = (topWall && currentWall && bottomWall) ||
                         (currentWall && bottomWall && underBottomWall) ||
                         (aboveTopWall && topWall && currentWall);
                 }
-                boolean currentCellIsRoom = grid.get(i).get(j).getCellType().isRoom();
-                boolean topCellIsRoom = grid.get(i - 1).get(j).getCellType().isRoom();
+                boolean currentCellIsRoom = grid.get(i, j).isRoom();
+                boolean topCellIsRoom = grid.get(i - 1, j).isRoom();
                 if (topWall && currentWall && !(topCellIsRoom && currentCellIsRoom) && !is3wallVerticalBlock) {
                     if (topCellIsRoom) {
-                        grid.get(i).get(j).setCellType(CellType.PATH);
+                        grid.set(i, j, CellType.PATH);
                     } else {
-                        grid.get(i - 1).get(j).setCellType(CellType.PATH);
+                        grid.set(i - 1, j, CellType.PATH);
                     }
                 }
 
@@ -528,7 +420,7 @@ public final class MazeGenerator {
     /**
      * <p>Fixes the incomplete (effective) corners of the maze.</p>
      */
-    private void fixCorners() {
+    void fixCorners() {
         /*
          * Fix incomplete corners like this, where ! is missing corner cell:
          *      ###
@@ -536,33 +428,32 @@ public final class MazeGenerator {
          */
         for (int i = 1; i < generatorHeight - 1; i++) {
             for (int j = 1; j < generatorWidth - 1; j++) {
-                boolean currentIsRoom = grid.get(i).get(j).getCellType().isRoom();
+                boolean currentIsRoom = grid.get(i, j).isRoom();
 
-                boolean topWall = grid.get(i - 1).get(j).getCellType().isWall();
-                boolean bottomWall = grid.get(i + 1).get(j).getCellType().isWall();
-                boolean leftWall = grid.get(i).get(j - 1).getCellType().isWall();
-                boolean rightWall = grid.get(i).get(j + 1).getCellType().isWall();
-                boolean currentWall = grid.get(i).get(j).getCellType().isWall();
-                boolean leftDiagonalTopWall = grid.get(i - 1).get(j - 1).getCellType().isWall();
+                boolean topWall = grid.get(i - 1, j).isWall();
+                boolean bottomWall = grid.get(i + 1, j).isWall();
+                boolean leftWall = grid.get(i, j - 1).isWall();
+                boolean rightWall = grid.get(i, j + 1).isWall();
+                boolean currentWall = grid.get(i, j).isWall();
+                boolean leftDiagonalTopWall = grid.get(i - 1, j - 1).isWall();
 
-                boolean leftDiagonalTop = grid.get(i - 1).get(j - 1).getCellType() == CellType.PATH;
-                boolean rightDiagonalTop = grid.get(i - 1).get(j + 1).getCellType() == CellType.PATH;
-                boolean leftDiagonalBottom = grid.get(i + 1).get(j - 1).getCellType() == CellType.PATH;
-                boolean rightDiagonalBottom = grid.get(i + 1).get(j + 1).getCellType() == CellType.PATH;
+                boolean leftDiagonalTop = grid.get(i - 1, j - 1) == CellType.PATH;
+                boolean rightDiagonalTop = grid.get(i - 1, j + 1) == CellType.PATH;
+                boolean leftDiagonalBottom = grid.get(i + 1, j - 1) == CellType.PATH;
+                boolean rightDiagonalBottom = grid.get(i + 1, j + 1) == CellType.PATH;
 
-                if (grid.get(i).get(j).getCellType().isPath() &&
+                if (grid.get(i, j).isPath() &&
                     (topWall && leftWall && leftDiagonalTop) ||
                     (topWall && rightWall && rightDiagonalTop) ||
                     (bottomWall && leftWall && leftDiagonalBottom) ||
                     (bottomWall && rightWall && rightDiagonalBottom)) {
-                    GeneratorCell temp = grid.get(i).get(j);
                     // Check so that we are consistent with the cell type (room or not)
-                    temp.setCellType(
-                        temp.getRoom() == null ? CellType.WALL : CellType.ROOM_WALL
+                    grid.set(i, j,
+                        grid.getRoom(i, j) == null ? CellType.WALL : CellType.ROOM_WALL
                     );
                 }
                 if (!currentIsRoom && currentWall && leftWall && topWall && leftDiagonalTopWall) {
-                    grid.get(i).get(j).setCellType(CellType.PATH);
+                    grid.set(i, j, CellType.PATH);
                 }
 
             }
@@ -571,125 +462,95 @@ public final class MazeGenerator {
     }
 
     /**
-     * <p>Fixes the reachability of the maze using flood-fill and DSU.
+     * <p>Fixes the reachability of the maze using connected component labelling and DSU.
      * The idea is to remove a random wall between two disjoint components.</p>
+     * <p>The components are labelled with a two-pass raster scan: the first pass gives every walkable cell the
+     * label of its top or left neighbour (a new label if there is none) and records the equivalence of the two
+     * labels in the {@link DSU}, the second pass replaces the labels with their representatives.
+     * The same {@link DSU} then tracks which components are already connected by opened passages.</p>
      */
-    private void fixReachability() {
-
-        short counter = 1;
-        clearVisited();
-        Queue<GeneratorCell> queue = new LinkedList<>();
+    void fixReachability() {
+        int size = generatorHeight * generatorWidth;
+        DSU dsu = new DSU(size + 1);
 
-        /// Flood fill disjoint components
-        while (true) {
-            for (int i = 0; i < generatorHeight; i++) {
-                for (int j = 0; j < generatorWidth; j++) {
-                    GeneratorCell cell = grid.get(i).get(j);
-                    if (cell.getCellType().isWalkable() && visited[i][j] == 0) {
-                        queue.add(cell);
-                        break;
-                    }
+        /// First pass, provisional labels, 0 means not walkable
+        int nextLabel = 1;
+        for (int i = 0; i < generatorHeight; i++) {
+            for (int j = 0; j < generatorWidth; j++) {
+                int index = i * generatorWidth + j;
+                if (!grid.get(index).isWalkable()) {
+                    labels[index] = 0;
+                    continue;
                 }
-                if (!queue.isEmpty()) {
-                    break;
+                int above = i > 0 ? labels[index - generatorWidth] : 0;
+                int left = j > 0 ? labels[index - 1] : 0;
+                if (above == 0 && left == 0) {
+                    labels[index] = nextLabel++;
+                } else if (above == 0 || left == 0) {
+                    labels[index] = above + left;
+                } else {
+                    labels[index] = above;
+                    dsu.union(above, left);
                 }
             }
-            if (queue.isEmpty()) break;
-            while (!queue.isEmpty()) {
-                GeneratorCell current = queue.poll();
-                int i = current.getI();
-                int j = current.getJ();
-                if (visited[i][j] > 0 || !grid.get(i).get(j).getCellType().isWalkable()) {
-                    continue;
-                }
-
-                visited[i][j] = counter;
-                if (i + 1 < generatorHeight) queue.add(grid.get(i + 1).get(j));
-                if (i - 1 >= 0) queue.add(grid.get(i - 1).get(j));
-                if (j + 1 < generatorWidth) queue.add(grid.get(i).get(j + 1));
-                if (j - 1 >= 0) queue.add(grid.get(i).get(j - 1));
+        }
+        /// Second pass, resolve equivalences
+        for (int index = 0; index < size; index++) {
+            if (labels[index] != 0) {
+                labels[index] = dsu.find(labels[index]);
             }
-            ++counter;
         }
-        List<PassagePossibility> possibilities = new ArrayList<>();
-        DSU dsu = new DSU(counter);
 
-        /// Find all possible passages
+        /// Find all possible passages, encoded as wall index * 2 + (0 for vertical, 1 for horizontal)
+        int passageCount = 0;
         for (int i = 0; i < generatorHeight; i++) {
             for (int j = 0; j < generatorWidth; j++) {
-                GeneratorCell cell = grid.get(i).get(j);
-                if (cell.getCellType() == CellType.WALL) {
-                    GeneratorCell above = i - 1 >= 0 ? grid.get(i - 1).get(j) : null;
-                    GeneratorCell below = i + 1 < generatorHeight ? grid.get(i + 1).get(j) : null;
-                    GeneratorCell left = j - 1 >= 0 ? grid.get(i).get(j - 1) : null;
-                    GeneratorCell right = j + 1 < generatorWidth ? grid.get(i).get(j + 1) : null;
-
-                    if (above != null && below != null &&
-                        above.getCellType() == CellType.PATH && below.getCellType() == CellType.PATH &&
-                        !dsu.same(visited[i - 1][j], visited[i + 1][j])) {
-                        possibilities.add(new PassagePossibility(above, cell, below));
-                    }
-                    if (left != null && right != null &&
-                        left.getCellType() == CellType.PATH && right.getCellType() == CellType.PATH &&
-                        !dsu.same(visited[i][j - 1], visited[i][j + 1])) {
-                        possibilities.add(new PassagePossibility(left, cell, right));
-                    }
+                int index = i * generatorWidth + j;
+                if (grid.get(index) != CellType.WALL) {
+                    continue;
+                }
+                if (i - 1 >= 0 && i + 1 < generatorHeight &&
+                    grid.get(index - generatorWidth) == CellType.PATH &&
+                    grid.get(index + generatorWidth) == CellType.PATH &&
+                    labels[index - generatorWidth] != labels[index + generatorWidth]) {
+                    passages[passageCount++] = index * 2;
+                }
+                if (j - 1 >= 0 && j + 1 < generatorWidth &&
+                    grid.get(index - 1) == CellType.PATH &&
+                    grid.get(index + 1) == CellType.PATH &&
+                    labels[index - 1] != labels[index + 1]) {
+                    passages[passageCount++] = index * 2 + 1;
                 }
             }
-
         }
-        /// Randomize the possibilities
-        Collections.shuffle(possibilities, random);
-        for (PassagePossibility possibility : possibilities) {
-            GeneratorCell a = possibility.a();
-            GeneratorCell b = possibility.b();
-            GeneratorCell wall = possibility.wall();
-            if (dsu.same(visited[a.getI()][a.getJ()], visited[b.getI()][b.getJ()])) {
+        /// Randomize the possibilities, same sequence of random calls as Collections.shuffle
+        for (int k = passageCount; k > 1; k--) {
+            int swap = random.nextInt(k);
+            int passage = passages[k - 1];
+            passages[k - 1] = passages[swap];
+            passages[swap] = passage;
+        }
+        for (int k = 0; k < passageCount; k++) {
+            int wall = passages[k] >> 1;
+            int offset = (passages[k] & 1) == 0 ? generatorWidth : 1;
+            int a = labels[wall - offset];
+            int b = labels[wall + offset];
+            if (dsu.same(a, b)) {
                 continue;
             }
-            wall.setCellType(CellType.PATH);
-            dsu.union(visited[a.getI()][a.getJ()], visited[b.getI()][b.getJ()]);
+            grid.set(wall, CellType.PATH);
+            dsu.union(a, b);
         }
 
     }
 
-    /**
-     * <p>Gets the next cell in the given direction.</p>
-     *
-     * @param current        The current cell.
-     * @param directionIndex The index of the direction.
-     * @param distance       The distance to the next cell.
-     * @return {@link GeneratorCell} The next cell.
-     */
-    private GeneratorCell getNextCell(GeneratorCell current, int directionIndex, int distance) {
-        List<Integer> direction = directions.get(directionIndex);
-        return new GeneratorCell(
-            current.getI() + direction.get(0) * distance,
-            current.getJ() + direction.get(1) * distance
-        );
-    }
-
-    /**
-     * <p>Checks if the applied direction won't go out of bounds. I.e. - valid</p>
-     *
-     * @param cell           The current cell.
-     * @param directionIndex The index of the direction.
-     * @return {@code True} if the direction is valid, false otherwise.
-     */
-    private boolean validDirection(GeneratorCell cell, int directionIndex) {
-        GeneratorCell newCell = getNextCell(cell, directionIndex, 2);
-        return newCell.getI() >= 0 && newCell.getI() < generatorHeight &&
-            newCell.getJ() >= 0 && newCell.getJ() < generatorWidth;
-    }
-
-
     @Override
     public String toString() {
         Character spacing = ' ';
         StringBuilder sb = new StringBuilder();
-        for (List<GeneratorCell> generatorCells : grid) {
-            for (GeneratorCell generatorCell : generatorCells) {
-                switch (generatorCell.getCellType()) {
+        for (int i = 0; i < grid.height; i++) {
+            for (int j = 0; j < grid.width; j++) {
+                switch (grid.get(i, j)) {
                     case WALL -> sb.append("#");
                     case PATH -> sb.append(" ");
                     case TRAP -> sb.append("T");
@@ -715,4 +576,17 @@ public final class MazeGenerator {
     public Random getRandom() {
         return random;
     }
+
+    public MazeGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Replaces the grid, so that single stages of the generation can be rerun on a snapshot of an earlier stage
+     *
+     * @param grid the grid, with the dimensions expected by the next stage
+     */
+    void setGrid(MazeGrid grid) {
+        this.grid = grid;
+    }
 }
@@ -0,0 +1,213 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import de.tum.cit.fop.maze.level.worldgen.rooms.Room;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * <h2>Flat maze grid</h2>
+ * <p>Primitive-backed storage for the cells of a maze. Cell types are kept as {@link CellType} ordinals in a single
+ * row-major {@code byte[]}, room ownership is kept in a side table of room ids, so that neighbour lookups are plain
+ * array reads without any boxing or per-cell objects.</p>
+ * <p>Code that still works with {@link GeneratorCell} can use {@link #cell(int, int)}, which returns a view backed by
+ * this grid.</p>
+ */
+public final class MazeGrid {
+    private static final CellType[] CELL_TYPES = CellType.values();
+    /// Number of rows
+    public final int height;
+    /// Number of columns
+    public final int width;
+    /// {@link CellType} ordinals, row-major
+    private final byte[] cells;
+    /// Room id of every cell, {@code 0} if the cell is not part of a room
+    private final short[] roomIds;
+    /// Rooms referenced by {@link #roomIds}, id {@code k} is stored at index {@code k - 1}
+    private final ArrayList<Room> rooms = new ArrayList<>();
+
+    /**
+     * Creates a grid filled with {@link CellType#NONE}
+     *
+     * @param height number of rows
+     * @param width  number of columns
+     */
+    public MazeGrid(int height, int width) {
+        this(height, width, CellType.NONE);
+    }
+
+    /**
+     * Creates a grid filled with the given cell type
+     *
+     * @param height number of rows
+     * @param width  number of columns
+     * @param fill   the initial {@link CellType} of every cell
+     */
+    public MazeGrid(int height, int width, CellType fill) {
+        if (height <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Grid dimensions must be positive");
+        }
+        this.height = height;
+        this.width = width;
+        this.cells = new byte[height * width];
+        this.roomIds = new short[height * width];
+        fill(fill);
+    }
+
+    /**
+     * @param i row index
+     * @param j column index
+     * @return the flat index of the cell
+     */
+    public int index(int i, int j) {
+        return i * width + j;
+    }
+
+    /**
+     * @param i row index
+     * @param j column index
+     * @return {@code true} if the cell lies inside the grid
+     */
+    public boolean isInBounds(int i, int j) {
+        return i >= 0 && i < height && j >= 0 && j < width;
+    }
+
+    /**
+     * @param i row index
+     * @param j column index
+     * @return the {@link CellType} of the cell
+     */
+    public CellType get(int i, int j) {
+        return CELL_TYPES[cells[i * width + j]];
+    }
+
+    /**
+     * @param index flat index of the cell, see {@link #index(int, int)}
+     * @return the {@link CellType} of the cell
+     */
+    public CellType get(int index) {
+        return CELL_TYPES[cells[index]];
+    }
+
+    /**
+     * Sets the type of the cell
+     *
+     * @param i        row index
+     * @param j        column index
+     * @param cellType the new {@link CellType}
+     */
+    public void set(int i, int j, CellType cellType) {
+        cells[i * width + j] = (byte) cellType.ordinal();
+    }
+
+    /**
+     * Sets the type of the cell
+     *
+     * @param index    flat index of the cell, see {@link #index(int, int)}
+     * @param cellType the new {@link CellType}
+     */
+    public void set(int index, CellType cellType) {
+        cells[index] = (byte) cellType.ordinal();
+    }
+
+    /**
+     * Sets every cell of the grid to the given type, room ownership is kept
+     *
+     * @param cellType the new {@link CellType}
+     */
+    public void fill(CellType cellType) {
+        Arrays.fill(cells, (byte) cellType.ordinal());
+    }
+
+    /**
+     * Sets a run of cells in row-major order to the given type, room ownership is kept
+     *
+     * @param fromIndex flat index of the first cell, inclusive
+     * @param toIndex   flat index of the last cell, exclusive
+     * @param cellType  the new {@link CellType}
+     */
+    public void fill(int fromIndex, int toIndex, CellType cellType) {
+        Arrays.fill(cells, fromIndex, toIndex, (byte) cellType.ordinal());
+    }
+
+    /**
+     * @param i row index
+     * @param j column index
+     * @return the room the cell is part of, {@code null} if there is none
+     */
+    public Room getRoom(int i, int j) {
+        int id = roomIds[i * width + j];
+        return id == 0 ? null : rooms.get(id - 1);
+    }
+
+    /**
+     * Marks the cell as a part of the room
+     *
+     * @param i    row index
+     * @param j    column index
+     * @param room the room, {@code null} to clear the ownership
+     */
+    public void setRoom(int i, int j, Room room) {
+        roomIds[i * width + j] = room == null ? 0 : roomId(room);
+    }
+
+    /**
+     * Returns the id of the room in the side table, registering the room if needed
+     *
+     * @param room the room
+     * @return the id of the room ({@code > 0})
+     */
+    private short roomId(Room room) {
+        int index = rooms.indexOf(room);
+        if (index == -1) {
+            if (rooms.size() == Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many rooms in the grid");
+            }
+            rooms.add(room);
+            index = rooms.size() - 1;
+        }
+        return (short) (index + 1);
+    }
+
+    /**
+     * Compatibility view for code that still works with {@link GeneratorCell}.
+     * Reads and writes through the returned cell go directly to this grid.
+     *
+     * @param i row index
+     * @param j column index
+     * @return {@link GeneratorCell} backed by this grid
+     */
+    public GeneratorCell cell(int i, int j) {
+        if (!isInBounds(i, j)) {
+            throw new IndexOutOfBoundsException("Cell (" + i + ", " + j + ") is out of the grid");
+        }
+        return new GeneratorCell(this, i, j);
+    }
+
+    /**
+     * @return a copy of the grid with the same cells and room ownership
+     */
+    public MazeGrid copy() {
+        MazeGrid result = new MazeGrid(height, width);
+        result.rooms.addAll(rooms);
+        System.arraycopy(cells, 0, result.cells, 0, cells.length);
+        System.arraycopy(roomIds, 0, result.roomIds, 0, roomIds.length);
+        return result;
+    }
+
+    /**
+     * Creates a copy of the grid surrounded by a one cell thick border
+     *
+     * @param border the {@link CellType} of the border
+     * @return {@link MazeGrid} with dimensions {@code (height + 2) x (width + 2)}
+     */
+    public MazeGrid surround(CellType border) {
+        MazeGrid result = new MazeGrid(height + 2, width + 2, border);
+        result.rooms.addAll(rooms);
+        for (int i = 0; i < height; i++) {
+            System.arraycopy(cells, i * width, result.cells, (i + 1) * result.width + 1, width);
+            System.arraycopy(roomIds, i * width, result.roomIds, (i + 1) * result.width + 1, width);
+        }
+        return result;
+    }
+}
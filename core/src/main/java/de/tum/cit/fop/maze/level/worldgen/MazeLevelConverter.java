@@ -0,0 +1,49 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * <h2>Level converter</h2>
+ * <p>Command line tool of the {@code convertLevels} Gradle task, converts the hand-authored {@code .properties}
+ * levels to {@link MazeLevelFile level files}. The game itself only reads the converted files.</p>
+ */
+public final class MazeLevelConverter {
+    /**
+     * Private constructor to prevent instantiation
+     *
+     * @throws UnsupportedOperationException if the constructor is called
+     */
+    private MazeLevelConverter() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Converts every {@code .properties} level in the input directory to a level file in the output directory
+     *
+     * @param args input directory and output directory, {@code assets/mazeProperties} and {@code assets/mazeLevels}
+     *             by default
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        Path input = Path.of(args.length > 0 ? args[0] : "assets/mazeProperties");
+        Path output = Path.of(args.length > 1 ? args[1] : "assets/mazeLevels");
+        Files.createDirectories(output);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(input, "*.properties")) {
+            for (Path file : files) {
+                MazeGrid grid;
+                try (Reader reader = Files.newBufferedReader(file)) {
+                    grid = MazeLevelFile.readProperties(reader);
+                }
+                String name = file.getFileName().toString().replace(".properties", MazeLevelFile.EXTENSION);
+                Path target = output.resolve(name);
+                MazeLevelFile.write(grid, target);
+                System.out.println(file + " -> " + target + " (" + grid.width + "x" + grid.height + ", "
+                    + Files.size(target) + " bytes)");
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * <h2>Binary level file</h2>
+ * <p>Compact format of hand-authored levels, replacing the line based {@code .properties} files.
+ * A level file contains the final grid of the level, including the surrounding walls:</p>
+ * <ul>
+ *     <li>magic {@code "MZLV"} and the format version</li>
+ *     <li>height and width of the grid</li>
+ *     <li>row-major runs of cells, every run is the {@link CellType#value} byte followed by the run length as an
+ *     unsigned LEB128 varint</li>
+ * </ul>
+ * <p>Loading memory-maps the file and fills the {@link MazeGrid} run by run, so that even large mazes load without
+ * any parsing or per-cell allocations.</p>
+ */
+public final class MazeLevelFile {
+    /// File extension of the level files
+    public static final String EXTENSION = ".maze";
+    /// {@code "MZLV"}
+    private static final int MAGIC = 0x4D5A4C56;
+    private static final short VERSION = 1;
+    /// Offset of {@link CellType#value} in {@link #CELL_TYPES}, {@link CellType#NONE} is {@code -1}
+    private static final int VALUE_OFFSET = 1;
+    /// Cell types indexed by {@code value + VALUE_OFFSET}
+    private static final CellType[] CELL_TYPES = new CellType[16];
+
+    static {
+        for (CellType type : CellType.values()) {
+            CELL_TYPES[type.value + VALUE_OFFSET] = type;
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation
+     *
+     * @throws UnsupportedOperationException if the constructor is called
+     */
+    private MazeLevelFile() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Memory-maps a level file and fills a grid from it
+     *
+     * @param path path of the level file
+     * @return {@link MazeGrid} of the level
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid level file
+     */
+    public static MazeGrid read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Fills a grid from the level data, starting at the current position of the buffer
+     *
+     * @param buffer buffer containing the level data
+     * @return {@link MazeGrid} of the level
+     * @throws IllegalArgumentException if the data is not a valid level
+     */
+    public static MazeGrid read(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a level file");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported level file version " + version);
+            }
+            int height = buffer.getInt();
+            int width = buffer.getInt();
+            if (height <= 0 || width <= 0 || (long) height * width > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid level dimensions " + width + "x" + height);
+            }
+            MazeGrid grid = new MazeGrid(height, width);
+            int size = height * width;
+            int index = 0;
+            while (index < size) {
+                CellType type = cellType(buffer.get());
+                int length = readVarInt(buffer);
+                if (length <= 0 || length > size - index) {
+                    throw new IllegalArgumentException("Invalid run length " + length + " at cell " + index);
+                }
+                grid.fill(index, index + length, type);
+                index += length;
+            }
+            return grid;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated level file", e);
+        }
+    }
+
+    /**
+     * Writes the grid as a level file
+     *
+     * @param grid the grid of the level
+     * @param path path of the level file, overwritten if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(MazeGrid grid, Path path) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            write(grid, output);
+        }
+    }
+
+    /**
+     * Writes the level data of the grid, readable by {@link #read(ByteBuffer)}
+     *
+     * @param grid   the grid of the level
+     * @param output the output to write to
+     * @throws IOException if the data cannot be written
+     */
+    public static void write(MazeGrid grid, DataOutput output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+        output.writeInt(grid.height);
+        output.writeInt(grid.width);
+        int size = grid.height * grid.width;
+        int index = 0;
+        while (index < size) {
+            CellType type = grid.get(index);
+            int end = index + 1;
+            while (end < size && grid.get(end) == type) {
+                end++;
+            }
+            output.writeByte(type.value);
+            writeVarInt(output, end - index);
+            index = end;
+        }
+    }
+
+    /**
+     * <p>Reads a level in the legacy {@code .properties} format, lines {@code x,y=type} with the types</p>
+     * <ol start="0">
+     *     <li>Wall</li>
+     *     <li>Player</li>
+     *     <li>Exit door</li>
+     *     <li>Trap</li>
+     *     <li>Enemy</li>
+     *     <li>Key obelisk</li>
+     * </ol>
+     * <p>Cells missing in the file are paths, the level is surrounded with walls.</p>
+     *
+     * @param reader reader of the {@code .properties} file
+     * @return {@link MazeGrid} of the level
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public static MazeGrid readProperties(Reader reader) throws IOException {
+        int[] cells = new int[3 * 256];
+        int count = 0;
+        int maxX = 0;
+        int maxY = 0;
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            int comma = line.indexOf(',');
+            int equals = line.indexOf('=', comma + 1);
+            if (comma < 0 || equals < 0) {
+                throw new IllegalArgumentException("Invalid line \"" + line + "\"");
+            }
+            int x = parseNumber(line, 0, comma);
+            int y = parseNumber(line, comma + 1, equals);
+            int type = parseNumber(line, equals + 1, line.length());
+            if (count + 3 > cells.length) {
+                cells = Arrays.copyOf(cells, cells.length * 2);
+            }
+            cells[count++] = x;
+            cells[count++] = y;
+            cells[count++] = type;
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+
+        /// Filled directly with the surrounding walls instead of copying with {@link MazeGrid#surround(CellType)}
+        MazeGrid grid = new MazeGrid(maxY + 3, maxX + 3, CellType.WALL);
+        for (int i = 1; i <= maxY + 1; i++) {
+            grid.fill(grid.index(i, 1), grid.index(i, maxX + 2), CellType.PATH);
+        }
+        for (int k = 0; k < count; k += 3) {
+            CellType type = switch (cells[k + 2]) {
+                case 0 -> CellType.WALL;
+                case 1 -> CellType.PLAYER;
+                case 2 -> CellType.EXIT_DOOR;
+                case 3 -> CellType.TRAP;
+                case 4 -> CellType.ENEMY;
+                case 5 -> CellType.KEY_OBELISK;
+                default -> throw new IllegalArgumentException("Invalid cell type");
+            };
+            grid.set(cells[k + 1] + 1, cells[k] + 1, type);
+        }
+        return grid;
+    }
+
+    /**
+     * Parses a non-negative decimal number without creating substrings
+     *
+     * @param line the line
+     * @param from index of the first digit, inclusive
+     * @param to   index of the last digit, exclusive
+     * @return the parsed number
+     * @throws IllegalArgumentException if the range is not a number
+     */
+    private static int parseNumber(String line, int from, int to) {
+        if (from >= to) {
+            throw new IllegalArgumentException("Invalid line \"" + line + "\"");
+        }
+        int result = 0;
+        for (int k = from; k < to; k++) {
+            int digit = line.charAt(k) - '0';
+            if (digit < 0 || digit > 9 || result > (Integer.MAX_VALUE - digit) / 10) {
+                throw new IllegalArgumentException("Invalid line \"" + line + "\"");
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static CellType cellType(byte value) {
+        int index = value + VALUE_OFFSET;
+        CellType type = index >= 0 && index < CELL_TYPES.length ? CELL_TYPES[index] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid cell type " + value);
+        }
+        return type;
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed run length");
+    }
+
+    private static void writeVarInt(DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+}
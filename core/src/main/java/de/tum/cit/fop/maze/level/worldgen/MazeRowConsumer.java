@@ -0,0 +1,20 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+/**
+ * <p>Callback receiving the finished rows of a {@link StreamingMazeGenerator}.</p>
+ */
+@FunctionalInterface
+public interface MazeRowConsumer {
+    /**
+     * Accepts a finished row of the maze.
+     * <p>The window has three rows: row {@code 1} is the finished row, rows {@code 0} and {@code 2} are its
+     * neighbours, so that the cases of {@code GenerationCases} can be checked for row {@code 1}.
+     * Above the first row the window contains {@link CellType#WALL}, below the last row {@link CellType#NONE},
+     * which gives the same results as the edges of a complete grid.
+     * The window is reused for the next row, it must not be kept.</p>
+     *
+     * @param row    index of the row in the maze, including the surrounding walls
+     * @param window the finished row with its neighbours
+     */
+    void accept(int row, MazeGrid window);
+}
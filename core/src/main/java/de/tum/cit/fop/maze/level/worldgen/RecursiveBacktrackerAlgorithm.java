@@ -0,0 +1,68 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <h2>Recursive backtracker</h2>
+ * <p>Randomized depth-first search over the maze cells. The recursion is replaced by an explicit
+ * {@code int[]} stack, so the depth of the search is not limited by the thread stack.</p>
+ * <p>Produces long winding corridors with few dead ends and runs in linear time.</p>
+ */
+public final class RecursiveBacktrackerAlgorithm implements MazeAlgorithm {
+    /// Row offsets of the directions: right, down, left, up
+    private static final int[] DIRECTION_I = {0, 1, 0, -1};
+    /// Column offsets of the directions: right, down, left, up
+    private static final int[] DIRECTION_J = {1, 0, -1, 0};
+
+    /// Visited maze cells
+    private boolean[] visited = new boolean[0];
+    /// Cells of the current depth-first branch
+    private int[] stack = new int[0];
+    /// Unvisited neighbours of the current cell
+    private final int[] candidates = new int[4];
+
+    @Override
+    public void carve(MazeGrid grid, Random random) {
+        int rows = (grid.height + 1) / 2;
+        int columns = (grid.width + 1) / 2;
+        int size = rows * columns;
+        if (visited.length < size) {
+            visited = new boolean[size];
+            stack = new int[size];
+        } else {
+            Arrays.fill(visited, 0, size, false);
+        }
+
+        int top = 0;
+        int start = random.nextInt(size);
+        stack[top++] = start;
+        visited[start] = true;
+        grid.set((start / columns) * 2, (start % columns) * 2, CellType.PATH);
+
+        while (top > 0) {
+            int current = stack[top - 1];
+            int i = current / columns;
+            int j = current % columns;
+            int candidateCount = 0;
+            for (int directionIndex = 0; directionIndex < 4; directionIndex++) {
+                int nextI = i + DIRECTION_I[directionIndex];
+                int nextJ = j + DIRECTION_J[directionIndex];
+                if (nextI >= 0 && nextI < rows && nextJ >= 0 && nextJ < columns &&
+                    !visited[nextI * columns + nextJ]) {
+                    candidates[candidateCount++] = directionIndex;
+                }
+            }
+            if (candidateCount == 0) {
+                --top;
+                continue;
+            }
+            int directionIndex = candidates[random.nextInt(candidateCount)];
+            int next = current + DIRECTION_I[directionIndex] * columns + DIRECTION_J[directionIndex];
+            visited[next] = true;
+            grid.set(i * 2 + DIRECTION_I[directionIndex], j * 2 + DIRECTION_J[directionIndex], CellType.PATH);
+            grid.set((next / columns) * 2, (next % columns) * 2, CellType.PATH);
+            stack[top++] = next;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import de.tum.cit.fop.maze.Globals;
+
+import java.util.Random;
+
+/**
+ * <h1>Streaming maze generator</h1>
+ * <p>Generates a maze from top to bottom and emits the finished rows to a {@link MazeRowConsumer} as they are
+ * ready, instead of building the whole grid first. The walls are carved with {@link EllersAlgorithm}, which only
+ * needs the current row, so the memory use only depends on the width of the maze. This allows very tall levels
+ * that become playable as soon as the first rows are built.</p>
+ * <p>Rooms need the whole grid and are not generated, instead:
+ * <ul>
+ *     <li>the player starts in a random cell of the first row</li>
+ *     <li>the key obelisk is placed in a random cell of a random row below</li>
+ *     <li>the exit is placed in the bottom wall</li>
+ *     <li>traps are placed with the same rules as {@link MazeGenerator}</li>
+ * </ul>
+ * </p>
+ * <p>The dimensions follow {@link MazeGenerator}: the generator dimensions are made odd and the maze is
+ * surrounded by walls.</p>
+ */
+public final class StreamingMazeGenerator {
+    public final int width;
+    public final int height;
+    private final Random random;
+    private final EllersAlgorithm ellersAlgorithm = new EllersAlgorithm();
+    /// Rows {@code nextRow - 1}, {@code nextRow} and {@code nextRow + 1} of the maze
+    private final MazeGrid window;
+    /// Maze cell row (in the maze with the surrounding walls) of the key obelisk
+    private final int keyRow;
+    /// The next row to emit
+    private int nextRow = 0;
+
+    /**
+     * <p>Constructor</p>
+     *
+     * @param height The generatorHeight of the maze. <b>It will be adjusted to be odd.</b>
+     * @param width  The generatorWidth of the maze. <b>It will be adjusted to be odd.</b>
+     * @param random instance of Random class
+     */
+    public StreamingMazeGenerator(int height, int width, Random random) {
+        int generatorWidth = (2 * (width / 2)) + 1;
+        int generatorHeight = (2 * (height / 2)) + 1;
+        this.width = generatorWidth + 2;
+        this.height = generatorHeight + 2;
+        this.random = random;
+        this.window = new MazeGrid(3, this.width, CellType.WALL);
+        ellersAlgorithm.begin((generatorWidth + 1) / 2);
+
+        int mazeRows = (generatorHeight + 1) / 2;
+        if (mazeRows < 2) {
+            throw new IllegalArgumentException("Streamed maze must have at least two rows of cells");
+        }
+        /// The key is never in the first row with the player
+        this.keyRow = 1 + 2 * (1 + random.nextInt(mazeRows - 1));
+        /// Rows 0 and 1 of the maze
+        loadRow(0, 1);
+        loadRow(1, 2);
+    }
+
+    /**
+     * @return {@code true} if there are rows left to emit
+     */
+    public boolean hasNextRow() {
+        return nextRow < height;
+    }
+
+    /**
+     * @return the number of rows emitted so far
+     */
+    public int getEmittedRows() {
+        return nextRow;
+    }
+
+    /**
+     * Generates and emits the next rows of the maze
+     *
+     * @param count    maximum number of rows to emit
+     * @param consumer the consumer of the rows
+     * @return the number of emitted rows
+     */
+    public int generateRows(int count, MazeRowConsumer consumer) {
+        int emitted = 0;
+        while (emitted < count && hasNextRow()) {
+            generateTraps();
+            consumer.accept(nextRow, window);
+            ++nextRow;
+            ++emitted;
+            shiftWindow();
+            loadRow(nextRow + 1, 2);
+        }
+        return emitted;
+    }
+
+    /**
+     * Generates and emits all remaining rows of the maze
+     *
+     * @param consumer the consumer of the rows
+     */
+    public void generateAll(MazeRowConsumer consumer) {
+        generateRows(Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Fills a row of the window with the given row of the maze
+     *
+     * @param row       row of the maze, including the surrounding walls
+     * @param windowRow row of the window
+     */
+    private void loadRow(int row, int windowRow) {
+        if (row > height - 1) {
+            for (int j = 0; j < width; j++) {
+                window.set(windowRow, j, CellType.NONE);
+            }
+            return;
+        }
+        for (int j = 0; j < width; j++) {
+            window.set(windowRow, j, CellType.WALL);
+        }
+        if (row == height - 1) {
+            generateExit(windowRow);
+            return;
+        }
+        if (row == 0) {
+            return;
+        }
+        int mazeRow = row - 1;
+        int columns = (width - 1) / 2;
+        if (mazeRow % 2 == 0) {
+            ellersAlgorithm.nextRow(random, row == height - 2);
+            for (int column = 0; column < columns; column++) {
+                window.set(windowRow, 1 + column * 2, CellType.PATH);
+                if (ellersAlgorithm.hasRightPassage(column)) {
+                    window.set(windowRow, 2 + column * 2, CellType.PATH);
+                }
+            }
+            if (row == 1) {
+                window.set(windowRow, 1 + random.nextInt(columns) * 2, CellType.PLAYER);
+            } else if (row == keyRow) {
+                window.set(windowRow, 1 + random.nextInt(columns) * 2, CellType.KEY_OBELISK);
+            }
+        } else {
+            for (int column = 0; column < columns; column++) {
+                if (ellersAlgorithm.hasDownPassage(column)) {
+                    window.set(windowRow, 1 + column * 2, CellType.PATH);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the rows of the window one row up
+     */
+    private void shiftWindow() {
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < width; j++) {
+                window.set(i, j, window.get(i + 1, j));
+            }
+        }
+    }
+
+    /**
+     * Places traps in the middle row of the window, same rules as in {@link MazeGenerator}
+     */
+    private void generateTraps() {
+        if (nextRow == 0 || nextRow == height - 1) {
+            return;
+        }
+        for (int j = 1; j < width - 1; j++) {
+            CellType current = window.get(1, j);
+            boolean aboveWall = window.get(0, j).isWall();
+            boolean belowWall = window.get(2, j).isWall();
+            boolean leftWall = window.get(1, j - 1).isWall();
+            boolean rightWall = window.get(1, j + 1).isWall();
+            int totalSurroundingWallCount = (aboveWall ? 1 : 0) + (belowWall ? 1 : 0) +
+                (leftWall ? 1 : 0) + (rightWall ? 1 : 0);
+            if (!current.isRoom() && current.isPath() &&
+                ((aboveWall && belowWall) || (leftWall && rightWall))
+                && totalSurroundingWallCount < 3
+                && random.nextDouble() < Globals.TRAP_SPAWN_CHANCE) {
+                window.set(1, j, CellType.TRAP);
+            }
+        }
+    }
+
+    /**
+     * Places the exit door in the bottom wall, below a walkable cell
+     *
+     * @param windowRow row of the window with the bottom wall, the row above is the last row of the maze
+     */
+    private void generateExit(int windowRow) {
+        int eligibleCount = 0;
+        for (int j = 1; j < width - 1; j++) {
+            if (!window.get(windowRow - 1, j).isWall()) {
+                ++eligibleCount;
+            }
+        }
+        if (eligibleCount == 0) {
+            throw new IllegalArgumentException("No eligible cells for exit door");
+        }
+        int doorPosition = random.nextInt(eligibleCount);
+        for (int j = 1; j < width - 1; j++) {
+            if (!window.get(windowRow - 1, j).isWall() && doorPosition-- == 0) {
+                window.set(windowRow, j, CellType.EXIT_DOOR);
+                return;
+            }
+        }
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+}
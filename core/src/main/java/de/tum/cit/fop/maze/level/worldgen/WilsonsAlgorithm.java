@@ -0,0 +1,206 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <h2>Wilson's algorithm</h2>
+ * <p>Carves a uniform spanning tree maze into a {@link MazeGrid} using loop-erased random walks.
+ * Maze cells are the cells with even coordinates, the cells between them are the passages.</p>
+ * <p>All the bookkeeping works on maze cell indices in preallocated primitive arrays:
+ * <ul>
+ *     <li>the visited cells are a bitset</li>
+ *     <li>the last exit direction of the current walk is an {@code int[]}, later walks simply overwrite it,
+ *     which is exactly the loop erasure</li>
+ *     <li>the unvisited cells are an indexed pool that returns the k-th remaining cell in row-major order
+ *     in {@code O(log n)}, so that the cells are picked in the same order as by the original list based version</li>
+ * </ul>
+ * No objects are allocated while carving, the arrays are reused if the instance carves several grids.</p>
+ */
+public final class WilsonsAlgorithm implements MazeAlgorithm {
+    /// Row offsets of the directions: right, down, left, up
+    private static final int[] DIRECTION_I = {0, 1, 0, -1};
+    /// Column offsets of the directions: right, down, left, up
+    private static final int[] DIRECTION_J = {1, 0, -1, 0};
+
+    /// Visited maze cells
+    private long[] visited = new long[0];
+    /// Exit direction of every maze cell in the current walk
+    private int[] walk = new int[0];
+    /// Unvisited maze cells
+    private final CellPool unvisited = new CellPool();
+    /// Number of maze cell rows
+    private int rows;
+    /// Number of maze cell columns
+    private int columns;
+
+    @Override
+    public void carve(MazeGrid grid, Random random) {
+        reset((grid.height + 1) / 2, (grid.width + 1) / 2);
+
+        int current = unvisited.removeAt(random.nextInt(unvisited.size()));
+        markVisited(grid, current);
+
+        while (unvisited.size() > 0) {
+            int first = unvisited.get(random.nextInt(unvisited.size()));
+            current = first;
+            /// Random walk until a visited cell is hit, remembering the last exit direction of every cell
+            do {
+                int directionIndex = random.nextInt(4);
+                while (!validDirection(current, directionIndex)) {
+                    directionIndex = random.nextInt(4);
+                }
+                walk[current] = directionIndex;
+                current = step(current, directionIndex);
+            } while (!isVisited(current));
+
+            /// Roll back to the first cell and carve the loop-erased walk
+            current = first;
+            while (!isVisited(current)) {
+                markVisited(grid, current);
+                unvisited.remove(current);
+                int directionIndex = walk[current];
+                int i = (current / columns) * 2;
+                int j = (current % columns) * 2;
+                grid.set(i + DIRECTION_I[directionIndex], j + DIRECTION_J[directionIndex], CellType.PATH);
+                current = step(current, directionIndex);
+            }
+        }
+    }
+
+    /**
+     * Prepares the arrays for a grid of the given number of maze cells
+     *
+     * @param rows    number of maze cell rows
+     * @param columns number of maze cell columns
+     */
+    private void reset(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        int size = rows * columns;
+        int words = (size + 63) >>> 6;
+        if (visited.length < words) {
+            visited = new long[words];
+        } else {
+            Arrays.fill(visited, 0L);
+        }
+        if (walk.length < size) {
+            walk = new int[size];
+        }
+        unvisited.reset(size);
+    }
+
+    private boolean isVisited(int cell) {
+        return (visited[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private void markVisited(MazeGrid grid, int cell) {
+        visited[cell >>> 6] |= 1L << cell;
+        grid.set((cell / columns) * 2, (cell % columns) * 2, CellType.PATH);
+    }
+
+    /**
+     * @param cell           maze cell index
+     * @param directionIndex index of the direction
+     * @return {@code true} if the neighbouring maze cell in the direction is inside the grid
+     */
+    private boolean validDirection(int cell, int directionIndex) {
+        int i = cell / columns + DIRECTION_I[directionIndex];
+        int j = cell % columns + DIRECTION_J[directionIndex];
+        return i >= 0 && i < rows && j >= 0 && j < columns;
+    }
+
+    /**
+     * @param cell           maze cell index
+     * @param directionIndex index of the direction
+     * @return index of the neighbouring maze cell in the direction
+     */
+    private int step(int cell, int directionIndex) {
+        return cell + DIRECTION_I[directionIndex] * columns + DIRECTION_J[directionIndex];
+    }
+
+    /**
+     * <p>Set of cell indices {@code 0..size-1} supporting removal by value and access by rank.
+     * Backed by a Fenwick tree of presence flags, every operation is {@code O(log n)}.</p>
+     * <p>Unlike swapping the removed cell with the last one, this keeps the remaining cells in their original
+     * order, which is what keeps the generated mazes identical for the same seed.</p>
+     */
+    private static final class CellPool {
+        /// Fenwick tree, 1-based
+        private int[] tree = new int[1];
+        private boolean[] present = new boolean[0];
+        private int capacity;
+        private int size;
+        /// Highest power of two not greater than the capacity
+        private int topBit;
+
+        /**
+         * Fills the pool with all indices {@code 0..capacity-1}
+         *
+         * @param capacity number of indices
+         */
+        void reset(int capacity) {
+            if (tree.length < capacity + 1) {
+                tree = new int[capacity + 1];
+                present = new boolean[capacity];
+            }
+            this.capacity = capacity;
+            this.size = capacity;
+            Arrays.fill(present, 0, capacity, true);
+            /// Linear time construction of the tree of ones
+            for (int k = 1; k <= capacity; k++) {
+                tree[k] = k & -k;
+            }
+            topBit = Integer.highestOneBit(Math.max(capacity, 1));
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @param rank zero-based rank among the remaining indices
+         * @return the remaining index with the given rank
+         */
+        int get(int rank) {
+            int position = 0;
+            int remaining = rank + 1;
+            for (int bit = topBit; bit != 0; bit >>>= 1) {
+                int next = position + bit;
+                if (next <= capacity && tree[next] < remaining) {
+                    position = next;
+                    remaining -= tree[next];
+                }
+            }
+            return position;
+        }
+
+        /**
+         * Removes the remaining index with the given rank
+         *
+         * @param rank zero-based rank among the remaining indices
+         * @return the removed index
+         */
+        int removeAt(int rank) {
+            int value = get(rank);
+            remove(value);
+            return value;
+        }
+
+        /**
+         * Removes the index if it is still in the pool
+         *
+         * @param value the index to remove
+         */
+        void remove(int value) {
+            if (!present[value]) {
+                return;
+            }
+            present[value] = false;
+            --size;
+            for (int k = value + 1; k <= capacity; k += k & -k) {
+                tree[k]--;
+            }
+        }
+    }
+}
@@ -2,10 +2,9 @@ package de.tum.cit.fop.maze.level.worldgen.rooms;
 
 
 import de.tum.cit.fop.maze.level.worldgen.CellType;
-import de.tum.cit.fop.maze.level.worldgen.GeneratorCell;
 import de.tum.cit.fop.maze.level.worldgen.GeneratorStrategy;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
 
-import java.util.ArrayList;
 import java.util.Random;
 
 public class Entrance extends Room {
@@ -14,9 +13,11 @@ public class Entrance extends Room {
     }
 
     @Override
-    public void generate(ArrayList<ArrayList<GeneratorCell>> mazeCells, Random random) {
-        for (GeneratorCell cell : this.roomCells) {
-            updateCellType(mazeCells, cell.getI(), cell.getJ(), CellType.ROOM_PATH);
+    public void generate(MazeGrid mazeCells, Random random) {
+        for (int k = i; k < i + height; k++) {
+            for (int l = j; l < j + width; l++) {
+                updateCellType(mazeCells, k, l, CellType.ROOM_PATH);
+            }
         }
         /// Spawn player in the center of the start
         updateCellType(mazeCells, i + 2, j + 2, CellType.PLAYER);
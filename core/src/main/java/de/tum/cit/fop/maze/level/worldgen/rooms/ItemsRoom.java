@@ -2,10 +2,9 @@ package de.tum.cit.fop.maze.level.worldgen.rooms;
 
 
 import de.tum.cit.fop.maze.level.worldgen.CellType;
-import de.tum.cit.fop.maze.level.worldgen.GeneratorCell;
 import de.tum.cit.fop.maze.level.worldgen.GeneratorStrategy;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
 
-import java.util.ArrayList;
 import java.util.Random;
 
 public class ItemsRoom extends Room {
@@ -15,7 +14,7 @@ public class ItemsRoom extends Room {
     }
 
     @Override
-    public void generate(ArrayList<ArrayList<GeneratorCell>> mazeCells, Random random) {
+    public void generate(MazeGrid mazeCells, Random random) {
         super.generate(mazeCells, random);
         updateCellType(
             mazeCells, i + 1, j + 1, CellType.TREASURE_ROOM_ITEM
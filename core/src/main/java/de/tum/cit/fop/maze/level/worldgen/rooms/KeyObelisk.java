@@ -1,10 +1,9 @@
 package de.tum.cit.fop.maze.level.worldgen.rooms;
 
 import de.tum.cit.fop.maze.level.worldgen.CellType;
-import de.tum.cit.fop.maze.level.worldgen.GeneratorCell;
 import de.tum.cit.fop.maze.level.worldgen.GeneratorStrategy;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
 
-import java.util.ArrayList;
 import java.util.Random;
 
 public class KeyObelisk extends Room {
@@ -14,12 +13,12 @@ public class KeyObelisk extends Room {
 
 
     @Override
-    public void generate(ArrayList<ArrayList<GeneratorCell>> mazeCells, Random random) {
-        for (GeneratorCell cell : this.roomCells) {
-            updateCellType(mazeCells, cell.getI(), cell.getJ(), CellType.ROOM_PATH);
-            if (cell.getI() == i + 1 && cell.getJ() == j + 1) {
-                updateCellType(mazeCells, cell.getI(), cell.getJ(), CellType.KEY_OBELISK);
+    public void generate(MazeGrid mazeCells, Random random) {
+        for (int k = i; k < i + height; k++) {
+            for (int l = j; l < j + width; l++) {
+                updateCellType(mazeCells, k, l, CellType.ROOM_PATH);
             }
         }
+        updateCellType(mazeCells, i + 1, j + 1, CellType.KEY_OBELISK);
     }
 }
@@ -1,14 +1,13 @@
 package de.tum.cit.fop.maze.level.worldgen.rooms;
 
 import de.tum.cit.fop.maze.level.worldgen.CellType;
-import de.tum.cit.fop.maze.level.worldgen.GeneratorCell;
 import de.tum.cit.fop.maze.level.worldgen.GeneratorStrategy;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
 
 /**
  * <p>Represents a room in the maze.</p>
@@ -25,8 +24,6 @@ public abstract class Room {
     protected int i = -1;
     /// The column index of the room
     protected int j = -1;
-    /// The list of cells that are part of the room
-    protected List<GeneratorCell> roomCells = null;
 
     protected Room(int height, int width, GeneratorStrategy generatorStrategy) {
         this.height = height;
@@ -34,15 +31,6 @@ public abstract class Room {
         this.generatorStrategy = generatorStrategy;
     }
 
-    /**
-     * Sets the list of cells that are part of the room
-     *
-     * @param roomCells the list of cells that are part of the room
-     */
-    public void setRoomCells(List<GeneratorCell> roomCells) {
-        this.roomCells = roomCells;
-    }
-
     /**
      * Sets the location of the room
      *
@@ -60,60 +48,56 @@ public abstract class Room {
      * @param maze   the maze
      * @param random the random instance to use
      */
-    public void generateDoor(ArrayList<ArrayList<GeneratorCell>> maze, Random random) {
+    public void generateDoor(MazeGrid maze, Random random) {
         if (i == -1 || j == -1) {
             throw new IllegalStateException("Room location is not set");
         }
         /// Door can't be generated at corners so we chose only walls and filter out the corner cells
-        List<GeneratorCell> candidates = this.roomCells.stream().filter(
-            cell -> (
-                cell.getCellType() == CellType.ROOM_WALL && (
-                    cell.getI() != i || cell.getJ() != j
-                ) && (
-                    cell.getI() != i + height - 1 || cell.getJ() != j
-                ) && (
-                    cell.getI() != i || cell.getJ() != j + width - 1
-                ) && (
-                    cell.getI() != i + height - 1 || cell.getJ() != j + width - 1
-                )
-            )
-        ).collect(Collectors.toList());
+        List<Integer> candidates = new ArrayList<>();
+        for (int k = i; k < i + height; k++) {
+            for (int l = j; l < j + width; l++) {
+                boolean corner = (k == i || k == i + height - 1) && (l == j || l == j + width - 1);
+                if (maze.get(k, l) == CellType.ROOM_WALL && !corner) {
+                    candidates.add(maze.index(k, l));
+                }
+            }
+        }
         Collections.shuffle(candidates, random);
-        for (GeneratorCell candidate : candidates) {
-            int cellI = candidate.getI();
-            int cellJ = candidate.getJ();
-            if (cellI - 1 > 0 && maze.get(cellI - 1).get(cellJ).getCellType() == CellType.PATH) {
+        for (int candidate : candidates) {
+            int cellI = candidate / maze.width;
+            int cellJ = candidate % maze.width;
+            if (cellI - 1 > 0 && maze.get(cellI - 1, cellJ) == CellType.PATH) {
                 updateCellType(maze, cellI, cellJ, CellType.DOOR);
                 return;
-            } else if (cellI + 1 < maze.size() && maze.get(cellI + 1).get(cellJ).getCellType() == CellType.PATH) {
+            } else if (cellI + 1 < maze.height && maze.get(cellI + 1, cellJ) == CellType.PATH) {
                 updateCellType(maze, cellI, cellJ, CellType.DOOR);
                 return;
-            } else if (cellJ - 1 > 0 && maze.get(cellI).get(cellJ - 1).getCellType() == CellType.PATH) {
+            } else if (cellJ - 1 > 0 && maze.get(cellI, cellJ - 1) == CellType.PATH) {
                 updateCellType(maze, cellI, cellJ, CellType.DOOR);
                 return;
-            } else if (cellJ + 1 < maze.get(cellI).size() && maze.get(cellI).get(cellJ + 1).getCellType() == CellType.PATH) {
+            } else if (cellJ + 1 < maze.width && maze.get(cellI, cellJ + 1) == CellType.PATH) {
                 updateCellType(maze, cellI, cellJ, CellType.DOOR);
                 return;
             }
         }
 
         /// Remove a wall next to the door as well if there is no other options to generate a reachable door
-        for (GeneratorCell candidate : candidates) {
-            int cellI = candidate.getI();
-            int cellJ = candidate.getJ();
-            if (cellI - 1 > 0 && maze.get(cellI - 1).get(cellJ).getCellType() == CellType.WALL) {
+        for (int candidate : candidates) {
+            int cellI = candidate / maze.width;
+            int cellJ = candidate % maze.width;
+            if (cellI - 1 > 0 && maze.get(cellI - 1, cellJ) == CellType.WALL) {
                 updateCellType(maze, cellI, cellJ, CellType.DOOR);
                 updateCellType(maze, cellI - 1, cellJ, CellType.PATH);
                 return;
-            } else if (cellI + 1 < maze.size() && maze.get(cellI + 1).get(cellJ).getCellType() == CellType.WALL) {
+            } else if (cellI + 1 < maze.height && maze.get(cellI + 1, cellJ) == CellType.WALL) {
                 updateCellType(maze, cellI, cellJ, CellType.DOOR);
                 updateCellType(maze, cellI + 1, cellJ, CellType.PATH);
                 return;
-            } else if (cellJ - 1 > 0 && maze.get(cellI).get(cellJ - 1).getCellType() == CellType.WALL) {
+            } else if (cellJ - 1 > 0 && maze.get(cellI, cellJ - 1) == CellType.WALL) {
                 updateCellType(maze, cellI, cellJ, CellType.DOOR);
                 updateCellType(maze, cellI, cellJ - 1, CellType.PATH);
                 return;
-            } else if (cellJ + 1 < maze.get(cellI).size() && maze.get(cellI).get(cellJ + 1).getCellType() == CellType.WALL) {
+            } else if (cellJ + 1 < maze.width && maze.get(cellI, cellJ + 1) == CellType.WALL) {
                 updateCellType(maze, cellI, cellJ, CellType.DOOR);
                 updateCellType(maze, cellI, cellJ + 1, CellType.PATH);
                 return;
@@ -130,7 +114,7 @@ public abstract class Room {
      * @param mazeCells - matrix of maze
      * @param random    - random instance
      */
-    public void generate(ArrayList<ArrayList<GeneratorCell>> mazeCells, Random random) {
+    public void generate(MazeGrid mazeCells, Random random) {
         for (int i = 0; i < height; i++) {
             for (int j = 0; j < width; j++) {
                 if (i == 0 || i == height - 1 || j == 0 || j == width - 1) {
@@ -152,11 +136,11 @@ public abstract class Room {
      * @param j        the column of the cell
      * @param cellType the new cell type
      */
-    public void updateCellType(ArrayList<ArrayList<GeneratorCell>> maze, int i, int j, CellType cellType) {
+    public void updateCellType(MazeGrid maze, int i, int j, CellType cellType) {
         if (this.i == -1 || this.j == -1) {
             throw new IllegalStateException("Room location is not set");
         }
-        maze.get(i).get(j).setCellType(cellType);
+        maze.set(i, j, cellType);
     }
 
 }
@@ -2,10 +2,9 @@ package de.tum.cit.fop.maze.level.worldgen.rooms;
 
 
 import de.tum.cit.fop.maze.level.worldgen.CellType;
-import de.tum.cit.fop.maze.level.worldgen.GeneratorCell;
 import de.tum.cit.fop.maze.level.worldgen.GeneratorStrategy;
+import de.tum.cit.fop.maze.level.worldgen.MazeGrid;
 
-import java.util.ArrayList;
 import java.util.Random;
 
 public class Shop extends Room {
@@ -21,7 +20,7 @@ public class Shop extends Room {
      * @param random    - random instance
      */
     @Override
-    public void generate(ArrayList<ArrayList<GeneratorCell>> mazeCells, Random random) {
+    public void generate(MazeGrid mazeCells, Random random) {
         super.generate(mazeCells, random);
         updateCellType(mazeCells, i + 2, j + 2, CellType.SHOP_ITEM);
         updateCellType(mazeCells, i + 2, j + 3, CellType.SHOP_ITEM);
@@ -26,11 +26,10 @@ import de.tum.cit.fop.maze.essentials.Assets;
 import de.tum.cit.fop.maze.level.LevelData;
 import de.tum.cit.fop.maze.level.LevelScreen;
 import de.tum.cit.fop.maze.level.worldgen.MazeGenerator;
+import de.tum.cit.fop.maze.level.worldgen.MazeLevelFile;
 import games.rednblack.miniaudio.MASound;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Locale;
@@ -490,7 +489,7 @@ public class PlayGameScreen implements Screen {
         private TextureRegion textFieldRegion;
         private TextureRegion dropDownMenuRegion;
         private TextureRegion exitIconRegion;
-        private FileHandle[] propertiesFiles;
+        private FileHandle[] levelFiles;
         private int seed;
 
         /**
@@ -619,13 +618,13 @@ public class PlayGameScreen implements Screen {
             selectBox.getList().setAlignment(Align.center);
             selectBox.getList();
 
-            /// Load all properties files
-            propertiesFiles = Gdx.files.local("assets/mazeProperties").list();
-            String[] fileNames = new String[propertiesFiles.length + 1];
+            /// Load all level files, converted from the .properties files by the convertLevels Gradle task
+            levelFiles = Gdx.files.local("assets/mazeLevels").list(MazeLevelFile.EXTENSION);
+            String[] fileNames = new String[levelFiles.length + 1];
             fileNames[0] = "Select file";
 
-            /// Sort the properties files by level
-            Arrays.sort(propertiesFiles, (a, b) -> {
+            /// Sort the level files by level
+            Arrays.sort(levelFiles, (a, b) -> {
                 String numA = a.name().replaceAll("[^0-9]", "");
                 String numB = b.name().replaceAll("[^0-9]", "");
                 try {
@@ -637,8 +636,8 @@ public class PlayGameScreen implements Screen {
                 }
             });
 
-            for (int i = 1; i < propertiesFiles.length + 1; i++) {
-                fileNames[i] = propertiesFiles[i - 1].name().replace(".properties", "");
+            for (int i = 1; i < levelFiles.length + 1; i++) {
+                fileNames[i] = levelFiles[i - 1].nameWithoutExtension();
             }
 
             selectBox.setItems(fileNames);
@@ -691,15 +690,15 @@ public class PlayGameScreen implements Screen {
                         LevelScreen.getInstance().render(0);
                         LevelScreen.getInstance().saveGame();
                     } else {
-                        /// Load maze from properties file
-                        FileHandle selectedFile = propertiesFiles[selectBox.getSelectedIndex() - 1];
+                        /// Load maze from level file
+                        FileHandle selectedFile = levelFiles[selectBox.getSelectedIndex() - 1];
                         try {
-                            new LevelScreen(new MazeGenerator(new FileReader(selectedFile.file())));
+                            new LevelScreen(new MazeGenerator(MazeLevelFile.read(selectedFile.file().toPath())));
                             LevelScreen.getInstance().setLevelIndex(gameIndex);
                             Menu.getInstance().toggleMenuState(MenuState.GAME_SCREEN, true);
                             LevelScreen.getInstance().render(0);
                             LevelScreen.getInstance().saveGame();
-                        } catch (FileNotFoundException e) {
+                        } catch (IOException e) {
                             throw new RuntimeException(e);
                         }
                     }
@@ -0,0 +1,82 @@
+package de.tum.cit.fop.maze.level;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static de.tum.cit.fop.maze.Globals.CELL_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * <h2>Tiled map adapter test</h2>
+ * <p>Writes and reads maps with a {@link TileRegistry} of empty texture regions, so no graphics context is
+ * needed.</p>
+ */
+class TiledMapAdapterTest {
+    private final TileRegistry registry = new TileRegistry((textureName, index) -> new TextureRegion());
+    private final TileMap.TiledMapAdapter adapter = new TileMap.TiledMapAdapter(registry);
+
+    @Test
+    void roundTripKeepsEveryCell() throws IOException {
+        TiledMapTileLayer layer = new TiledMapTileLayer(5, 3, CELL_SIZE, CELL_SIZE);
+        layer.setCell(0, 0, registry.cell("wall", 0));
+        layer.setCell(1, 0, registry.cell("wall", 2));
+        layer.setCell(4, 0, registry.cell("floor", 1));
+        layer.setCell(2, 1, registry.cell("wall", 0));
+        layer.setCell(3, 2, registry.cell("floor", 0));
+        /// Cells that were not interned, like the ones of the debug layer, are not written
+        Cell debug = new Cell();
+        debug.setTile(new StaticTiledMapTile(new TextureRegion()));
+        layer.setCell(4, 2, debug);
+        TiledMap map = new TiledMap();
+        map.getLayers().add(layer);
+
+        TiledMapTileLayer read = (TiledMapTileLayer) adapter.fromJson(adapter.toJson(map)).getLayers().get(0);
+
+        assertEquals(layer.getWidth(), read.getWidth());
+        assertEquals(layer.getHeight(), read.getHeight());
+        for (int y = 0; y < layer.getHeight(); y++) {
+            for (int x = 0; x < layer.getWidth(); x++) {
+                if (layer.getCell(x, y) == debug) {
+                    assertNull(read.getCell(x, y));
+                } else {
+                    assertSame(layer.getCell(x, y), read.getCell(x, y), "cell " + x + ", " + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void readsLegacyTiles() throws IOException {
+        /// Written before the registry, "tiles" holds the texture variation of every tile by column
+        String json = """
+            {
+              "width": 3,
+              "height": 2,
+              "tiles": [
+                [{"texture": "wall", "index": 0}, {"texture": "floor", "index": 1}],
+                [null, {"texture": "wall", "index": 2}],
+                [{"texture": "floor", "index": 1}, null]
+              ]
+            }
+            """;
+
+        TiledMapTileLayer read = (TiledMapTileLayer) adapter.fromJson(json).getLayers().get(0);
+
+        assertEquals(3, read.getWidth());
+        assertEquals(2, read.getHeight());
+        assertSame(registry.cell("wall", 0), read.getCell(0, 0));
+        assertSame(registry.cell("floor", 1), read.getCell(0, 1));
+        assertNull(read.getCell(1, 0));
+        assertSame(registry.cell("wall", 2), read.getCell(1, 1));
+        assertSame(registry.cell("floor", 1), read.getCell(2, 0));
+        assertNull(read.getCell(2, 1));
+    }
+}
@@ -0,0 +1,54 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * <h2>Batch maze generator test</h2>
+ * <p>The levels of a batch must not depend on the number of threads generating them.</p>
+ */
+class BatchMazeGeneratorTest {
+    private static final long MASTER_SEED = 42;
+    private static final int COUNT = 24;
+    private static final int THREADS = 4;
+
+    @Test
+    void levelsDoNotDependOnThreadCount() {
+        assertSameOnAnyThreadCount(new BatchMazeGenerator(35, 35, MazeAlgorithmType.WILSON));
+    }
+
+    @Test
+    void streamedLevelsDoNotDependOnThreadCount() {
+        assertSameOnAnyThreadCount(new BatchMazeGenerator(35, 35, MazeAlgorithmType.WILSON, true));
+    }
+
+    private static void assertSameOnAnyThreadCount(BatchMazeGenerator generator) {
+        assertArrayEquals(
+            bytes(generator.generateGrids(MASTER_SEED, COUNT, 1)),
+            bytes(generator.generateGrids(MASTER_SEED, COUNT, THREADS))
+        );
+        assertArrayEquals(generator.generate(MASTER_SEED, COUNT, 1), generator.generate(MASTER_SEED, COUNT, THREADS));
+    }
+
+    /**
+     * @return the dimensions and the cell types of all grids, a failed level is a single {@code -1}
+     */
+    private static byte[] bytes(MazeGrid[] grids) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (MazeGrid grid : grids) {
+            if (grid == null) {
+                bytes.write(-1);
+                continue;
+            }
+            bytes.write(grid.height);
+            bytes.write(grid.width);
+            for (int index = 0; index < grid.height * grid.width; index++) {
+                bytes.write(grid.get(index).ordinal());
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,59 @@
+package de.tum.cit.fop.maze.level.worldgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * <h2>Wilson's algorithm test</h2>
+ * <p>Pins the mazes carved by {@link WilsonsAlgorithm} for a fixed seed, so that the worlds of existing seeds do not
+ * change. The recorded maze was carved by the original list based version.</p>
+ */
+class WilsonsAlgorithmTest {
+    /// Maze carved for seed {@code 42}, {@code #} is a wall and {@code .} a path
+    private static final String[] SEED_42 = {
+        ".#.#...#.#.#...",
+        ".#.#.###.#.###.",
+        ".#.#...#...#...",
+        ".#.#.#.#.#.#.#.",
+        ".....#...#.#.#.",
+        "####.#.#####.#.",
+        ".....#.#.#.#.#.",
+        ".#.#.#.#.#.#.##",
+        ".#.#.#...#.#.#.",
+        "####.#.#.#.#.#.",
+        "...#.#.#.......",
+        "##.###.#####.#.",
+        ".........#.#.#.",
+        ".###.###.#.###.",
+        "...#.#.......#.",
+    };
+
+    @Test
+    void carvesTheRecordedMaze() {
+        assertArrayEquals(SEED_42, carve(new WilsonsAlgorithm(), 42));
+    }
+
+    @Test
+    void reusedInstanceCarvesTheSameMaze() {
+        WilsonsAlgorithm algorithm = new WilsonsAlgorithm();
+        carve(algorithm, 7);
+        assertArrayEquals(SEED_42, carve(algorithm, 42));
+    }
+
+    private static String[] carve(WilsonsAlgorithm algorithm, long seed) {
+        MazeGrid grid = new MazeGrid(SEED_42.length, SEED_42[0].length(), CellType.WALL);
+        algorithm.carve(grid, new Random(seed));
+        String[] rows = new String[grid.height];
+        for (int i = 0; i < grid.height; i++) {
+            StringBuilder row = new StringBuilder();
+            for (int j = 0; j < grid.width; j++) {
+                row.append(grid.get(i, j).isWall() ? '#' : '.');
+            }
+            rows[i] = row.toString();
+        }
+        return rows;
+    }
+}